@@ -1,5 +1,7 @@
 package org.poo.fileio;
 
+import java.util.ArrayList;
+
 public final class ActionsInput {
     private String command;
     private int handIdx;
@@ -9,6 +11,7 @@ public final class ActionsInput {
     private int playerIdx;
     private int x;
     private int y;
+    private ArrayList<String> fields;
 
     public ActionsInput() {
     }
@@ -77,6 +80,14 @@ public final class ActionsInput {
         this.y = y;
     }
 
+    public ArrayList<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(final ArrayList<String> fields) {
+        this.fields = fields;
+    }
+
     @Override
     public String toString() {
         return "ActionsInput{"
@@ -96,6 +107,8 @@ public final class ActionsInput {
                 + x
                 + ", y="
                 + y
+                + ", fields="
+                + fields
                 + '}';
     }
 }
@@ -1,5 +1,9 @@
 package org.poo.fileio;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.poo.main.Serialization.CoordinatesSerializer;
+
+@JsonSerialize(using = CoordinatesSerializer.class)
 public final class Coordinates {
    private int x, y;
 
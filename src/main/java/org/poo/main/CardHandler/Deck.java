@@ -1,14 +1,20 @@
 package org.poo.main.CardHandler;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import org.poo.fileio.CardInput;
 import org.poo.fileio.DecksInput;
+import org.poo.main.Rules.CardRule;
+import org.poo.main.Rules.CardRules;
+import org.poo.main.Serialization.CardSerializer;
 
 
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
+// Minions, heroes and environment cards inherit the hand-written serializer
+@JsonSerialize(using = CardSerializer.class)
 public class Deck {
 
     public static final int INITIAL_HEALTH = 30;
@@ -24,6 +30,10 @@ public class Deck {
     @JsonIgnore
     private int attackUsed;
 
+    // Bound when the card is created, so the handlers never look the rules up
+    @JsonIgnore
+    private CardRule rule;
+
     /**
      * Constructor to initialize a Deck object with specific attributes.
      *
@@ -42,6 +52,21 @@ public class Deck {
         this.name = name;
         this.isFrozen = 0;
         this.attackUsed = 0;
+        this.rule = CardRules.get().forName(name);
+    }
+
+    /**
+     * Copy constructor, sharing the rules of the original card. The frozen and attack
+     * used flags are reset.
+     *
+     * @param other The card to copy.
+     */
+    protected Deck(final Deck other) {
+        this.mana = other.mana;
+        this.description = other.description;
+        this.colors = new ArrayList<>(other.colors);
+        this.name = other.name;
+        this.rule = other.rule;
     }
 
     public Deck() {
@@ -154,6 +179,38 @@ public class Deck {
      */
     public void setName(final String name) {
         this.name = name;
+        this.rule = CardRules.get().forName(name);
+    }
+
+    /**
+     * Gets the compiled rules of the card.
+     *
+     * @return The rules bound to the card name.
+     */
+    @JsonIgnore
+    public CardRule getRule() {
+        return rule;
+    }
+
+    /**
+     * Creates a deep copy of a card in its current state, including the frozen and
+     * attack used flags, which the copy constructors reset.
+     *
+     * @param card The card to copy.
+     * @return The copy, of the same card type.
+     */
+    public static Deck copyOf(final Deck card) {
+        Deck copy;
+        if (card instanceof Environment environment) {
+            copy = new Environment(environment);
+        } else if (card instanceof Hero hero) {
+            copy = new Hero(hero);
+        } else {
+            copy = new Minion((Minion) card);
+        }
+        copy.isFrozen = card.isFrozen;
+        copy.attackUsed = card.attackUsed;
+        return copy;
     }
 
     /**
@@ -169,11 +226,11 @@ public class Deck {
             LinkedList<Deck> deck = new LinkedList<>();
 
             for (CardInput cardInput : cardInputsDeck) {
-                String name = cardInput.getName();
+                CardRule cardRule = CardRules.get().forName(cardInput.getName());
 
-                if (isMinion(name)) {
+                if (cardRule.isMinion()) {
                     deck.addLast(new Minion(cardInput));
-                } else if (isEnvironment(name)) {
+                } else if (cardRule.isEnvironment()) {
                     deck.addLast(new Environment(cardInput));
                 }
             }
@@ -182,37 +239,4 @@ public class Deck {
         }
         return deckOfDecks;
     }
-
-    /**
-     * Checks if a card is a minion based on its name.
-     *
-     * @param name The name of the card.
-     * @return True if the card is a minion, false otherwise.
-     */
-    private static boolean isMinion(final String name) {
-        return switch (name) {
-            case "The Ripper",
-                    "Miraj",
-                    "The Cursed One",
-                    "Disciple",
-                    "Sentinel",
-                    "Berserker",
-                    "Goliath",
-                    "Warden" -> true;
-            default -> false;
-        };
-    }
-
-    /**
-     * Checks if a card is an environment card based on its name.
-     *
-     * @param name The name of the card.
-     * @return True if the card is an environment card, false otherwise.
-     */
-    private static boolean isEnvironment(final String name) {
-        return switch (name) {
-            case "Firestorm", "Winterfell", "Heart Hound" -> true;
-            default -> false;
-        };
-    }
 }
@@ -14,7 +14,12 @@ public class Environment extends Deck {
                 cardInput.getName());
     }
 
-    public Environment(Environment card) {
-        super();
+    /**
+     * Copy constructor to create a new Environment card from an existing one.
+     *
+     * @param card the existing Environment card to copy
+     */
+    public Environment(final Environment card) {
+        super(card);
     }
 }
@@ -13,7 +13,7 @@ public class Hero extends Deck {
      * @param hero the Hero instance to be copied
      */
     public Hero(final Hero hero) {
-        super(hero.getMana(), hero.getDescription(), hero.getColors(), hero.getName());
+        super(hero);
         this.setHealth(hero.health);
     }
 
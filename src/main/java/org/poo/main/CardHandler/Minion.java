@@ -21,7 +21,7 @@ public class Minion extends Deck {
      * @param minion the existing Minion object to copy
      */
     public Minion(final Minion minion) {
-        super(minion.getMana(), minion.getDescription(), minion.getColors(), minion.getName());
+        super(minion);
         this.health = minion.getHealth();
         this.attackDamage = minion.getAttackDamage();
     }
@@ -42,6 +42,9 @@ public class Minion extends Deck {
      * @param health the new health value to set
      */
     public void setHealth(final int health) {
+        if (row != null && health != this.health) {
+            row.healthChanged();
+        }
         this.health = health;
     }
 
@@ -63,8 +66,19 @@ public class Minion extends Deck {
         this.attackDamage = attackDamage;
     }
 
+    /**
+     * Sets the row the minion was last added to, told about its health changes.
+     *
+     * @param row the row of the minion
+     */
+    void setRow(final MinionRow row) {
+        this.row = row;
+    }
+
 
 
     private int health;
     private int attackDamage;
+    // Not copied: a copy is not on the table until it is added to a row
+    private MinionRow row;
 }
@@ -0,0 +1,166 @@
+package org.poo.main.CardHandler;
+
+import java.util.Collection;
+import java.util.LinkedList;
+
+/**
+ * A row of minions on the playing table that keeps track of its highest health minions.
+ * The positions of the highest health minion used by Empress Thorina (the last one on a
+ * tie) and by Heart Hound (the first one on a tie) are kept until the row changes: a
+ * minion is placed or removed, or the health of one of its minions changes. Asking for
+ * them again without a change costs O(1).
+ * <p>
+ * Minions learn the row they were added to, so their health setter can tell it. A row
+ * holds at most a handful of minions, so a change only marks the positions as stale and
+ * the next query finds both of them in a single scan.
+ */
+public final class MinionRow extends LinkedList<Minion> {
+    private static final long serialVersionUID = 1L;
+    private static final long INT_MASK = 0xFFFFFFFFL;
+
+    // Bumped by the minions of the row when their health changes
+    private transient int healthVersion;
+    // The versions the positions were found for, the list counts its own changes
+    private transient int scannedModCount = -1;
+    private transient int scannedHealthVersion;
+    private transient int firstMaxHealthIdx;
+    private transient int lastMaxHealthIdx;
+
+    /**
+     * Creates an empty row.
+     */
+    public MinionRow() {
+        super();
+    }
+
+    /**
+     * Gets the position of the minion with the highest health of a row; on a tie, the
+     * last one. This is the minion destroyed by Empress Thorina.
+     *
+     * @param row The minions of the row.
+     * @return The index of the minion, or -1 if the row is empty.
+     */
+    public static int lastIndexOfMaxHealth(final LinkedList<Minion> row) {
+        if (row instanceof MinionRow minionRow) {
+            minionRow.refresh();
+            return minionRow.lastMaxHealthIdx;
+        }
+        return (int) scan(row);
+    }
+
+    /**
+     * Gets the position of the minion with the highest health of a row; on a tie, the
+     * first one. This is the minion stolen by Heart Hound.
+     *
+     * @param row The minions of the row.
+     * @return The index of the minion, or 0 if no minion has health left.
+     */
+    public static int firstIndexOfMaxHealth(final LinkedList<Minion> row) {
+        if (row instanceof MinionRow minionRow) {
+            minionRow.refresh();
+            return minionRow.firstMaxHealthIdx;
+        }
+        return (int) (scan(row) >>> Integer.SIZE);
+    }
+
+    /**
+     * Finds both positions in a single pass.
+     *
+     * @param row The minions of the row.
+     * @return The first position in the high half and the last one in the low half.
+     */
+    private static long scan(final LinkedList<Minion> row) {
+        // Same starting values and comparisons as the abilities always used
+        int firstMaxHealth = 0;
+        int firstIdx = 0;
+        int lastMaxHealth = -1;
+        int lastIdx = -1;
+        int k = 0;
+        for (Minion minion : row) {
+            int health = minion.getHealth();
+            if (health > firstMaxHealth) {
+                firstMaxHealth = health;
+                firstIdx = k;
+            }
+            if (health >= lastMaxHealth) {
+                lastMaxHealth = health;
+                lastIdx = k;
+            }
+            k++;
+        }
+        return (long) firstIdx << Integer.SIZE | lastIdx & INT_MASK;
+    }
+
+    /**
+     * Finds the positions again if the row changed since they were found.
+     */
+    private void refresh() {
+        if (scannedModCount == modCount && scannedHealthVersion == healthVersion) {
+            return;
+        }
+        long positions = scan(this);
+        firstMaxHealthIdx = (int) (positions >>> Integer.SIZE);
+        lastMaxHealthIdx = (int) positions;
+        scannedModCount = modCount;
+        scannedHealthVersion = healthVersion;
+    }
+
+    /**
+     * Called by a minion of the row when its health changes.
+     */
+    void healthChanged() {
+        healthVersion++;
+    }
+
+    /**
+     * Makes a minion report its health changes to this row.
+     *
+     * @param minion The minion added to the row.
+     */
+    private void adopt(final Minion minion) {
+        minion.setRow(this);
+    }
+
+    @Override
+    public boolean add(final Minion minion) {
+        adopt(minion);
+        return super.add(minion);
+    }
+
+    @Override
+    public void add(final int index,
+                    final Minion minion) {
+        adopt(minion);
+        super.add(index, minion);
+    }
+
+    @Override
+    public void addFirst(final Minion minion) {
+        adopt(minion);
+        super.addFirst(minion);
+    }
+
+    @Override
+    public void addLast(final Minion minion) {
+        adopt(minion);
+        super.addLast(minion);
+    }
+
+    @Override
+    public boolean addAll(final int index,
+                          final Collection<? extends Minion> minions) {
+        for (Minion minion : minions) {
+            adopt(minion);
+        }
+        return super.addAll(index, minions);
+    }
+
+    @Override
+    public Minion set(final int index,
+                      final Minion minion) {
+        // Replacing a minion is not a structural change of the list
+        adopt(minion);
+        healthChanged();
+        return super.set(index, minion);
+    }
+}
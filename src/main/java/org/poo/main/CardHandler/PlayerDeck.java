@@ -0,0 +1,93 @@
+package org.poo.main.CardHandler;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The remaining deck of a player during a game: the shuffled cards in an array and a
+ * cursor on the next card to draw. Drawing only moves the cursor, so no node is
+ * allocated or unlinked, and the remaining cards are still read as a list in draw
+ * order.
+ */
+public final class PlayerDeck extends AbstractList<Deck> implements RandomAccess {
+    private final Deck[] cards;
+    private int cursor;
+
+    /**
+     * Creates a deck holding deep copies of the given cards.
+     *
+     * @param originalDeck The cards of the deck, in input order.
+     */
+    public PlayerDeck(final List<Deck> originalDeck) {
+        cards = new Deck[originalDeck.size()];
+        int i = 0;
+        for (Deck card : originalDeck) {
+            if (card instanceof Environment environment) {
+                // Environment card requires a deep copy of the environment object
+                cards[i++] = new Environment(environment);
+            } else {
+                // Minion card requires a deep copy of the minion object
+                cards[i++] = new Minion((Minion) card);
+            }
+        }
+    }
+
+    /**
+     * Creates a deep copy of the remaining cards of a deck, in their current state.
+     *
+     * @param other The deck to copy.
+     */
+    public PlayerDeck(final PlayerDeck other) {
+        cards = new Deck[other.size()];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = Deck.copyOf(other.get(i));
+        }
+    }
+
+    /**
+     * Shuffles the remaining cards exactly like
+     * {@code Collections.shuffle(deck, new Random(seed))}, so games keep their order.
+     * The permutation of the shuffle comes from {@link ShufflePermutations}.
+     *
+     * @param seed The shuffle seed of the game.
+     */
+    public void shuffle(final int seed) {
+        int size = size();
+        int[] permutation = ShufflePermutations.get(seed, size);
+        Deck[] remaining = Arrays.copyOfRange(cards, cursor, cards.length);
+        for (int i = 0; i < size; i++) {
+            cards[cursor + i] = remaining[permutation[i]];
+        }
+    }
+
+    /**
+     * Draws the next card.
+     *
+     * @return The drawn card.
+     * @throws IllegalStateException If the deck is empty.
+     */
+    public Deck draw() {
+        if (cursor == cards.length) {
+            throw new IllegalStateException("The deck is empty.");
+        }
+        Deck card = cards[cursor];
+        // The card now belongs to the hand
+        cards[cursor++] = null;
+        return card;
+    }
+
+    @Override
+    public Deck get(final int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return cards[cursor + index];
+    }
+
+    @Override
+    public int size() {
+        return cards.length - cursor;
+    }
+}
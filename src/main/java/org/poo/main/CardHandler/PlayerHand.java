@@ -0,0 +1,108 @@
+package org.poo.main.CardHandler;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * The cards in hand of a player: a compact array with indexed access and the number of
+ * environment cards it holds, kept up to date on every change so that
+ * {@link #hasEnvironmentCards()} does not look at the cards.
+ */
+public final class PlayerHand extends AbstractList<Deck> implements RandomAccess {
+    private Deck[] cards;
+    private int size;
+    private int environmentCards;
+
+    /**
+     * Creates an empty hand.
+     *
+     * @param capacity The number of cards the hand can hold before growing, usually
+     *                 the size of the player's deck.
+     */
+    public PlayerHand(final int capacity) {
+        cards = new Deck[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Creates a deep copy of a hand, in the current state of its cards.
+     *
+     * @param other The hand to copy.
+     */
+    public PlayerHand(final PlayerHand other) {
+        cards = new Deck[other.cards.length];
+        size = other.size;
+        environmentCards = other.environmentCards;
+        for (int i = 0; i < size; i++) {
+            cards[i] = Deck.copyOf(other.cards[i]);
+        }
+    }
+
+    /**
+     * Adds a drawn card at the end of the hand.
+     *
+     * @param card The card to add.
+     * @return Always true.
+     */
+    @Override
+    public boolean add(final Deck card) {
+        if (size == cards.length) {
+            cards = Arrays.copyOf(cards, size * 2);
+        }
+        cards[size++] = card;
+        if (card instanceof Environment) {
+            environmentCards++;
+        }
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Removes a card from the hand, shifting the following cards to the left.
+     *
+     * @param index The index of the card in hand.
+     * @return The removed card.
+     */
+    @Override
+    public Deck remove(final int index) {
+        Deck card = get(index);
+        System.arraycopy(cards, index + 1, cards, index, size - index - 1);
+        cards[--size] = null;
+        if (card instanceof Environment) {
+            environmentCards--;
+        }
+        modCount++;
+        return card;
+    }
+
+    @Override
+    public Deck get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return cards[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of environment cards in hand.
+     *
+     * @return The number of environment cards.
+     */
+    public int getEnvironmentCount() {
+        return environmentCards;
+    }
+
+    /**
+     * Tells whether the hand holds any environment card.
+     *
+     * @return True if at least one card in hand is an environment card.
+     */
+    public boolean hasEnvironmentCards() {
+        return environmentCards > 0;
+    }
+}
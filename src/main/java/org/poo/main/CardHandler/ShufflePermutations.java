@@ -0,0 +1,78 @@
+package org.poo.main.CardHandler;
+
+import org.poo.main.Instrumentation.GameMetrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Caches the permutations applied by {@code Collections.shuffle(deck, new Random(seed))},
+ * keyed by seed and deck size. Tournament inputs shuffle decks of the same size with
+ * the same seeds over and over, so the swaps are only computed (and the Random only
+ * created) the first time. The least recently used permutations are evicted once
+ * {@link #MAX_ENTRIES} are cached. Hits and misses are counted in {@link GameMetrics}.
+ */
+public final class ShufflePermutations {
+    public static final int MAX_ENTRIES = 4096;
+
+    // Access ordered, so the eldest entry is the least recently used one
+    private static final LinkedHashMap<Long, int[]> PERMUTATIONS =
+            new LinkedHashMap<>(MAX_ENTRIES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Long, int[]> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+
+    private ShufflePermutations() {
+    }
+
+    /**
+     * Gets the permutation of a shuffle: the card at position {@code i} after the
+     * shuffle is the card at position {@code permutation[i]} before it. The array is
+     * shared and must not be modified.
+     *
+     * @param seed The shuffle seed.
+     * @param size The number of cards.
+     * @return The permutation.
+     */
+    public static int[] get(final int seed,
+                            final int size) {
+        // A size is never negative, so it fills the low half as it is
+        Long key = ((long) seed << Integer.SIZE) | size;
+        synchronized (PERMUTATIONS) {
+            int[] permutation = PERMUTATIONS.get(key);
+            GameMetrics.recordShuffleCacheLookup(permutation != null);
+            if (permutation != null) {
+                return permutation;
+            }
+            permutation = compute(seed, size);
+            PERMUTATIONS.put(key, permutation);
+            return permutation;
+        }
+    }
+
+    /**
+     * Applies the same swaps as {@code Collections.shuffle} to the identity permutation.
+     *
+     * @param seed The shuffle seed.
+     * @param size The number of cards.
+     * @return The permutation.
+     */
+    private static int[] compute(final int seed,
+                                 final int size) {
+        int[] permutation = new int[size];
+        for (int i = 0; i < size; i++) {
+            permutation[i] = i;
+        }
+        Random random = new Random(seed);
+        for (int i = size; i > 1; i--) {
+            int j = random.nextInt(i);
+            int swapped = permutation[i - 1];
+            permutation[i - 1] = permutation[j];
+            permutation[j] = swapped;
+        }
+        return permutation;
+    }
+}
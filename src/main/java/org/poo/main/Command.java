@@ -3,19 +3,13 @@ package org.poo.main;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.poo.fileio.*;
 import org.poo.main.CardHandler.Deck;
-import org.poo.main.CardHandler.Environment;
-import org.poo.main.CardHandler.Hero;
-import org.poo.main.CardHandler.Minion;
-import org.poo.main.GameAction.GameCardPlay;
-import org.poo.main.GameAction.GameInfo;
-import org.poo.main.GameHandler.EnvironmentCardHandler;
-import org.poo.main.GameHandler.GameActionHandler;
-import org.poo.main.GameHandler.Statistics;
+import org.poo.main.Instrumentation.CommandEvent;
+import org.poo.main.Instrumentation.GameMetrics;
+import org.poo.main.Instrumentation.GameStartEvent;
+import org.poo.main.Simulation.StateTrace;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.LinkedList;
-import java.util.Random;
 
 
 public class Command {
@@ -23,8 +17,10 @@ public class Command {
     private final LinkedList<LinkedList<Deck>> playerOne;
     private final LinkedList<LinkedList<Deck>> playerTwo;
     private final ArrayNode output;
-
-    public static final int INITIAL_CAPACITY = 4;
+    private StateTrace stateTrace;
+    private GameResultCache resultCache;
+    private boolean keepLastSession;
+    private GameSession lastSession;
 
     /**
      * Constructor to initialize the Command object with the necessary input data,
@@ -45,6 +41,33 @@ public class Command {
         this.output = output;
     }
 
+    /**
+     * Sets the trace that records or verifies the state hash after every command.
+     *
+     * @param stateTrace The state trace, or null to disable tracing.
+     */
+    public void setStateTrace(final StateTrace stateTrace) {
+        this.stateTrace = stateTrace;
+    }
+
+    /**
+     * Makes the last game always be played, so its session can be checkpointed.
+     *
+     * @param keepLastSession True to keep the session of the last game.
+     */
+    public void setKeepLastSession(final boolean keepLastSession) {
+        this.keepLastSession = keepLastSession;
+    }
+
+    /**
+     * Gets the session of the last game that was played or resumed.
+     *
+     * @return The session, or null if no game was played.
+     */
+    public GameSession getLastSession() {
+        return lastSession;
+    }
+
     /**
      * Executes the commands for each game session defined in the input data.
      * This method initializes the game state, manages player decks, and executes
@@ -52,19 +75,28 @@ public class Command {
      * game statistics.
      */
     public void run() {
+        // Replayed games have no per-command state to trace
+        resultCache = GameResultCache.isEnabled() && stateTrace == null
+                ? new GameResultCache(inputData) : null;
         Utils utils = new Utils();
         utils.setPlayerOneWins(0);
         utils.setPlayerTwoWins(0);
 
+        if (GamePrefixTrie.isEnabled() && stateTrace == null && !keepLastSession) {
+            // Games sharing their first actions execute them once
+            new GamePrefixTrie(inputData, playerOne, playerTwo).run(output, utils);
+            return;
+        }
+
         for (int i = 0; i < inputData.getGames().size(); i++) {
             initializeGame(utils, i);
+            GameMetrics.recordGameCompleted();
         }
     }
 
     /**
-     * Initializes the game setup for the given game session.
-     * This method includes setting initial mana, shuffling player decks, drawing the first card,
-     * setting up the playing table, and determining the starting player.
+     * Initializes the game session for the given game index and executes
+     * each command in its command list.
      *
      * @param utils Utility object containing game state information.
      * @param gameIndex The index of the current game session.
@@ -73,80 +105,65 @@ public class Command {
                                 final int gameIndex) {
         StartGameInput newGame = getCurrentGame(gameIndex);
         ArrayList<ActionsInput> commandList = getCommandList(gameIndex);
-        LinkedList<Deck> playerOneDeck = deepCopyDeck(playerOne.get(newGame.getPlayerOneDeckIdx()));
-        LinkedList<Deck> playerTwoDeck = deepCopyDeck(playerTwo.get(newGame.getPlayerTwoDeckIdx()));
-
-        // Initialize players' mana, hands, and draw the first card
-        setInitialMana(utils);
-        LinkedList<Deck> playerOneDeckInHand = new LinkedList<>();
-        LinkedList<Deck> playerTwoDeckInHand = new LinkedList<>();
-        shuffleAndDrawFirstCard(playerOneDeck, playerOneDeckInHand, newGame);
-        shuffleAndDrawFirstCard(playerTwoDeck, playerTwoDeckInHand, newGame);
-
-        // Initialize the playing table and heroes
-        ArrayList<LinkedList<Minion>> playingTable = initializePlayingTable();
-        Hero playerOneHero = new Hero(newGame.getPlayerOneHero());
-        Hero playerTwoHero = new Hero(newGame.getPlayerTwoHero());
-
-        // Set the initial turn and number of rounds
-        setInitialTurnAndRounds(utils, newGame);
-
-        // Execute each command in the command list
-        for (int j = 0; j < commandList.size(); j++) {
-            ActionsInput command = commandList.get(j);
-            switch (command.getCommand()) {
-                case ("getCardsInHand") -> GameInfo.getCardsInHand(output, command,
-                        playerOneDeckInHand, playerTwoDeckInHand);
-                case ("getPlayerDeck") -> GameInfo.getPlayerDeck(output, command,
-                        playerOneDeck, playerTwoDeck);
-                case ("getCardsOnTable") -> GameInfo.getCardsOnTable(output, playingTable);
-                case ("getPlayerTurn") -> GameInfo.getPlayerTurn(output, utils.getTurn());
-                case ("getPlayerHero") -> GameInfo.getPlayerHero(output, command, playerOneHero,
-                        playerTwoHero);
-                case ("getCardAtPosition") -> GameInfo.getCardsAtPosition(output, command,
-                        playingTable);
-                case ("getPlayerMana") -> GameInfo.getPlayerMana(output, command,
-                        utils.getPlayerOneMana(), utils.getPlayerTwoMana());
-                case ("getEnvironmentCardsInHand") -> GameInfo.getEnvironmentCardsInHand(output,
-                        command, playerOneDeckInHand, playerTwoDeckInHand);
-                case ("getFrozenCardsOnTable") -> GameInfo.getFrozenCardsOnTable(output,
-                        playingTable);
-                case ("getTotalGamesPlayed") -> Statistics.getTotalGamesPlayed(output, gameIndex);
-                case ("getPlayerOneWins") -> Statistics.getPlayerOneWins(output,
-                        utils.getPlayerOneWins());
-                case ("getPlayerTwoWins") -> Statistics.getPlayerTwoWins(output,
-                        utils.getPlayerTwoWins());
-                case ("endPlayerTurn") -> GameActionHandler.endPlayerTurn(playerOneDeck,
-                        playerTwoDeck, playerOneDeckInHand, playerTwoDeckInHand,
-                        playingTable, playerOneHero, playerTwoHero, newGame, utils);
-                case ("placeCard") -> GameActionHandler.placeCard(output, command,
-                        utils.getTurn(), playingTable, playerOneDeckInHand,
-                        playerTwoDeckInHand, utils);
-                case ("cardUsesAttack") -> GameCardPlay.cardUsesAttack(output, command,
-                        playingTable, utils.getTurn());
-                case ("cardUsesAbility") -> GameCardPlay.cardUsesAbility(output, command,
-                        playingTable, utils.getTurn());
-                case ("useAttackHero") -> GameCardPlay.cardAttackHero(output, command,
-                        playingTable, utils.getTurn(), utils, playerOneHero, playerTwoHero);
-                case ("useHeroAbility") -> GameCardPlay.useHeroAbility(output, command,
-                        playingTable, utils.getTurn(),
-                        utils, playerOneHero, playerTwoHero);
-                case ("useEnvironmentCard") -> EnvironmentCardHandler.useEnvironmentCard(output,
-                        command, playerOneDeckInHand, playerTwoDeckInHand, playingTable,
-                        utils, utils.getTurn());
-                default -> System.out.println("Invalid command received.");
-            }
+        GameStartEvent.emit(gameIndex, newGame);
+
+        // A duplicate of an earlier game is emitted from its output
+        boolean replayable = resultCache != null
+                && !(keepLastSession && gameIndex == inputData.getGames().size() - 1);
+        long gameKey = replayable ? resultCache.key(gameIndex) : 0;
+        if (replayable && resultCache.replay(gameKey, output, gameIndex, utils)) {
+            return;
+        }
+        int gameOutputStart = output.size();
+        GameSession session = new GameSession(newGame, gameIndex, playerOne, playerTwo, utils);
+        lastSession = session;
+        executeCommands(session, commandList, 0);
+        if (replayable) {
+            resultCache.store(gameKey, gameIndex, output, gameOutputStart);
         }
     }
 
     /**
-     * Sets the initial mana for both players at the beginning of the game.
+     * Continues the last game of the input from a restored session, executing only the
+     * actions that come after the ones it already executed.
      *
-     * @param utils Utility object containing game state information.
+     * @param session    The restored session of the last game.
+     * @param fromAction The index of the first action to execute.
      */
-    private void setInitialMana(final Utils utils) {
-        utils.setPlayerOneMana(1);
-        utils.setPlayerTwoMana(1);
+    public void resume(final GameSession session,
+                       final int fromAction) {
+        lastSession = session;
+        executeCommands(session, getCommandList(session.getGameIndex()), fromAction);
+    }
+
+    /**
+     * Executes the commands of a game, starting from the given one.
+     *
+     * @param session     The session of the game.
+     * @param commandList The commands of the game.
+     * @param fromAction  The index of the first command to execute.
+     */
+    private void executeCommands(final GameSession session,
+                                 final ArrayList<ActionsInput> commandList,
+                                 final int fromAction) {
+        int gameIndex = session.getGameIndex();
+        Utils utils = session.getUtils();
+        for (int j = fromAction; j < commandList.size(); j++) {
+            ActionsInput command = commandList.get(j);
+            CommandEvent commandEvent = new CommandEvent();
+            int outputSize = output.size();
+            int turn = utils.getTurn();
+            commandEvent.begin();
+            session.execute(command, output);
+            if (stateTrace != null) {
+                stateTrace.afterCommand(session, j, command.getCommand());
+            }
+            GameMetrics.recordAction();
+            commandEvent.end();
+            if (commandEvent.shouldCommit()) {
+                commandEvent.commit(gameIndex, j, command.getCommand(), turn, output, outputSize);
+            }
+        }
     }
 
     /**
@@ -168,70 +185,4 @@ public class Command {
     private ArrayList<ActionsInput> getCommandList(final int gameIndex) {
         return inputData.getGames().get(gameIndex).getActions();
     }
-
-    /**
-     * Shuffles the player's deck and draws the first card to add to the player's hand.
-     * This ensures that each player starts with one card in their hand.
-     *
-     * @param playerDeck The player's deck to shuffle and draw from.
-     * @param playerHand The player's hand to add the drawn card.
-     * @param newGame The current game data containing the shuffle seed for randomness.
-     */
-    private void shuffleAndDrawFirstCard(final LinkedList<Deck> playerDeck,
-                                         final LinkedList<Deck> playerHand,
-                                         final StartGameInput newGame) {
-        Collections.shuffle(playerDeck, new Random(newGame.getShuffleSeed()));
-        playerHand.addLast(playerDeck.removeFirst());
-    }
-
-    /**
-     * Sets the initial turn and number of rounds for the game session.
-     * This establishes which player goes first and initializes the round count.
-     *
-     * @param utils Utility object containing game state information.
-     * @param newGame The StartGameInput object containing game data, including the starting player.
-     */
-    private void setInitialTurnAndRounds(final Utils utils,
-                                         final StartGameInput newGame) {
-        utils.setTurn(newGame.getStartingPlayer());
-        utils.setNumberOfRounds(1);
-    }
-
-    /**
-     * Initializes the playing table with empty rows to represent each player's minion rows.
-     * Each row can hold multiple minions during the game.
-     *
-     * @return An ArrayList containing 4 rows of LinkedList to store Minion objects.
-     */
-    private ArrayList<LinkedList<Minion>> initializePlayingTable() {
-        ArrayList<LinkedList<Minion>> playingTable = new ArrayList<>(INITIAL_CAPACITY);
-
-        for (int i = 0; i < INITIAL_CAPACITY; i++) {
-            playingTable.add(new LinkedList<>());
-        }
-
-        return playingTable;
-    }
-
-    /**
-     * Creates a deep copy of the given deck to ensure that any modifications made during
-     * one game session do not affect the deck in other sessions.
-     *
-     * @param originalDeck The deck to be deep copied.
-     * @return A deep copy of the original deck containing new instances of each card.
-     */
-    private LinkedList<Deck> deepCopyDeck(final LinkedList<Deck> originalDeck) {
-        LinkedList<Deck> copiedDeck = new LinkedList<>();
-        for (Deck card : originalDeck) {
-            if (card.getName().equals("Winterfell") || card.getName().equals("Firestorm")
-                    || card.getName().equals("Heart Hound")) {
-                // Environment card requires a deep copy of the environment object
-                copiedDeck.add(new Environment((Environment) card));
-            } else {
-                // Minion card requires a deep copy of the minion object
-                copiedDeck.add(new Minion((Minion) card));
-            }
-        }
-        return copiedDeck;
-    }
 }
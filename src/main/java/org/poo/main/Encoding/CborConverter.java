@@ -0,0 +1,74 @@
+package org.poo.main.Encoding;
+
+import com.fasterxml.jackson.core.JsonParser;
+import org.poo.main.EngineContext;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Converts output files between CBOR and the canonical pretty printed JSON.
+ * <p>
+ * Usage: {@code CborConverter <input.cbor> <output.json>} or
+ * {@code CborConverter --to-cbor <input.json> <output.cbor>}.
+ */
+public final class CborConverter {
+
+    private CborConverter() {
+    }
+
+    /**
+     * Runs the converter.
+     *
+     * @param args The command line arguments.
+     * @throws IOException If a file cannot be read or written.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 2) {
+            toJson(new File(args[0]), new File(args[1]));
+        } else if (args.length == 3 && args[0].equals("--to-cbor")) {
+            toCbor(new File(args[1]), new File(args[2]));
+        } else {
+            System.err.println("Usage: CborConverter <input.cbor> <output.json>"
+                    + " | --to-cbor <input.json> <output.cbor>");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Converts a CBOR file to pretty printed JSON, as written for the checker.
+     *
+     * @param cborFile The CBOR file.
+     * @param jsonFile The JSON file to write.
+     * @throws IOException If a file cannot be read or written.
+     */
+    public static void toJson(final File cborFile,
+                              final File jsonFile) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(cborFile))) {
+            OutputFormat.JSON.write(jsonFile, CborDecoder.readTree(in));
+        }
+    }
+
+    /**
+     * Converts a JSON file to CBOR, streaming its tokens.
+     *
+     * @param jsonFile The JSON file.
+     * @param cborFile The CBOR file to write.
+     * @throws IOException If a file cannot be read or written.
+     */
+    public static void toCbor(final File jsonFile,
+                              final File cborFile) throws IOException {
+        try (JsonParser parser = EngineContext.get().getObjectMapper().createParser(jsonFile);
+             OutputStream out = new BufferedOutputStream(new FileOutputStream(cborFile))) {
+            CborEncoder encoder = new CborEncoder(out);
+            encoder.encode(parser);
+            encoder.flush();
+        }
+    }
+}
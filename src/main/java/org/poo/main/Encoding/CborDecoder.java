@@ -0,0 +1,318 @@
+package org.poo.main.Encoding;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.poo.main.EngineContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal CBOR (RFC 8949) decoder replaying a CBOR item as the calls of a Jackson
+ * {@link JsonGenerator}, so a binary output can be turned back into a JSON tree or
+ * written as JSON text. Definite and indefinite lengths are accepted, tags are
+ * skipped and numeric map keys become field names.
+ */
+public final class CborDecoder {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int BYTE_BITS = 8;
+    private static final int MAJOR_SHIFT = 5;
+    private static final int INFO_MASK = 0x1F;
+    private static final int MAX_INLINE = 23;
+    private static final int ONE_BYTE = 24;
+    private static final int TWO_BYTES = 25;
+    private static final int FOUR_BYTES = 26;
+    private static final int EIGHT_BYTES = 27;
+    private static final int SIMPLE_FALSE = 20;
+    private static final int SIMPLE_TRUE = 21;
+    private static final int SIMPLE_NULL = 22;
+    private static final int SIMPLE_UNDEFINED = 23;
+    private static final int HALF_EXPONENT_SHIFT = 10;
+    private static final int HALF_EXPONENT_MASK = 0x1F;
+    private static final int HALF_MANTISSA_MASK = 0x3FF;
+    private static final int HALF_SIGN_BIT = 0x8000;
+    private static final int HALF_MAX_EXPONENT = 31;
+    private static final int HALF_BIAS = 15;
+    private static final int HALF_MANTISSA_BITS = 10;
+    private static final int HALF_SUBNORMAL_EXPONENT = -14;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    /**
+     * Creates a decoder reading from the given stream.
+     *
+     * @param in The stream to read from.
+     */
+    public CborDecoder(final InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads a whole CBOR document as a JSON tree.
+     *
+     * @param in The stream holding the document.
+     * @return The decoded tree.
+     * @throws IOException If the document cannot be read or is malformed.
+     */
+    public static JsonNode readTree(final InputStream in) throws IOException {
+        ObjectMapper objectMapper = EngineContext.get().getObjectMapper();
+        TokenBuffer tokens = new TokenBuffer(objectMapper, false);
+        new CborDecoder(in).decode(tokens);
+        return objectMapper.readTree(tokens.asParser(objectMapper));
+    }
+
+    /**
+     * Decodes the next CBOR item into the generator.
+     *
+     * @param generator The generator receiving the item.
+     * @throws IOException If the item cannot be read or is malformed.
+     */
+    public void decode(final JsonGenerator generator) throws IOException {
+        decodeItem(generator, readByte());
+    }
+
+    /**
+     * Decodes an item whose initial byte was already read.
+     *
+     * @param generator The generator receiving the item.
+     * @param initial   The initial byte of the item.
+     * @throws IOException If the item cannot be read or is malformed.
+     */
+    private void decodeItem(final JsonGenerator generator,
+                            final int initial) throws IOException {
+        int major = initial >>> MAJOR_SHIFT;
+        int info = initial & INFO_MASK;
+        switch (major) {
+            case CborEncoder.MAJOR_UNSIGNED -> {
+                long value = readArgument(info);
+                if (value >= 0) {
+                    generator.writeNumber(value);
+                } else {
+                    // Above Long.MAX_VALUE
+                    generator.writeNumber(new BigInteger(Long.toUnsignedString(value)));
+                }
+            }
+            case CborEncoder.MAJOR_NEGATIVE -> {
+                long value = readArgument(info);
+                if (value >= 0) {
+                    generator.writeNumber(-1 - value);
+                } else {
+                    generator.writeNumber(BigInteger.ONE.negate()
+                            .subtract(new BigInteger(Long.toUnsignedString(value))));
+                }
+            }
+            case CborEncoder.MAJOR_BYTES -> generator.writeBinary(readString(major, info));
+            case CborEncoder.MAJOR_TEXT -> generator.writeString(
+                    new String(readString(major, info), StandardCharsets.UTF_8));
+            case CborEncoder.MAJOR_ARRAY -> {
+                generator.writeStartArray();
+                if (info == CborEncoder.INDEFINITE) {
+                    for (int next = readByte(); next != CborEncoder.BREAK; next = readByte()) {
+                        decodeItem(generator, next);
+                    }
+                } else {
+                    for (long i = readArgument(info); i > 0; i--) {
+                        decodeItem(generator, readByte());
+                    }
+                }
+                generator.writeEndArray();
+            }
+            case CborEncoder.MAJOR_MAP -> {
+                generator.writeStartObject();
+                if (info == CborEncoder.INDEFINITE) {
+                    for (int next = readByte(); next != CborEncoder.BREAK; next = readByte()) {
+                        generator.writeFieldName(readKey(next));
+                        decodeItem(generator, readByte());
+                    }
+                } else {
+                    for (long i = readArgument(info); i > 0; i--) {
+                        generator.writeFieldName(readKey(readByte()));
+                        decodeItem(generator, readByte());
+                    }
+                }
+                generator.writeEndObject();
+            }
+            case CborEncoder.MAJOR_TAG -> {
+                // Tags only add semantics to the tagged item, which is kept as it is
+                readArgument(info);
+                decodeItem(generator, readByte());
+            }
+            default -> decodeSimple(generator, info);
+        }
+    }
+
+    /**
+     * Decodes a simple value or a floating point number.
+     *
+     * @param generator The generator receiving the value.
+     * @param info      The additional information of the initial byte.
+     * @throws IOException If the value cannot be read or is not supported.
+     */
+    private void decodeSimple(final JsonGenerator generator,
+                              final int info) throws IOException {
+        switch (info) {
+            case SIMPLE_FALSE -> generator.writeBoolean(false);
+            case SIMPLE_TRUE -> generator.writeBoolean(true);
+            case SIMPLE_NULL, SIMPLE_UNDEFINED -> generator.writeNull();
+            case TWO_BYTES -> generator.writeNumber(halfToFloat((int) readUnsigned(Short.BYTES)));
+            case FOUR_BYTES -> generator.writeNumber(
+                    Float.intBitsToFloat((int) readUnsigned(Integer.BYTES)));
+            case EIGHT_BYTES -> generator.writeNumber(
+                    Double.longBitsToDouble(readUnsigned(Long.BYTES)));
+            default -> throw new IOException("Unsupported CBOR simple value: " + info);
+        }
+    }
+
+    /**
+     * Reads a map key, which has to be a text string or an integer.
+     *
+     * @param initial The initial byte of the key.
+     * @return The key as a field name.
+     * @throws IOException If the key cannot be read or has another type.
+     */
+    private String readKey(final int initial) throws IOException {
+        int major = initial >>> MAJOR_SHIFT;
+        int info = initial & INFO_MASK;
+        return switch (major) {
+            case CborEncoder.MAJOR_TEXT -> new String(readString(major, info),
+                    StandardCharsets.UTF_8);
+            case CborEncoder.MAJOR_UNSIGNED -> Long.toUnsignedString(readArgument(info));
+            case CborEncoder.MAJOR_NEGATIVE -> Long.toString(-1 - readArgument(info));
+            default -> throw new IOException("Unsupported CBOR map key type: " + major);
+        };
+    }
+
+    /**
+     * Reads the content of a byte or text string, joining the chunks of an
+     * indefinite length string.
+     *
+     * @param major The major type of the string.
+     * @param info  The additional information of the initial byte.
+     * @return The bytes of the string.
+     * @throws IOException If the string cannot be read.
+     */
+    private byte[] readString(final int major,
+                              final int info) throws IOException {
+        if (info != CborEncoder.INDEFINITE) {
+            long length = readArgument(info);
+            if (length < 0 || length > Integer.MAX_VALUE) {
+                throw new IOException("CBOR string too long.");
+            }
+            return readBytes((int) length);
+        }
+        ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+        for (int next = readByte(); next != CborEncoder.BREAK; next = readByte()) {
+            if (next >>> MAJOR_SHIFT != major || (next & INFO_MASK) == CborEncoder.INDEFINITE) {
+                throw new IOException("Malformed indefinite length CBOR string.");
+            }
+            chunks.writeBytes(readString(major, next & INFO_MASK));
+        }
+        return chunks.toByteArray();
+    }
+
+    /**
+     * Reads the argument of an item.
+     *
+     * @param info The additional information of the initial byte.
+     * @return The argument, as an unsigned value stored in a long.
+     * @throws IOException If the argument cannot be read.
+     */
+    private long readArgument(final int info) throws IOException {
+        if (info <= MAX_INLINE) {
+            return info;
+        }
+        return switch (info) {
+            case ONE_BYTE -> readUnsigned(1);
+            case TWO_BYTES -> readUnsigned(Short.BYTES);
+            case FOUR_BYTES -> readUnsigned(Integer.BYTES);
+            case EIGHT_BYTES -> readUnsigned(Long.BYTES);
+            default -> throw new IOException("Malformed CBOR argument: " + info);
+        };
+    }
+
+    /**
+     * Converts an IEEE 754 half precision number to a float.
+     *
+     * @param half The 16 bits of the number.
+     * @return The number as a float.
+     */
+    private static float halfToFloat(final int half) {
+        int exponent = (half >>> HALF_EXPONENT_SHIFT) & HALF_EXPONENT_MASK;
+        int mantissa = half & HALF_MANTISSA_MASK;
+        float value;
+        if (exponent == 0) {
+            value = Math.scalb(mantissa, HALF_SUBNORMAL_EXPONENT - HALF_MANTISSA_BITS);
+        } else if (exponent == HALF_MAX_EXPONENT) {
+            value = mantissa == 0 ? Float.POSITIVE_INFINITY : Float.NaN;
+        } else {
+            value = Math.scalb(mantissa + (1 << HALF_MANTISSA_BITS),
+                    exponent - HALF_BIAS - HALF_MANTISSA_BITS);
+        }
+        return (half & HALF_SIGN_BIT) != 0 ? -value : value;
+    }
+
+    /**
+     * Reads a big endian unsigned number.
+     *
+     * @param count The number of bytes.
+     * @return The number.
+     * @throws IOException If the stream ends.
+     */
+    private long readUnsigned(final int count) throws IOException {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = (value << BYTE_BITS) | readByte();
+        }
+        return value;
+    }
+
+    /**
+     * Reads raw bytes.
+     *
+     * @param length The number of bytes.
+     * @return The bytes.
+     * @throws IOException If the stream ends.
+     */
+    private byte[] readBytes(final int length) throws IOException {
+        byte[] bytes = new byte[length];
+        int copied = Math.min(length, limit - position);
+        System.arraycopy(buffer, position, bytes, 0, copied);
+        position += copied;
+        while (copied < length) {
+            int read = in.read(bytes, copied, length - copied);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of CBOR data.");
+            }
+            copied += read;
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads one byte.
+     *
+     * @return The byte, between 0 and 255.
+     * @throws IOException If the stream ends.
+     */
+    private int readByte() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                throw new EOFException("Unexpected end of CBOR data.");
+            }
+        }
+        return buffer[position++] & BYTE_MASK;
+    }
+}
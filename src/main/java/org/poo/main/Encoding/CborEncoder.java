@@ -0,0 +1,236 @@
+package org.poo.main.Encoding;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal CBOR (RFC 8949) encoder fed with the tokens of a Jackson {@link JsonParser}.
+ * Arrays and objects are written with indefinite lengths, so any token stream can be
+ * encoded as it is read, without buffering the containers.
+ * <p>
+ * Integers use the shortest CBOR form, floating point numbers are written as doubles
+ * and integers that do not fit in a long are written as their decimal text.
+ */
+public final class CborEncoder {
+    public static final int MAJOR_UNSIGNED = 0;
+    public static final int MAJOR_NEGATIVE = 1;
+    public static final int MAJOR_BYTES = 2;
+    public static final int MAJOR_TEXT = 3;
+    public static final int MAJOR_ARRAY = 4;
+    public static final int MAJOR_MAP = 5;
+    public static final int MAJOR_TAG = 6;
+    public static final int MAJOR_SIMPLE = 7;
+
+    public static final int FALSE = 0xF4;
+    public static final int TRUE = 0xF5;
+    public static final int NULL = 0xF6;
+    public static final int FLOAT16 = 0xF9;
+    public static final int FLOAT32 = 0xFA;
+    public static final int FLOAT64 = 0xFB;
+    public static final int INDEFINITE = 31;
+    public static final int BREAK = 0xFF;
+
+    private static final int MAX_INLINE = 23;
+    private static final int ONE_BYTE = 24;
+    private static final int TWO_BYTES = 25;
+    private static final int FOUR_BYTES = 26;
+    private static final int EIGHT_BYTES = 27;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int BYTE_BITS = 8;
+    private static final int MAJOR_SHIFT = 5;
+    private static final long MAX_ONE_BYTE = 0xFFL;
+    private static final long MAX_TWO_BYTES = 0xFFFFL;
+    private static final long MAX_FOUR_BYTES = 0xFFFFFFFFL;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    /**
+     * Creates an encoder writing to the given stream. The encoder buffers its output,
+     * {@link #flush()} has to be called once everything was encoded.
+     *
+     * @param out The stream to write to.
+     */
+    public CborEncoder(final OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Encodes all the remaining tokens of a parser.
+     *
+     * @param parser The parser to read the tokens from.
+     * @throws IOException If reading or writing fails.
+     */
+    public void encode(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken() != null ? parser.currentToken()
+                : parser.nextToken();
+        while (token != null) {
+            switch (token) {
+                case START_ARRAY -> writeByte((MAJOR_ARRAY << MAJOR_SHIFT) | INDEFINITE);
+                case START_OBJECT -> writeByte((MAJOR_MAP << MAJOR_SHIFT) | INDEFINITE);
+                case END_ARRAY, END_OBJECT -> writeByte(BREAK);
+                case FIELD_NAME -> writeText(parser.currentName());
+                case VALUE_STRING -> writeText(parser.getText());
+                case VALUE_NUMBER_INT -> {
+                    if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                        writeText(parser.getText());
+                    } else {
+                        writeLong(parser.getLongValue());
+                    }
+                }
+                case VALUE_NUMBER_FLOAT -> writeDouble(parser.getDoubleValue());
+                case VALUE_TRUE -> writeByte(TRUE);
+                case VALUE_FALSE -> writeByte(FALSE);
+                case VALUE_NULL -> writeByte(NULL);
+                case VALUE_EMBEDDED_OBJECT -> {
+                    if (parser.getEmbeddedObject() instanceof byte[] bytes) {
+                        writeHeader(MAJOR_BYTES, bytes.length);
+                        writeBytes(bytes, bytes.length);
+                    } else {
+                        writeText(String.valueOf(parser.getEmbeddedObject()));
+                    }
+                }
+                default -> throw new IOException("Unsupported token: " + token);
+            }
+            token = parser.nextToken();
+        }
+    }
+
+    /**
+     * Writes a text string.
+     *
+     * @param text The text.
+     * @throws IOException If writing fails.
+     */
+    public void writeText(final String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        writeHeader(MAJOR_TEXT, bytes.length);
+        writeBytes(bytes, bytes.length);
+    }
+
+    /**
+     * Writes an integer in its shortest form.
+     *
+     * @param value The integer.
+     * @throws IOException If writing fails.
+     */
+    public void writeLong(final long value) throws IOException {
+        if (value >= 0) {
+            writeHeader(MAJOR_UNSIGNED, value);
+        } else {
+            // -1 - n is stored as n
+            writeHeader(MAJOR_NEGATIVE, -1 - value);
+        }
+    }
+
+    /**
+     * Writes a double precision floating point number.
+     *
+     * @param value The number.
+     * @throws IOException If writing fails.
+     */
+    public void writeDouble(final double value) throws IOException {
+        writeByte(FLOAT64);
+        writeUnsigned(Double.doubleToLongBits(value), Long.BYTES);
+    }
+
+    /**
+     * Writes the initial byte of an item and its argument.
+     *
+     * @param major    The major type.
+     * @param argument The argument (length or value), read as unsigned.
+     * @throws IOException If writing fails.
+     */
+    private void writeHeader(final int major,
+                             final long argument) throws IOException {
+        int initial = major << MAJOR_SHIFT;
+        if (argument >= 0 && argument <= MAX_INLINE) {
+            writeByte(initial | (int) argument);
+        } else if (argument >= 0 && argument <= MAX_ONE_BYTE) {
+            writeByte(initial | ONE_BYTE);
+            writeUnsigned(argument, 1);
+        } else if (argument >= 0 && argument <= MAX_TWO_BYTES) {
+            writeByte(initial | TWO_BYTES);
+            writeUnsigned(argument, Short.BYTES);
+        } else if (argument >= 0 && argument <= MAX_FOUR_BYTES) {
+            writeByte(initial | FOUR_BYTES);
+            writeUnsigned(argument, Integer.BYTES);
+        } else {
+            writeByte(initial | EIGHT_BYTES);
+            writeUnsigned(argument, Long.BYTES);
+        }
+    }
+
+    /**
+     * Writes the lowest bytes of a value in big endian order.
+     *
+     * @param value The value.
+     * @param count The number of bytes.
+     * @throws IOException If writing fails.
+     */
+    private void writeUnsigned(final long value,
+                               final int count) throws IOException {
+        for (int i = count - 1; i >= 0; i--) {
+            writeByte((int) (value >>> (i * BYTE_BITS)) & BYTE_MASK);
+        }
+    }
+
+    /**
+     * Writes one byte.
+     *
+     * @param value The byte.
+     * @throws IOException If writing fails.
+     */
+    private void writeByte(final int value) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Writes raw bytes.
+     *
+     * @param bytes  The bytes.
+     * @param length The number of bytes to write.
+     * @throws IOException If writing fails.
+     */
+    private void writeBytes(final byte[] bytes,
+                            final int length) throws IOException {
+        if (length > buffer.length - position) {
+            flushBuffer();
+            if (length > buffer.length) {
+                out.write(bytes, 0, length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, length);
+        position += length;
+    }
+
+    /**
+     * Writes the buffered bytes to the stream.
+     *
+     * @throws IOException If writing fails.
+     */
+    private void flushBuffer() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+
+    /**
+     * Writes the buffered bytes and flushes the stream.
+     *
+     * @throws IOException If writing fails.
+     */
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+}
@@ -0,0 +1,125 @@
+package org.poo.main.Encoding;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.poo.main.EngineContext;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The encodings an output file can be written in, selected with
+ * {@code -Dgwent.output.format=json|cbor}. JSON (pretty printed) is the default and
+ * the format expected by the checker; CBOR holds the same logical output for machine
+ * consumers and can be turned back into JSON with {@link CborConverter}.
+ */
+public enum OutputFormat {
+    JSON,
+    CBOR;
+
+    public static final String FORMAT_PROPERTY = "gwent.output.format";
+
+    /**
+     * Gets the format selected by the {@code gwent.output.format} system property.
+     *
+     * @return The selected format, JSON if the property is not set.
+     */
+    public static OutputFormat fromSystemProperty() {
+        String format = System.getProperty(FORMAT_PROPERTY);
+        return format == null ? JSON : valueOf(format.trim().toUpperCase());
+    }
+
+    /**
+     * Writes an output to a file in this format.
+     *
+     * @param file   The file to write.
+     * @param output The output to write.
+     * @throws IOException If writing fails.
+     */
+    public void write(final File file,
+                      final JsonNode output) throws IOException {
+        if (this == JSON) {
+            EngineContext.get().getPrettyWriter().writeValue(file, output);
+            return;
+        }
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            writeCbor(out, output);
+        }
+    }
+
+    /**
+     * Appends entries to an output file written in this format, writing only the new
+     * bytes. The result is the same file as if the output had been written at once:
+     * the JSON array ends with {@code " ]"} and the CBOR array with a break byte, so the
+     * end of the file is replaced by the new entries followed by the end of the array.
+     *
+     * @param file    The output file, written by {@link #write}.
+     * @param entries The entries to append.
+     * @throws IOException If the file cannot be read or written.
+     */
+    public void append(final File file,
+                       final ArrayNode entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        byte[] bytes;
+        int headerLength;
+        int trailerLength;
+        byte[] separator;
+        if (this == JSON) {
+            bytes = EngineContext.get().getPrettyWriter().writeValueAsBytes(entries);
+            headerLength = "[ ".length();
+            trailerLength = " ]".length();
+            separator = ", ".getBytes(StandardCharsets.US_ASCII);
+        } else {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writeCbor(out, entries);
+            bytes = out.toByteArray();
+            headerLength = 1;
+            trailerLength = 1;
+            separator = new byte[0];
+        }
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            long length = out.length();
+            // An empty JSON array is "[ ]", so its header and trailer share the space
+            boolean empty = this == JSON ? length <= headerLength + 1 : length <= 2;
+            if (empty) {
+                out.setLength(0);
+                out.write(bytes);
+                return;
+            }
+            out.seek(length - trailerLength);
+            out.write(separator);
+            out.write(bytes, headerLength, bytes.length - headerLength);
+        }
+    }
+
+    /**
+     * Writes an output as CBOR. The output entries (POJOs, error entries and nodes)
+     * are serialized to Jackson tokens, which are encoded as they are produced.
+     *
+     * @param out    The stream to write to.
+     * @param output The output to write.
+     * @throws IOException If writing fails.
+     */
+    public static void writeCbor(final OutputStream out,
+                                 final JsonNode output) throws IOException {
+        ObjectMapper objectMapper = EngineContext.get().getObjectMapper();
+        TokenBuffer tokens = new TokenBuffer(objectMapper, false);
+        objectMapper.writeValue(tokens, output);
+        try (JsonParser parser = tokens.asParser(objectMapper)) {
+            CborEncoder encoder = new CborEncoder(out);
+            encoder.encode(parser);
+            encoder.flush();
+        }
+    }
+}
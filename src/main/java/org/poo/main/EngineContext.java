@@ -0,0 +1,145 @@
+package org.poo.main;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.fileio.CardInput;
+import org.poo.fileio.Coordinates;
+import org.poo.fileio.Input;
+import org.poo.main.CardHandler.Environment;
+import org.poo.main.CardHandler.Hero;
+import org.poo.main.CardHandler.Minion;
+import org.poo.main.GameHandler.ErrorOutput;
+import org.poo.main.GameHandler.ErrorTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The JSON runtime shared by the whole engine: one ObjectMapper and the readers,
+ * writers and node factory built from it. Mappers, readers and writers are thread safe
+ * once configured, so the same instances are used by every handler, file and thread,
+ * and their serializer caches are only filled once.
+ */
+public final class EngineContext {
+    private static final EngineContext SHARED = new EngineContext();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectReader inputReader = objectMapper.readerFor(Input.class);
+    private final ObjectWriter prettyWriter = objectMapper.writerWithDefaultPrettyPrinter();
+    private final ObjectWriter compactWriter = objectMapper.writer();
+    private final AtomicBoolean warmedUp = new AtomicBoolean();
+
+    private EngineContext() {
+    }
+
+    /**
+     * Gets the context shared by the engine.
+     *
+     * @return The shared context.
+     */
+    public static EngineContext get() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the shared ObjectMapper. It must not be reconfigured.
+     *
+     * @return The shared ObjectMapper.
+     */
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Gets the reader of input files.
+     *
+     * @return The ObjectReader for {@link Input}.
+     */
+    public ObjectReader getInputReader() {
+        return inputReader;
+    }
+
+    /**
+     * Gets the writer used for output files.
+     *
+     * @return The pretty printing ObjectWriter.
+     */
+    public ObjectWriter getPrettyWriter() {
+        return prettyWriter;
+    }
+
+    /**
+     * Gets the writer used for network responses and traces.
+     *
+     * @return The compact ObjectWriter.
+     */
+    public ObjectWriter getCompactWriter() {
+        return compactWriter;
+    }
+
+    /**
+     * Gets the factory of the output nodes.
+     *
+     * @return The node factory of the shared mapper.
+     */
+    public JsonNodeFactory getNodeFactory() {
+        return objectMapper.getNodeFactory();
+    }
+
+    /**
+     * Creates an empty object node.
+     *
+     * @return A new ObjectNode.
+     */
+    public ObjectNode createObjectNode() {
+        return objectMapper.createObjectNode();
+    }
+
+    /**
+     * Creates an empty array node.
+     *
+     * @return A new ArrayNode.
+     */
+    public ArrayNode createArrayNode() {
+        return objectMapper.createArrayNode();
+    }
+
+    /**
+     * Fills the serializer and deserializer caches by reading a small input and writing
+     * every kind of output entry once. Only the first call does any work.
+     */
+    public void warmUp() {
+        if (!warmedUp.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            inputReader.readValue("{\"playerOneDecks\":{\"nrCardsInDeck\":0,\"nrDecks\":0,"
+                    + "\"decks\":[]},\"playerTwoDecks\":{\"nrCardsInDeck\":0,\"nrDecks\":0,"
+                    + "\"decks\":[]},\"games\":[]}");
+
+            CardInput card = new CardInput();
+            card.setName("Warm Up");
+            card.setDescription("");
+            card.setColors(new ArrayList<>(List.of("White")));
+            Minion minion = new Minion(card);
+            Coordinates coordinates = new Coordinates();
+
+            ArrayNode output = createArrayNode();
+            output.addPOJO(createObjectNode().putPOJO("output", List.of(minion)));
+            output.addPOJO(new Hero(card));
+            output.addPOJO(new Environment(card));
+            output.addPOJO(new ErrorOutput(ErrorTemplate.ATTACK_TANK, -1, null,
+                    coordinates, coordinates));
+            prettyWriter.writeValueAsBytes(output);
+            compactWriter.writeValueAsBytes(output);
+        } catch (JsonProcessingException e) {
+            // Warming up is only an optimization
+        }
+    }
+}
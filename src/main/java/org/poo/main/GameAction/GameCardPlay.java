@@ -3,17 +3,24 @@ package org.poo.main.GameAction;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.main.EngineContext;
 import org.poo.main.GameHandler.ErrorHandler;
+import org.poo.main.Instrumentation.GameMetrics;
+import org.poo.main.Instrumentation.HeroDeathEvent;
 import org.poo.main.Utils;
 import org.poo.fileio.ActionsInput;
 import org.poo.main.CardHandler.Hero;
 import org.poo.main.CardHandler.Minion;
+import org.poo.main.Rules.CardRule;
+import org.poo.main.Rules.MinionDeaths;
+import org.poo.main.Rules.RowEffect;
+import org.poo.main.Rules.Target;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
 
 public final class GameCardPlay {
-    private static ObjectMapper objectMapper = new ObjectMapper();
+    private static ObjectMapper objectMapper = EngineContext.get().getObjectMapper();
     public static final int MAX_SIZE = 5;
     public static final int MAGIC = 3;
 
@@ -102,8 +109,7 @@ public final class GameCardPlay {
         }
 
         int isTank = Utils.isTank(playingTable, turn);
-        if (isTank == 1 && !cardAttacked.getName().equals("Goliath")
-                && !cardAttacked.getName().equals("Warden")) {
+        if (isTank == 1 && !cardAttacked.getRule().isTank()) {
             ErrorHandler.useAttackTank(output, command);
             return false;
         }
@@ -128,7 +134,7 @@ public final class GameCardPlay {
         cardAttacker.setAttackUsed(1);
         if (cardAttacked.getHealth() <= cardAttacker.getAttackDamage()) {
             // Card dies
-            playingTable.get(attackedRow).remove(attackedColumn);
+            MinionDeaths.kill(playingTable.get(attackedRow), attackedRow, attackedColumn);
         } else {
             cardAttacked.setHealth(cardAttacked.getHealth() - cardAttacker.getAttackDamage());
         }
@@ -172,24 +178,27 @@ public final class GameCardPlay {
             return;
         }
 
-        // Determine if the attack is allowed based on card position and turn
-        boolean isFriendlyCard = isFriendlyTarget(currentTurn, targetX);
+        // Minions without an ability ignore the command
+        CardRule rule = attackerCard.getRule();
+        if (rule.getTargetEffect() == null) {
+            return;
+        }
 
-        // Handle specific card abilities based on attacker card name
-        switch (attackerCard.getName()) {
-            case "Disciple":
-                handleDiscipleAbility(output, command, attackerCard,
-                        targetCard, isFriendlyCard);
-                break;
-            case "The Ripper":
-            case "Miraj":
-            case "The Cursed One":
-                handleEnemyCardAbilities(output, command, attackerCard, targetCard,
-                        isFriendlyCard, playingTable, targetX, targetY, currentTurn);
-                break;
-            default:
-                break;
+        // Determine if the target is allowed based on card position and turn
+        boolean isFriendlyCard = isFriendlyTarget(currentTurn, targetX);
+        if (rule.getTarget() == Target.ALLY) {
+            if (!isFriendlyCard) {
+                ErrorHandler.useAbilityNotMyCard(output, command);
+                return;
+            }
+        } else if (!canTargetEnemy(output, command, targetCard, isFriendlyCard,
+                playingTable, currentTurn)) {
+            return;
         }
+
+        // Use ability and mark the attacker as having used its attack
+        attackerCard.setAttackUsed(1);
+        rule.getTargetEffect().apply(attackerCard, targetCard, playingTable, targetX, targetY);
     }
 
     /**
@@ -263,87 +272,35 @@ public final class GameCardPlay {
     }
 
     /**
-     * Handles the ability for the "Disciple" card.
+     * Checks whether an ability can target an enemy card: the card must not be friendly
+     * and, if the enemy has tanks, it must be one of them.
      *
-     * @param output        the output to store any error messages or action logs
-     * @param command       the action command containing
-     *                      the attacker and target card details
-     * @param attackerCard  the card using the ability
-     * @param targetCard    the target card affected by the ability
+     * @param output         the output to store any error messages
+     * @param command        the action command containing the attacker and target card details
+     * @param targetCard     the target card affected by the ability
      * @param isFriendlyCard whether the target card is friendly
+     * @param playingTable   the current state of the playing table
+     * @param currentTurn    the current player's turn (1 or 2)
+     * @return true if the target is valid, false otherwise
      */
-    private static void handleDiscipleAbility(final ArrayNode output,
-                                              final ActionsInput command,
-                                              final Minion attackerCard,
-                                              final Minion targetCard,
-                                              final boolean isFriendlyCard) {
-        if (isFriendlyCard) {
-            // Use ability to heal the target card
-            attackerCard.setAttackUsed(1);
-            targetCard.setHealth(targetCard.getHealth() + 2);
-        } else {
-            ErrorHandler.useAbilityNotMyCard(output, command);
-        }
-    }
-
-    /**
-     * Handles abilities for "The Ripper", "Miraj", and "The Cursed One" cards.
-     *
-     * @param output        the output to store any error messages or action logs
-     * @param command       the action command containing the attacker and target card details
-     * @param attackerCard  the card using the ability
-     * @param targetCard    the target card affected by the ability
-     * @param isFriendlyCard whether the target card is friendly
-     * @param playingTable  the current state of the playing table
-     * @param targetX       the row index of the target card
-     * @param targetY       the column index of the target card
-     * @param currentTurn   the current player's turn (1 or 2)
-     */
-    private static void handleEnemyCardAbilities(final ArrayNode output,
-                                                 final ActionsInput command,
-                                                 final Minion attackerCard,
-                                                 final Minion targetCard,
-                                                 final boolean isFriendlyCard,
-                                                 final ArrayList<LinkedList<Minion>> playingTable,
-                                                 final int targetX,
-                                                 final int targetY,
-                                                 final int currentTurn) {
+    private static boolean canTargetEnemy(final ArrayNode output,
+                                          final ActionsInput command,
+                                          final Minion targetCard,
+                                          final boolean isFriendlyCard,
+                                          final ArrayList<LinkedList<Minion>> playingTable,
+                                          final int currentTurn) {
         if (isFriendlyCard) {
             ErrorHandler.useAbilityNotEnemyCard(output, command);
-            return;
+            return false;
         }
 
         // Check if there are any "Tank" cards on the enemy side
         int isTankPresent = Utils.isTank(playingTable, currentTurn);
-        if (isTankPresent == 1 && !targetCard.getName().equals("Goliath")
-                &&
-                !targetCard.getName().equals("Warden")) {
+        if (isTankPresent == 1 && !targetCard.getRule().isTank()) {
             ErrorHandler.useAbilityTank(output, command);
-            return;
-        }
-
-        // Use ability and mark the attacker as having used its attack
-        attackerCard.setAttackUsed(1);
-        switch (attackerCard.getName()) {
-            case "The Ripper":
-                targetCard.setAttackDamage(Math.max(0, targetCard.getAttackDamage() - 2));
-                break;
-            case "Miraj":
-                int healthSwap = targetCard.getHealth();
-                targetCard.setHealth(attackerCard.getHealth());
-                attackerCard.setHealth(healthSwap);
-                break;
-            case "The Cursed One":
-                int tempHealth = targetCard.getHealth();
-                targetCard.setHealth(targetCard.getAttackDamage());
-                targetCard.setAttackDamage(tempHealth);
-                if (targetCard.getHealth() <= 0) {
-                    playingTable.get(targetX).remove(targetY);
-                }
-                break;
-            default:
-                break;
+            return false;
         }
+        return true;
     }
 
     /**
@@ -504,6 +461,8 @@ public final class GameCardPlay {
             outputNode.put("gameEnded", "Player two killed the enemy hero.");
             output.addPOJO(outputNode);
         }
+        GameMetrics.recordWin(turn);
+        HeroDeathEvent.emit(turn, utils.getPlayerOneWins(), utils.getPlayerTwoWins());
     }
 
     /**
@@ -586,54 +545,18 @@ public final class GameCardPlay {
             return false;
         }
 
-        switch (currentHero.getName()) {
-            case "Lord Royce":
-            case "Empress Thorina":
-                if (isInvalidEnemyRow(turn, affectedRow)) {
-                    ErrorHandler.heroAbilityNotEnemyRow(output, affectedRow);
-                    return false;
-                }
-                break;
-
-            case "General Kocioraw":
-            case "King Mudface":
-                if (isInvalidMyRow(turn, affectedRow)) {
-                    ErrorHandler.heroAbilityNotMyRow(output, affectedRow);
-                    return false;
-                }
-                break;
-            default:
-                break;
+        Target target = currentHero.getRule().getTarget();
+        if (target == Target.ENEMY && target.rejectsRow(turn, affectedRow)) {
+            ErrorHandler.heroAbilityNotEnemyRow(output, affectedRow);
+            return false;
+        }
+        if (target == Target.ALLY && target.rejectsRow(turn, affectedRow)) {
+            ErrorHandler.heroAbilityNotMyRow(output, affectedRow);
+            return false;
         }
         return true;
     }
 
-    /**
-     * Checks if the affected row is invalid for enemy targeting abilities.
-     *
-     * @param turn        The current player's turn (1 or 2).
-     * @param affectedRow The row affected by the hero's ability.
-     * @return True if the affected row is invalid for enemy targeting, false otherwise.
-     */
-    private static boolean isInvalidEnemyRow(final int turn,
-                                             final int affectedRow) {
-        return (turn == 1 && (affectedRow == 2 || affectedRow == MAGIC))
-                || (turn == 2 && (affectedRow == 0 || affectedRow == 1));
-    }
-
-    /**
-     * Checks if the affected row is invalid for self-targeting abilities.
-     *
-     * @param turn        The current player's turn (1 or 2).
-     * @param affectedRow The row affected by the hero's ability.
-     * @return True if the affected row is invalid for self-targeting, false otherwise.
-     */
-    private static boolean isInvalidMyRow(final int turn,
-                                          final int affectedRow) {
-        return (turn == 1 && (affectedRow == 0 || affectedRow == 1))
-                || (turn == 2 && (affectedRow == 2 || affectedRow == MAGIC));
-    }
-
     /**
      * Deducts mana from the player and marks the hero's attack as used.
      *
@@ -665,52 +588,9 @@ public final class GameCardPlay {
     private static void executeHeroAbility(final Hero currentHero,
                                            final ArrayList<LinkedList<Minion>> playingTable,
                                            final int affectedRow) {
-        switch (currentHero.getName()) {
-            case "Lord Royce":
-                for (Minion minion : playingTable.get(affectedRow)) {
-                    minion.setIsFrozen(1);
-                }
-                break;
-
-            case "Empress Thorina":
-                removeHighestHealthMinion(playingTable, affectedRow);
-                break;
-
-            case "General Kocioraw":
-                for (Minion minion : playingTable.get(affectedRow)) {
-                    minion.setAttackDamage(minion.getAttackDamage() + 1);
-                }
-                break;
-
-            case "King Mudface":
-                for (Minion minion : playingTable.get(affectedRow)) {
-                    minion.setHealth(minion.getHealth() + 1);
-                }
-                break;
-            default:
-                break;
-        }
-    }
-
-    /**
-     * Removes the minion with the highest health from the specified row.
-     *
-     * @param playingTable The current state of the playing table.
-     * @param affectedRow  The row affected by the hero's ability.
-     */
-    private static void removeHighestHealthMinion(final ArrayList<LinkedList<Minion>> playingTable,
-                                                  final int affectedRow) {
-        int maxHealth = -1;
-        int maxHealthIdx = -1;
-        for (int k = 0; k < playingTable.get(affectedRow).size(); k++) {
-            Minion minion = playingTable.get(affectedRow).get(k);
-            if (minion.getHealth() >= maxHealth) {
-                maxHealth = minion.getHealth();
-                maxHealthIdx = k;
-            }
-        }
-        if (maxHealthIdx != -1) {
-            playingTable.get(affectedRow).remove(maxHealthIdx);
+        RowEffect effect = currentHero.getRule().getRowEffect();
+        if (effect != null) {
+            effect.apply(playingTable, affectedRow);
         }
     }
 }
@@ -1,21 +1,37 @@
 package org.poo.main.GameAction;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import org.poo.fileio.ActionsInput;
 
 import org.poo.main.CardHandler.Deck;
 import org.poo.main.CardHandler.Environment;
 import org.poo.main.CardHandler.Hero;
 import org.poo.main.CardHandler.Minion;
+import org.poo.main.CardHandler.PlayerDeck;
+import org.poo.main.CardHandler.PlayerHand;
+import org.poo.main.EngineContext;
+import org.poo.main.GameHandler.ErrorHandler;
+import org.poo.main.GameSession;
+import org.poo.main.Serialization.CardSerializer;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 
 
 public class GameInfo {
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ObjectMapper OBJECT_MAPPER = EngineContext.get().getObjectMapper();
+    // Fields of a game snapshot, in the order used when none are selected
+    public static final List<String> SNAPSHOT_FIELDS = List.of("playerTurn",
+            "playerOneMana", "playerTwoMana", "playerOneHero", "playerTwoHero",
+            "playerOneCardsInHand", "playerTwoCardsInHand", "playerOneDeck",
+            "playerTwoDeck", "cardsOnTable");
 
     // Private constructor to prevent instantiation of utility class
     private GameInfo() {
@@ -31,10 +47,10 @@ public class GameInfo {
      */
     public static void getCardsInHand(final ArrayNode output,
                                       final ActionsInput command,
-                                      final LinkedList<Deck> playerOneDeckInHand,
-                                      final LinkedList<Deck> playerTwoDeckInHand) {
+                                      final PlayerHand playerOneDeckInHand,
+                                      final PlayerHand playerTwoDeckInHand) {
         // Get the player's deck in hand based on the player index
-        LinkedList<Deck> playerDeckInHand = getPlayerDeckInHand(command.getPlayerIdx(),
+        PlayerHand playerDeckInHand = getPlayerDeckInHand(command.getPlayerIdx(),
                 playerOneDeckInHand, playerTwoDeckInHand);
         // Create a command node for "getCardsInHand" and add the player's cards
         ObjectNode outputNode = createCommandNode("getCardsInHand", command.getPlayerIdx());
@@ -53,9 +69,9 @@ public class GameInfo {
      * @param pTwoDeckInHand The deck in hand for player two.
      * @return The deck in hand for the specified player.
      */
-    private static LinkedList<Deck> getPlayerDeckInHand(final int playerIdx,
-                                                        final LinkedList<Deck> pOneDeckInHand,
-                                                        final LinkedList<Deck> pTwoDeckInHand) {
+    private static PlayerHand getPlayerDeckInHand(final int playerIdx,
+                                                        final PlayerHand pOneDeckInHand,
+                                                        final PlayerHand pTwoDeckInHand) {
         // Return the deck in hand for the player based on their index
         return playerIdx == 1 ? pOneDeckInHand : pTwoDeckInHand;
     }
@@ -70,14 +86,14 @@ public class GameInfo {
      */
     public static void getPlayerDeck(final ArrayNode output,
                                      final ActionsInput command,
-                                     final LinkedList<Deck> playerOneDeck,
-                                     final LinkedList<Deck> playerTwoDeck) {
+                                     final PlayerDeck playerOneDeck,
+                                     final PlayerDeck playerTwoDeck) {
         int playerIdx = command.getPlayerIdx();
         // Create a command node for "getPlayerDeck" and add the player's deck
         ObjectNode outputNode = createCommandNode("getPlayerDeck", playerIdx);
 
         // Create a deep copy of the player's deck
-        LinkedList<Deck> playerDeckDeepCopy =
+        ArrayList<Deck> playerDeckDeepCopy =
                 deepCopyCards(playerIdx == 1 ? playerOneDeck : playerTwoDeck);
 
         // Add the deep copy of the player's deck to the output node
@@ -237,20 +253,23 @@ public class GameInfo {
      */
     public static void getEnvironmentCardsInHand(final ArrayNode output,
                                                  final ActionsInput command,
-                                                 final LinkedList<Deck> playerOneDeckInHand,
-                                                 final LinkedList<Deck> playerTwoDeckInHand) {
+                                                 final PlayerHand playerOneDeckInHand,
+                                                 final PlayerHand playerTwoDeckInHand) {
         int playerIdx = command.getPlayerIdx();
         // Create a command node for "getEnvironmentCardsInHand"
         ObjectNode outputNode = createCommandNode("getEnvironmentCardsInHand", playerIdx);
         // Get the player's deck in hand based on the player index
-        LinkedList<Deck> playerDeckInHand =
+        PlayerHand playerDeckInHand =
                 playerIdx == 1 ? playerOneDeckInHand : playerTwoDeckInHand;
-        ArrayList<Deck> environmentCards = new ArrayList<>();
+        ArrayList<Deck> environmentCards =
+                new ArrayList<>(playerDeckInHand.getEnvironmentCount());
 
-        // Iterate over the player's deck and add environment cards to the list
-        for (Deck card : playerDeckInHand) {
-            if (isEnvironment(card.getName())) {
-                environmentCards.add(new Environment((Environment) card));
+        // The hand counts its environment cards, so a hand without any is not scanned
+        if (playerDeckInHand.hasEnvironmentCards()) {
+            for (Deck card : playerDeckInHand) {
+                if (card instanceof Environment environment) {
+                    environmentCards.add(new Environment(environment));
+                }
             }
         }
         // Add the list of environment cards to the output node
@@ -320,12 +339,12 @@ public class GameInfo {
      * @param originalDeck The original deck to be deep-copied.
      * @return A deep copy of the deck of cards.
      */
-    private static LinkedList<Deck> deepCopyCards(final LinkedList<Deck> originalDeck) {
+    private static ArrayList<Deck> deepCopyCards(final List<Deck> originalDeck) {
         // Create a deep copy of the deck of cards
-        LinkedList<Deck> deepCopy = new LinkedList<>();
+        ArrayList<Deck> deepCopy = new ArrayList<>(originalDeck.size());
         for (Deck card : originalDeck) {
-            if (isEnvironment(card.getName())) {
-                deepCopy.add(new Environment((Environment) card));
+            if (card instanceof Environment environment) {
+                deepCopy.add(new Environment(environment));
             } else {
                 deepCopy.add(new Minion((Minion) card));
             }
@@ -334,15 +353,93 @@ public class GameInfo {
     }
 
     /**
-     * Helper method to check if a card is an environment card.
+     * Adds the whole game state (or the selected fields of it) to the output in one entry.
+     * The snapshot is written in a single pass to a token buffer, the cards through the
+     * shared {@link CardSerializer}, so no deep copies or intermediate trees are built,
+     * all the fields describe the same state, and the tokens are replayed as they are
+     * when the output is written.
+     *
+     * @param output  The output ArrayNode to add the snapshot to.
+     * @param command The action input containing the optional field selection.
+     * @param session The game session.
+     */
+    public static void getGameSnapshot(final ArrayNode output,
+                                       final ActionsInput command,
+                                       final GameSession session) {
+        List<String> fields = command.getFields() == null || command.getFields().isEmpty()
+                ? SNAPSHOT_FIELDS : command.getFields();
+        // Reject the whole command before building anything
+        for (String field : fields) {
+            if (!SNAPSHOT_FIELDS.contains(field)) {
+                ErrorHandler.snapshotUnknownField(output, field);
+                return;
+            }
+        }
+
+        TokenBuffer snapshot = new TokenBuffer(OBJECT_MAPPER, false);
+        try {
+            snapshot.writeStartObject();
+            snapshot.writeStringField("command", "getGameSnapshot");
+            snapshot.writeObjectFieldStart("output");
+            for (String field : fields) {
+                writeSnapshotField(snapshot, field, session);
+            }
+            snapshot.writeEndObject();
+            snapshot.writeEndObject();
+        } catch (IOException e) {
+            // A token buffer is written in memory
+            throw new UncheckedIOException(e);
+        }
+        // Add the snapshot to the output array
+        output.addPOJO(snapshot);
+    }
+
+    /**
+     * Writes one field of a game snapshot.
+     *
+     * @param generator The generator to write to.
+     * @param field     The name of the field.
+     * @param session   The game session.
+     * @throws IOException If the generator fails.
+     */
+    private static void writeSnapshotField(final JsonGenerator generator,
+                                           final String field,
+                                           final GameSession session) throws IOException {
+        generator.writeFieldName(field);
+        switch (field) {
+            case "playerTurn" -> generator.writeNumber(session.getUtils().getTurn());
+            case "playerOneMana" -> generator.writeNumber(session.getUtils().getPlayerOneMana());
+            case "playerTwoMana" -> generator.writeNumber(session.getUtils().getPlayerTwoMana());
+            case "playerOneHero" -> CardSerializer.writeCard(generator, session.getPlayerHero(1));
+            case "playerTwoHero" -> CardSerializer.writeCard(generator, session.getPlayerHero(2));
+            case "playerOneCardsInHand" -> writeCards(generator, session.getPlayerHand(1));
+            case "playerTwoCardsInHand" -> writeCards(generator, session.getPlayerHand(2));
+            case "playerOneDeck" -> writeCards(generator, session.getPlayerDeck(1));
+            case "playerTwoDeck" -> writeCards(generator, session.getPlayerDeck(2));
+            default -> {
+                // cardsOnTable
+                generator.writeStartArray();
+                for (LinkedList<Minion> row : session.getPlayingTable()) {
+                    writeCards(generator, row);
+                }
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    /**
+     * Writes a list of cards as an array.
      *
-     * @param name The name of the card.
-     * @return True if the card is an environment card, false otherwise.
+     * @param generator The generator to write to.
+     * @param cards     The cards to write.
+     * @throws IOException If the generator fails.
      */
-    private static boolean isEnvironment(final String name) {
-        // Check if the card name matches one of the environment cards
-        return name.equals("Firestorm")
-                || name.equals("Winterfell")
-                || name.equals("Heart Hound");
+    private static void writeCards(final JsonGenerator generator,
+                                   final List<? extends Deck> cards) throws IOException {
+        generator.writeStartArray();
+        for (Deck card : cards) {
+            CardSerializer.writeCard(generator, card);
+        }
+        generator.writeEndArray();
     }
 }
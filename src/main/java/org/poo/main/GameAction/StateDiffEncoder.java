@@ -0,0 +1,326 @@
+package org.poo.main.GameAction;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.main.CardHandler.Deck;
+import org.poo.main.CardHandler.Hero;
+import org.poo.main.CardHandler.Minion;
+import org.poo.main.EngineContext;
+import org.poo.main.GameSession;
+import org.poo.main.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes the state of a game session as a stream of versions: a keyframe holding the
+ * complete state (table, hands, decks, heroes, mana and turn), followed by deltas that
+ * only hold what changed since the previous version.
+ * <p>
+ * The encoder remembers, for every slot it emitted, the card object and the values
+ * that are serialized for it. A slot is only serialized again when one of them
+ * changed, so unchanged cards cost a few comparisons instead of a JSON tree.
+ * <p>
+ * Delta operations apply in order: {@code update} replaces the card of a slot,
+ * {@code insert} shifts the following cards to the right and {@code remove} drops
+ * {@code count} cards starting at a slot. Slots are named {@code table/<row>/<idx>},
+ * {@code hand/<player>/<idx>}, {@code deck/<player>/<idx>} and {@code hero/<player>}.
+ */
+public final class StateDiffEncoder {
+    // Number of versions after which a complete keyframe is emitted again
+    public static final int KEYFRAME_INTERVAL = 32;
+    private static final int PLAYERS = 2;
+
+    private static final ObjectMapper OBJECT_MAPPER = EngineContext.get().getObjectMapper();
+
+    private final int keyframeInterval;
+    private int version;
+    private int sinceKeyframe;
+    private List<List<Slot>> table;
+    private List<List<Slot>> hands;
+    private List<List<Slot>> decks;
+    private Slot[] heroes;
+    private int playerOneMana;
+    private int playerTwoMana;
+    private int playerTurn;
+    private int round;
+
+    /**
+     * Creates an encoder emitting a keyframe every {@link #KEYFRAME_INTERVAL} versions.
+     */
+    public StateDiffEncoder() {
+        this(KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Creates an encoder.
+     *
+     * @param keyframeInterval The number of versions between two keyframes.
+     */
+    public StateDiffEncoder(final int keyframeInterval) {
+        if (keyframeInterval < 1) {
+            throw new IllegalArgumentException("Keyframe interval must be positive.");
+        }
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    /**
+     * Adds the next version of the game state to the output, as a keyframe or a delta.
+     *
+     * @param output  The output ArrayNode.
+     * @param session The game session to encode.
+     */
+    public void getStateDiff(final ArrayNode output,
+                             final GameSession session) {
+        ObjectNode outputNode = OBJECT_MAPPER.createObjectNode();
+        outputNode.put("command", "getStateDiff");
+        outputNode.set("output", encode(session));
+        output.addPOJO(outputNode);
+    }
+
+    /**
+     * Encodes the next version of the game state.
+     *
+     * @param session The game session to encode.
+     * @return The keyframe or delta node.
+     */
+    public ObjectNode encode(final GameSession session) {
+        version++;
+        if (table == null || sinceKeyframe + 1 >= keyframeInterval) {
+            sinceKeyframe = 0;
+            return encodeKeyframe(session);
+        }
+        sinceKeyframe++;
+        return encodeDelta(session);
+    }
+
+    /**
+     * Encodes the complete state and remembers it as the base of the next delta.
+     *
+     * @param session The game session to encode.
+     * @return The keyframe node.
+     */
+    private ObjectNode encodeKeyframe(final GameSession session) {
+        ObjectNode node = OBJECT_MAPPER.createObjectNode();
+        node.put("version", version);
+        node.put("keyframe", true);
+
+        table = new ArrayList<>(GameSession.INITIAL_CAPACITY);
+        ArrayNode tableNode = node.putArray("table");
+        for (List<Minion> row : session.getPlayingTable()) {
+            table.add(keyframeList(row, tableNode.addArray()));
+        }
+
+        hands = new ArrayList<>(PLAYERS);
+        decks = new ArrayList<>(PLAYERS);
+        heroes = new Slot[PLAYERS];
+        ArrayNode handsNode = node.putArray("hands");
+        ArrayNode decksNode = node.putArray("decks");
+        ArrayNode heroesNode = node.putArray("heroes");
+        for (int player = 1; player <= PLAYERS; player++) {
+            hands.add(keyframeList(session.getPlayerHand(player), handsNode.addArray()));
+            decks.add(keyframeList(session.getPlayerDeck(player), decksNode.addArray()));
+            Hero hero = session.getPlayerHero(player);
+            heroes[player - 1] = new Slot(hero);
+            heroesNode.add(OBJECT_MAPPER.<ObjectNode>valueToTree(hero));
+        }
+
+        Utils utils = session.getUtils();
+        playerOneMana = utils.getPlayerOneMana();
+        playerTwoMana = utils.getPlayerTwoMana();
+        playerTurn = utils.getTurn();
+        round = utils.getNumberOfRounds();
+        node.put("playerOneMana", playerOneMana);
+        node.put("playerTwoMana", playerTwoMana);
+        node.put("playerTurn", playerTurn);
+        node.put("round", round);
+        return node;
+    }
+
+    /**
+     * Serializes a whole list of cards and remembers its slots.
+     *
+     * @param cards    The cards.
+     * @param listNode The array node to add the cards to.
+     * @return The slots of the list.
+     */
+    private static List<Slot> keyframeList(final List<? extends Deck> cards,
+                                           final ArrayNode listNode) {
+        List<Slot> slots = new ArrayList<>(cards.size());
+        for (Deck card : cards) {
+            slots.add(new Slot(card));
+            listNode.add(OBJECT_MAPPER.<ObjectNode>valueToTree(card));
+        }
+        return slots;
+    }
+
+    /**
+     * Encodes what changed since the previous version.
+     *
+     * @param session The game session to encode.
+     * @return The delta node.
+     */
+    private ObjectNode encodeDelta(final GameSession session) {
+        ObjectNode node = OBJECT_MAPPER.createObjectNode();
+        node.put("version", version);
+        node.put("base", version - 1);
+        ArrayNode changes = node.putArray("changes");
+
+        for (int row = 0; row < GameSession.INITIAL_CAPACITY; row++) {
+            diffList("table/" + row + "/", table.get(row),
+                    session.getPlayingTable().get(row), changes);
+        }
+        for (int player = 1; player <= PLAYERS; player++) {
+            diffList("hand/" + player + "/", hands.get(player - 1),
+                    session.getPlayerHand(player), changes);
+            diffList("deck/" + player + "/", decks.get(player - 1),
+                    session.getPlayerDeck(player), changes);
+            Hero hero = session.getPlayerHero(player);
+            if (!heroes[player - 1].matches(hero)) {
+                heroes[player - 1] = new Slot(hero);
+                addChange(changes, "update", "hero/" + player)
+                        .set("card", OBJECT_MAPPER.valueToTree(hero));
+            }
+        }
+
+        // Scalars are only present when they changed
+        Utils utils = session.getUtils();
+        if (utils.getPlayerOneMana() != playerOneMana) {
+            playerOneMana = utils.getPlayerOneMana();
+            node.put("playerOneMana", playerOneMana);
+        }
+        if (utils.getPlayerTwoMana() != playerTwoMana) {
+            playerTwoMana = utils.getPlayerTwoMana();
+            node.put("playerTwoMana", playerTwoMana);
+        }
+        if (utils.getTurn() != playerTurn) {
+            playerTurn = utils.getTurn();
+            node.put("playerTurn", playerTurn);
+        }
+        if (utils.getNumberOfRounds() != round) {
+            round = utils.getNumberOfRounds();
+            node.put("round", round);
+        }
+        return node;
+    }
+
+    /**
+     * Emits the operations turning the remembered slots into the current cards, then
+     * remembers the current cards. The common prefix and suffix are skipped, the
+     * middle part is encoded as updates followed by inserts or removals.
+     *
+     * @param prefix  The slot name prefix of the list.
+     * @param slots   The remembered slots, updated in place.
+     * @param cards   The current cards.
+     * @param changes The array node to add the operations to.
+     */
+    private static void diffList(final String prefix,
+                                 final List<Slot> slots,
+                                 final List<? extends Deck> cards,
+                                 final ArrayNode changes) {
+        int oldSize = slots.size();
+        int newSize = cards.size();
+        int start = 0;
+        while (start < oldSize && start < newSize && slots.get(start).matches(cards.get(start))) {
+            start++;
+        }
+        int oldEnd = oldSize;
+        int newEnd = newSize;
+        while (oldEnd > start && newEnd > start
+                && slots.get(oldEnd - 1).matches(cards.get(newEnd - 1))) {
+            oldEnd--;
+            newEnd--;
+        }
+        if (start == oldEnd && start == newEnd) {
+            return;
+        }
+
+        int updated = Math.min(oldEnd, newEnd) - start;
+        for (int i = start; i < start + updated; i++) {
+            if (!slots.get(i).matches(cards.get(i))) {
+                addChange(changes, "update", prefix + i)
+                        .set("card", OBJECT_MAPPER.valueToTree(cards.get(i)));
+            }
+        }
+        for (int i = start + updated; i < newEnd; i++) {
+            addChange(changes, "insert", prefix + i)
+                    .set("card", OBJECT_MAPPER.valueToTree(cards.get(i)));
+        }
+        if (oldEnd - start > updated) {
+            ObjectNode removal = addChange(changes, "remove", prefix + (start + updated));
+            removal.put("count", oldEnd - start - updated);
+        }
+
+        slots.clear();
+        for (Deck card : cards) {
+            slots.add(new Slot(card));
+        }
+    }
+
+    /**
+     * Adds an operation to the changes of a delta.
+     *
+     * @param changes The array node of the changes.
+     * @param op      The operation.
+     * @param slot    The slot name.
+     * @return The operation node.
+     */
+    private static ObjectNode addChange(final ArrayNode changes,
+                                        final String op,
+                                        final String slot) {
+        ObjectNode change = changes.addObject();
+        change.put("op", op);
+        change.put("slot", slot);
+        return change;
+    }
+
+    /**
+     * The card of an emitted slot and the mutable values serialized for it.
+     */
+    private static final class Slot {
+        private final Deck card;
+        private final int mana;
+        private final int health;
+        private final int attackDamage;
+
+        /**
+         * Remembers a card as it is now.
+         *
+         * @param card The card.
+         */
+        private Slot(final Deck card) {
+            this.card = card;
+            this.mana = card.getMana();
+            if (card instanceof Minion minion) {
+                this.health = minion.getHealth();
+                this.attackDamage = minion.getAttackDamage();
+            } else if (card instanceof Hero hero) {
+                this.health = hero.getHealth();
+                this.attackDamage = 0;
+            } else {
+                this.health = 0;
+                this.attackDamage = 0;
+            }
+        }
+
+        /**
+         * Tells whether a card would serialize the same way as this slot.
+         *
+         * @param other The current card.
+         * @return True if the slot is unchanged.
+         */
+        private boolean matches(final Deck other) {
+            if (other != card || other.getMana() != mana) {
+                return false;
+            }
+            if (other instanceof Minion minion) {
+                return minion.getHealth() == health && minion.getAttackDamage() == attackDamage;
+            }
+            if (other instanceof Hero hero) {
+                return hero.getHealth() == health;
+            }
+            return true;
+        }
+    }
+}
@@ -4,6 +4,9 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.poo.fileio.ActionsInput;
 import org.poo.main.CardHandler.Deck;
 import org.poo.main.CardHandler.Minion;
+import org.poo.main.CardHandler.PlayerHand;
+import org.poo.main.Rules.CardRule;
+import org.poo.main.Rules.RowEffect;
 import org.poo.main.Utils;
 
 import java.util.ArrayList;
@@ -16,9 +19,9 @@ public final class EnvironmentCardHandler {
      * Uses an environment card from the player's hand to perform an action on the playing table.
      * <p>
      * This method handles the logic for using an environment card, including checking if the card
-     * can be played, validating affected rows, and executing the card's effect. The following types
-     * of environment cards are supported: "Firestorm", "Winterfell", and "Heart Hound". Each card
-     * has a distinct effect on the playing table.
+     * can be played, validating affected rows, and executing the card's effect. The effects of the
+     * environment cards ("Firestorm", "Winterfell", "Heart Hound", ...) are defined in the card
+     * rules, see {@link org.poo.main.Rules.CardRules}.
      *
      * @param output              JSON output node to record any errors or game-ending messages.
      * @param command             The action command containing the card index and affected row.
@@ -31,8 +34,8 @@ public final class EnvironmentCardHandler {
      */
     public static void useEnvironmentCard(final ArrayNode output,
                                           final ActionsInput command,
-                                          final LinkedList<Deck> playerOneDeckInHand,
-                                          final LinkedList<Deck> playerTwoDeckInHand,
+                                          final PlayerHand playerOneDeckInHand,
+                                          final PlayerHand playerTwoDeckInHand,
                                           final ArrayList<LinkedList<Minion>> playingTable,
                                           final Utils utils, final int turn) {
         // Extract card index and affected row from the command
@@ -55,7 +58,7 @@ public final class EnvironmentCardHandler {
         }
 
         // Execute the action of the environment card
-        executeCardAction(environmentCard.getName(),targetRow, cardIndex, turn,
+        executeCardAction(environmentCard.getRule().getRowEffect(), targetRow, cardIndex, turn,
                 playerOneDeckInHand, playerTwoDeckInHand, playingTable, utils);
     }
 
@@ -72,8 +75,8 @@ public final class EnvironmentCardHandler {
      */
     private static Deck getCardFromHand(final int turn,
                                         final int cardIndex,
-                                        final LinkedList<Deck> playerOneDeckInHand,
-                                        final LinkedList<Deck> playerTwoDeckInHand) {
+                                        final PlayerHand playerOneDeckInHand,
+                                        final PlayerHand playerTwoDeckInHand) {
         // Retrieve the card from the current player's hand
         if (turn == 1 && playerOneDeckInHand.size() > cardIndex) {
             return playerOneDeckInHand.get(cardIndex);
@@ -101,14 +104,14 @@ public final class EnvironmentCardHandler {
                                          final int cardIndex,
                                          final int targetRow,
                                          final int turn,
-                                         final LinkedList<Deck> playerOneDeckInHand,
-                                         final LinkedList<Deck> playerTwoDeckInHand,
+                                         final PlayerHand playerOneDeckInHand,
+                                         final PlayerHand playerTwoDeckInHand,
                                          final ArrayList<LinkedList<Minion>> playingTable,
                                          final Utils utils) {
-        String cardName = environmentCard.getName();
+        CardRule rule = environmentCard.getRule();
 
         // Check if the card is of type 'Environment'
-        if (!isEnvironmentCard(cardName)) {
+        if (!rule.isEnvironment()) {
             return 1;
         }
         // Check if the player has enough mana to use the card
@@ -116,31 +119,16 @@ public final class EnvironmentCardHandler {
             return 2;
         }
         // Check if the card is being used on an enemy row
-        if (isOwnRowAffected(turn, targetRow)) {
+        if (rule.getTarget().rejectsRow(turn, targetRow)) {
             return 3;
         }
-        // Check if there is space on the affected row for 'Heart Hound' card
-        if (cardName.equals("Heart Hound")
-                &&
-                !hasSpaceOnAffectedRow(turn, targetRow, playingTable)) {
+        // Check if the effect can be applied, e.g. if there is space for a stolen minion
+        if (!rule.getRowEffect().fits(playingTable, targetRow)) {
             return 4;
         }
         return 0;
     }
 
-    /**
-     * Checks if the given card is of type 'Environment'.
-     *
-     * @param cardName The name of the card.
-     * @return True if the card is an environment card, otherwise false.
-     */
-    private static boolean isEnvironmentCard(final String cardName) {
-        // Check if the card is one of the environment card types
-        return cardName.equals("Firestorm")
-                || cardName.equals("Winterfell")
-                || cardName.equals("Heart Hound");
-    }
-
     /**
      * Checks if the player has enough mana to use the specified card.
      *
@@ -157,41 +145,6 @@ public final class EnvironmentCardHandler {
                 || (turn == 2 && manaCost <= utils.getPlayerTwoMana());
     }
 
-    /**
-     * Checks if the affected row belongs to the current player.
-     *
-     * @param turn      Indicates the current player's turn (1 for player one, 2 for player two).
-     * @param targetRow The row affected by the card.
-     * @return True if the affected row is the player's own row, otherwise false.
-     */
-    private static boolean isOwnRowAffected(final int turn,
-                                            final int targetRow) {
-        // Check if the affected row is the player's own row
-        return (turn == 1 && (targetRow == 2 || targetRow == 3))
-                || (turn == 2 && (targetRow == 0 || targetRow == 1));
-    }
-
-    /**
-     * Checks if there is space left on the affected row for the 'Heart Hound' card.
-     *
-     * @param turn         Indicates the current player's turn (1 for player one, 2 for player two).
-     * @param targetRow    The row affected by the card.
-     * @param playingTable The current state of the playing table.
-     * @return True if there is space left on the row, otherwise false.
-     */
-    private static boolean hasSpaceOnAffectedRow(final int turn,
-                                                 final int targetRow,
-                                                 final ArrayList<LinkedList<Minion>> playingTable) {
-        // Check if there is space left on the affected row for the 'Heart Hound' card
-        if (turn == 1) {
-            return (targetRow == 1 && playingTable.get(2).size() < MAX_SIZE)
-                    || (targetRow == 0 && playingTable.get(3).size() < MAX_SIZE);
-        } else {
-            return (targetRow == 2 && playingTable.get(1).size() < MAX_SIZE)
-                    || (targetRow == 3 && playingTable.get(0).size() < MAX_SIZE);
-        }
-    }
-
     /**
      * Handles invalid cases when using an environment card
      * and records the appropriate error message.
@@ -225,9 +178,9 @@ public final class EnvironmentCardHandler {
     }
 
     /**
-     * Executes the action of the specified environment card.
+     * Executes the effect of an environment card.
      *
-     * @param cardName           The name of the environment card.
+     * @param effect             The compiled effect of the environment card.
      * @param targetRow          The row affected by the card.
      * @param cardIndex          The index of the card in the player's hand.
      * @param turn               Indicates the current player's turn
@@ -237,96 +190,19 @@ public final class EnvironmentCardHandler {
      * @param playingTable       The current state of the playing table.
      * @param utils              Utility object containing game-related methods and player states.
      */
-    private static void executeCardAction(final String cardName,
+    private static void executeCardAction(final RowEffect effect,
                                           final int targetRow,
                                           final int cardIndex,
                                           final int turn,
-                                          final LinkedList<Deck> playerOneDeckInHand,
-                                          final LinkedList<Deck> playerTwoDeckInHand,
+                                          final PlayerHand playerOneDeckInHand,
+                                          final PlayerHand playerTwoDeckInHand,
                                           final ArrayList<LinkedList<Minion>> playingTable,
                                           final Utils utils) {
-        // Execute the action based on the environment card type
-        switch (cardName) {
-            case "Heart Hound":
-                executeHeartHound(targetRow, turn, playingTable);
-                break;
-            case "Firestorm":
-                executeFirestorm(targetRow, playingTable);
-                break;
-            case "Winterfell":
-                executeWinterfell(targetRow, playingTable);
-                break;
-            default:
-                break;
-        }
+        effect.apply(playingTable, targetRow);
         // Deduct mana cost and remove the used card from the player's hand
         deductManaAndRemoveCard(turn, cardIndex, playerOneDeckInHand, playerTwoDeckInHand, utils);
     }
 
-    /**
-     * Executes the action for the 'Heart Hound' card by moving the minion with the highest health.
-     *
-     * @param targetRow    The row affected by the card.
-     * @param turn         Indicates the current player's turn (1 for player one, 2 for player two).
-     * @param playingTable The current state of the playing table.
-     */
-    private static void executeHeartHound(final int targetRow,
-                                          final int turn,
-                                          final ArrayList<LinkedList<Minion>> playingTable) {
-        // Execute the action for 'Heart Hound' card by moving the minion with the highest health
-        int maxHealth = 0;
-        int maxHealthIdx = 0;
-        int sourceRow = turn == 1 ? targetRow : (targetRow == 2 ? 2 : 3);
-        int destinationRow = turn == 1 ? (targetRow == 1 ? 2 : 3) : (targetRow == 2 ? 1 : 0);
-
-        // Find the minion with the highest health in the source row
-        for (int i = 0; i < playingTable.get(sourceRow).size(); i++) {
-            int cardHealth = playingTable.get(sourceRow).get(i).getHealth();
-            if (cardHealth > maxHealth) {
-                maxHealth = cardHealth;
-                maxHealthIdx = i;
-            }
-        }
-        // Move the minion with the highest health to the destination row
-        playingTable.get(destinationRow).add(playingTable.get(sourceRow).remove(maxHealthIdx));
-    }
-
-    /**
-     * Executes the action for the 'Firestorm' card by reducing
-     * the health of each minion in the target row.
-     *
-     * @param targetRow    The row affected by the card.
-     * @param playingTable The current state of the playing table.
-     */
-    private static void executeFirestorm(final int targetRow,
-                                         final ArrayList<LinkedList<Minion>> playingTable) {
-        // Execute the action for 'Firestorm' card by reducing
-        // the health of each minion in the target row
-        for (int i = 0; i < playingTable.get(targetRow).size(); i++) {
-            Minion card = playingTable.get(targetRow).get(i);
-            card.setHealth(card.getHealth() - 1);
-            // Remove the minion if its health drops to zero or below
-            if (card.getHealth() <= 0) {
-                playingTable.get(targetRow).remove(i);
-                i--;
-            }
-        }
-    }
-
-    /**
-     * Executes the action for the 'Winterfell' card by freezing each minion in the target row.
-     *
-     * @param targetRow    The row affected by the card.
-     * @param playingTable The current state of the playing table.
-     */
-    private static void executeWinterfell(final int targetRow,
-                                          final ArrayList<LinkedList<Minion>> playingTable) {
-        // Execute the action for 'Winterfell' card by freezing each minion in the target row
-        for (Minion card : playingTable.get(targetRow)) {
-            card.setIsFrozen(1);
-        }
-    }
-
     /**
      * Deducts the mana cost from the current player and removes
      * the used card from the player's hand.
@@ -340,8 +216,8 @@ public final class EnvironmentCardHandler {
      */
     private static void deductManaAndRemoveCard(final int turn,
                                                 final int cardIndex,
-                                                final LinkedList<Deck> playerOneDeckInHand,
-                                                final LinkedList<Deck> playerTwoDeckInHand,
+                                                final PlayerHand playerOneDeckInHand,
+                                                final PlayerHand playerTwoDeckInHand,
                                                 final Utils utils) {
         // Deduct the mana cost and remove the used card from the player's hand
         if (turn == 1) {
@@ -1,42 +1,33 @@
 package org.poo.main.GameHandler;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.poo.fileio.ActionsInput;
+import org.poo.main.Instrumentation.GameMetrics;
 
 public final class ErrorHandler {
 
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
-
     private ErrorHandler() {
         // Private constructor to prevent instantiation
     }
 
+    /**
+     * Adds an error entry built from a pre-encoded template to the output.
+     *
+     * @param output       The output ArrayNode to add the error entry to.
+     * @param template     The error template.
+     * @param handIdx      The index of the card in hand, or -1 if not reported.
+     * @param affectedRow  The affected row, or null if not reported.
+     * @param commandInput The command whose coordinates are reported, or null.
+     */
     private static void addErrorNode(final ArrayNode output,
-                                     final String command,
-                                     final String error,
+                                     final ErrorTemplate template,
                                      final int handIdx,
                                      final Integer affectedRow,
                                      final ActionsInput commandInput) {
-        ObjectNode outputNode = OBJECT_MAPPER.createObjectNode();
-        outputNode.put("command", command);
-        outputNode.put("error", error);
-        if (handIdx != -1) {
-            outputNode.put("handIdx", handIdx);
-        }
-        if (affectedRow != null) {
-            outputNode.put("affectedRow", affectedRow);
-        }
-        if (commandInput != null) {
-            if (commandInput.getCardAttacker() != null) {
-                outputNode.putPOJO("cardAttacker", commandInput.getCardAttacker());
-            }
-            if (commandInput.getCardAttacked() != null) {
-                outputNode.putPOJO("cardAttacked", commandInput.getCardAttacked());
-            }
-        }
-        output.addPOJO(outputNode);
+        output.addPOJO(new ErrorOutput(template, handIdx, affectedRow,
+                commandInput != null ? commandInput.getCardAttacker() : null,
+                commandInput != null ? commandInput.getCardAttacked() : null));
+        GameMetrics.recordError(template.getCommand(), template.getError());
     }
 
     /**
@@ -47,8 +38,7 @@ public final class ErrorHandler {
      */
     public static void placeCardEnvironmentCard(final ArrayNode output,
                                                 final int handIdx) {
-        addErrorNode(output, "placeCard",
-                "Cannot place environment card on table.",
+        addErrorNode(output, ErrorTemplate.PLACE_CARD_ENVIRONMENT_CARD,
                 handIdx, null, null);
     }
 
@@ -60,8 +50,7 @@ public final class ErrorHandler {
      */
     public static void placeCardNotEnoughMana(final ArrayNode output,
                                               final int handIdx) {
-        addErrorNode(output, "placeCard",
-                "Not enough mana to place card on table.",
+        addErrorNode(output, ErrorTemplate.PLACE_CARD_NOT_ENOUGH_MANA,
                 handIdx, null, null);
     }
 
@@ -73,8 +62,7 @@ public final class ErrorHandler {
      */
     public static void placeCardNotEnoughSpace(final ArrayNode output,
                                                final int handIdx) {
-        addErrorNode(output, "placeCard",
-                "Cannot place card on table since row is full.",
+        addErrorNode(output, ErrorTemplate.PLACE_CARD_NOT_ENOUGH_SPACE,
                 handIdx, null, null);
     }
 
@@ -86,8 +74,7 @@ public final class ErrorHandler {
      */
     public static void useAttackNotEnemyCard(final ArrayNode output,
                                              final ActionsInput command) {
-        addErrorNode(output, "cardUsesAttack",
-                "Attacked card does not belong to the enemy.",
+        addErrorNode(output, ErrorTemplate.ATTACK_NOT_ENEMY_CARD,
                 -1, null, command);
     }
 
@@ -99,8 +86,7 @@ public final class ErrorHandler {
      */
     public static void useAttackAlreadyAttacked(final ArrayNode output,
                                                 final ActionsInput command) {
-        addErrorNode(output, "cardUsesAttack",
-                "Attacker card has already attacked this turn.",
+        addErrorNode(output, ErrorTemplate.ATTACK_ALREADY_ATTACKED,
                 -1, null, command);
     }
 
@@ -112,8 +98,7 @@ public final class ErrorHandler {
      */
     public static void useAttackIsFrozen(final ArrayNode output,
                                          final ActionsInput command) {
-        addErrorNode(output, "cardUsesAttack",
-                "Attacker card is frozen.",
+        addErrorNode(output, ErrorTemplate.ATTACK_IS_FROZEN,
                 -1, null, command);
     }
 
@@ -125,8 +110,7 @@ public final class ErrorHandler {
      */
     public static void useAttackTank(final ArrayNode output,
                                      final ActionsInput command) {
-        addErrorNode(output, "cardUsesAttack",
-                "Attacked card is not of type 'Tank'.",
+        addErrorNode(output, ErrorTemplate.ATTACK_TANK,
                 -1, null, command);
     }
 
@@ -138,8 +122,7 @@ public final class ErrorHandler {
      */
     public static void useAbilityIsFrozen(final ArrayNode output,
                                           final ActionsInput command) {
-        addErrorNode(output, "cardUsesAbility",
-                "Attacker card is frozen.",
+        addErrorNode(output, ErrorTemplate.ABILITY_IS_FROZEN,
                 -1, null, command);
     }
 
@@ -152,8 +135,7 @@ public final class ErrorHandler {
      */
     public static void useAbilityAlreadyAttacked(final ArrayNode output,
                                                  final ActionsInput command) {
-        addErrorNode(output, "cardUsesAbility",
-                "Attacker card has already attacked this turn.",
+        addErrorNode(output, ErrorTemplate.ABILITY_ALREADY_ATTACKED,
                 -1, null, command);
     }
 
@@ -166,8 +148,7 @@ public final class ErrorHandler {
      */
     public static void useAbilityNotMyCard(final ArrayNode output,
                                            final ActionsInput command) {
-        addErrorNode(output, "cardUsesAbility",
-                "Attacked card does not belong to the current player.",
+        addErrorNode(output, ErrorTemplate.ABILITY_NOT_MY_CARD,
                 -1, null, command);
     }
 
@@ -179,8 +160,7 @@ public final class ErrorHandler {
      */
     public static void useAbilityNotEnemyCard(final ArrayNode output,
                                               final ActionsInput command) {
-        addErrorNode(output, "cardUsesAbility",
-                "Attacked card does not belong to the enemy.",
+        addErrorNode(output, ErrorTemplate.ABILITY_NOT_ENEMY_CARD,
                 -1, null, command);
     }
 
@@ -192,8 +172,7 @@ public final class ErrorHandler {
      */
     public static void useAbilityTank(final ArrayNode output,
                                       final ActionsInput command) {
-        addErrorNode(output, "cardUsesAbility",
-                "Attacked card is not of type 'Tank'.",
+        addErrorNode(output, ErrorTemplate.ABILITY_TANK,
                 -1, null, command);
     }
 
@@ -206,8 +185,7 @@ public final class ErrorHandler {
      */
     public static void attackHeroIsFrozen(final ArrayNode output,
                                           final ActionsInput command) {
-        addErrorNode(output, "useAttackHero",
-                "Attacker card is frozen.",
+        addErrorNode(output, ErrorTemplate.ATTACK_HERO_IS_FROZEN,
                 -1, null, command);
     }
 
@@ -220,8 +198,7 @@ public final class ErrorHandler {
      */
     public static void attackHeroAlreadyAttacked(final ArrayNode output,
                                                  final ActionsInput command) {
-        addErrorNode(output, "useAttackHero",
-                "Attacker card has already attacked this turn.",
+        addErrorNode(output, ErrorTemplate.ATTACK_HERO_ALREADY_ATTACKED,
                 -1, null, command);
     }
 
@@ -233,8 +210,7 @@ public final class ErrorHandler {
      */
     public static void attackHeroTank(final ArrayNode output,
                                       final ActionsInput command) {
-        addErrorNode(output, "useAttackHero",
-                "Attacked card is not of type 'Tank'.",
+        addErrorNode(output, ErrorTemplate.ATTACK_HERO_TANK,
                 -1, null, command);
     }
 
@@ -246,8 +222,7 @@ public final class ErrorHandler {
      */
     public static void heroAbilityNotEnoughMana(final ArrayNode output,
                                                 final int affectedRow) {
-        addErrorNode(output, "useHeroAbility",
-                "Not enough mana to use hero's ability.",
+        addErrorNode(output, ErrorTemplate.HERO_ABILITY_NOT_ENOUGH_MANA,
                 -1, affectedRow, null);
     }
 
@@ -259,8 +234,7 @@ public final class ErrorHandler {
      */
     public static void heroAbilityAlreadyAttacked(final ArrayNode output,
                                                   final int affectedRow) {
-        addErrorNode(output, "useHeroAbility",
-                "Hero has already attacked this turn.",
+        addErrorNode(output, ErrorTemplate.HERO_ABILITY_ALREADY_ATTACKED,
                 -1, affectedRow, null);
     }
 
@@ -273,8 +247,7 @@ public final class ErrorHandler {
      */
     public static void heroAbilityNotEnemyRow(final ArrayNode output,
                                               final int affectedRow) {
-        addErrorNode(output, "useHeroAbility",
-                "Selected row does not belong to the enemy.",
+        addErrorNode(output, ErrorTemplate.HERO_ABILITY_NOT_ENEMY_ROW,
                 -1, affectedRow, null);
     }
 
@@ -287,9 +260,7 @@ public final class ErrorHandler {
      */
     public static void heroAbilityNotMyRow(final ArrayNode output,
                                            final int affectedRow) {
-        addErrorNode(output,
-                "useHeroAbility",
-                "Selected row does not belong to the current player.",
+        addErrorNode(output, ErrorTemplate.HERO_ABILITY_NOT_MY_ROW,
                 -1, affectedRow, null);
     }
 
@@ -303,8 +274,7 @@ public final class ErrorHandler {
     public static void notEnvironmentType(final ArrayNode output,
                                           final int affectedRow,
                                           final int handIdx) {
-        addErrorNode(output, "useEnvironmentCard",
-                "Chosen card is not of type environment.",
+        addErrorNode(output, ErrorTemplate.NOT_ENVIRONMENT_TYPE,
                 handIdx, affectedRow, null);
     }
 
@@ -318,9 +288,7 @@ public final class ErrorHandler {
     public static void environmentCardNotEnoughMana(final ArrayNode output,
                                                     final int affectedRow,
                                                     final int handIdx) {
-        addErrorNode(output,
-                "useEnvironmentCard",
-                "Not enough mana to use environment card.",
+        addErrorNode(output, ErrorTemplate.ENVIRONMENT_NOT_ENOUGH_MANA,
                 handIdx, affectedRow, null);
     }
 
@@ -335,8 +303,7 @@ public final class ErrorHandler {
     public static void environmentCardNotEnemyRow(final ArrayNode output,
                                                   final int affectedRow,
                                                   final int handIdx) {
-        addErrorNode(output, "useEnvironmentCard",
-                "Chosen row does not belong to the enemy.",
+        addErrorNode(output, ErrorTemplate.ENVIRONMENT_NOT_ENEMY_ROW,
                 handIdx, affectedRow, null);
     }
 
@@ -351,8 +318,21 @@ public final class ErrorHandler {
     public static void environmentCardNotEnoughSpace(final ArrayNode output,
                                                      final int affectedRow,
                                                      final int handIdx) {
-        addErrorNode(output, "useEnvironmentCard",
-                "Cannot steal enemy card since the player's row is full.",
+        addErrorNode(output, ErrorTemplate.ENVIRONMENT_NOT_ENOUGH_SPACE,
                 handIdx, affectedRow, null);
     }
+
+    /**
+     * Handles the error when a snapshot asks for a field that does not exist. The field
+     * is named in the output entry only, the metrics count the fixed message.
+     *
+     * @param output The output ArrayNode to add the error message to.
+     * @param field  The unknown field.
+     */
+    public static void snapshotUnknownField(final ArrayNode output,
+                                            final String field) {
+        ErrorTemplate template = ErrorTemplate.SNAPSHOT_UNKNOWN_FIELD;
+        output.addPOJO(new ErrorOutput(template, -1, null, null, null, field));
+        GameMetrics.recordError(template.getCommand(), template.getError());
+    }
 }
@@ -0,0 +1,168 @@
+package org.poo.main.GameHandler;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.fileio.Coordinates;
+import org.poo.main.EngineContext;
+import org.poo.main.Serialization.CoordinatesSerializer;
+
+import java.io.IOException;
+
+/**
+ * An error output entry: a pre-encoded {@link ErrorTemplate} plus the variable fields
+ * of the failed command, written straight to the generator when the output is written.
+ * The fields are written in the same order as the node built for an error before:
+ * command, error, handIdx, affectedRow, cardAttacker and cardAttacked, followed by the
+ * field a snapshot did not know.
+ */
+public final class ErrorOutput implements JsonSerializable {
+    private static final SerializedString COMMAND = new SerializedString("command");
+    private static final SerializedString ERROR = new SerializedString("error");
+    private static final SerializedString HAND_IDX = new SerializedString("handIdx");
+    private static final SerializedString AFFECTED_ROW = new SerializedString("affectedRow");
+    private static final SerializedString CARD_ATTACKER = new SerializedString("cardAttacker");
+    private static final SerializedString CARD_ATTACKED = new SerializedString("cardAttacked");
+    private static final SerializedString FIELD = new SerializedString("field");
+    private static final ObjectMapper OBJECT_MAPPER = EngineContext.get().getObjectMapper();
+
+    private final ErrorTemplate template;
+    private final int handIdx;
+    private final Integer affectedRow;
+    private final Coordinates cardAttacker;
+    private final Coordinates cardAttacked;
+    private final String field;
+
+    /**
+     * Creates an error output entry.
+     *
+     * @param template     The error template.
+     * @param handIdx      The index of the card in hand, or -1 if not reported.
+     * @param affectedRow  The affected row, or null if not reported.
+     * @param cardAttacker The attacker coordinates, or null if not reported.
+     * @param cardAttacked The attacked coordinates, or null if not reported.
+     */
+    public ErrorOutput(final ErrorTemplate template,
+                       final int handIdx,
+                       final Integer affectedRow,
+                       final Coordinates cardAttacker,
+                       final Coordinates cardAttacked) {
+        this(template, handIdx, affectedRow, cardAttacker, cardAttacked, null);
+    }
+
+    /**
+     * Creates an error output entry naming the field it was reported for.
+     *
+     * @param template     The error template.
+     * @param handIdx      The index of the card in hand, or -1 if not reported.
+     * @param affectedRow  The affected row, or null if not reported.
+     * @param cardAttacker The attacker coordinates, or null if not reported.
+     * @param cardAttacked The attacked coordinates, or null if not reported.
+     * @param field        The field name, or null if not reported.
+     */
+    public ErrorOutput(final ErrorTemplate template,
+                       final int handIdx,
+                       final Integer affectedRow,
+                       final Coordinates cardAttacker,
+                       final Coordinates cardAttacked,
+                       final String field) {
+        this.template = template;
+        this.handIdx = handIdx;
+        this.affectedRow = affectedRow;
+        this.cardAttacker = cardAttacker;
+        this.cardAttacked = cardAttacked;
+        this.field = field;
+    }
+
+    /**
+     * Gets the error template of this entry.
+     *
+     * @return The error template.
+     */
+    public ErrorTemplate getTemplate() {
+        return template;
+    }
+
+    @Override
+    public void serialize(final JsonGenerator generator,
+                          final SerializerProvider provider) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(COMMAND);
+        generator.writeString(template.getEncodedCommand());
+        generator.writeFieldName(ERROR);
+        generator.writeString(template.getEncodedError());
+        if (handIdx != -1) {
+            generator.writeFieldName(HAND_IDX);
+            generator.writeNumber(handIdx);
+        }
+        if (affectedRow != null) {
+            generator.writeFieldName(AFFECTED_ROW);
+            generator.writeNumber(affectedRow);
+        }
+        writeCoordinates(generator, CARD_ATTACKER, cardAttacker);
+        writeCoordinates(generator, CARD_ATTACKED, cardAttacked);
+        if (field != null) {
+            generator.writeFieldName(FIELD);
+            generator.writeString(field);
+        }
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(final JsonGenerator generator,
+                                  final SerializerProvider provider,
+                                  final TypeSerializer typeSerializer) throws IOException {
+        serialize(generator, provider);
+    }
+
+    /**
+     * Builds the tree form of this entry, for the code inspecting the output.
+     *
+     * @return The error node.
+     */
+    public ObjectNode toJsonNode() {
+        ObjectNode node = OBJECT_MAPPER.createObjectNode();
+        node.put("command", template.getCommand());
+        node.put("error", template.getError());
+        if (handIdx != -1) {
+            node.put("handIdx", handIdx);
+        }
+        if (affectedRow != null) {
+            node.put("affectedRow", affectedRow);
+        }
+        if (cardAttacker != null) {
+            node.putObject("cardAttacker").put("x", cardAttacker.getX())
+                    .put("y", cardAttacker.getY());
+        }
+        if (cardAttacked != null) {
+            node.putObject("cardAttacked").put("x", cardAttacked.getX())
+                    .put("y", cardAttacked.getY());
+        }
+        if (field != null) {
+            node.put("field", field);
+        }
+        return node;
+    }
+
+    /**
+     * Writes a coordinates field, if present.
+     *
+     * @param generator   The generator to write to.
+     * @param name        The field name.
+     * @param coordinates The coordinates, possibly null.
+     * @throws IOException If the generator fails.
+     */
+    private static void writeCoordinates(final JsonGenerator generator,
+                                         final SerializedString name,
+                                         final Coordinates coordinates) throws IOException {
+        if (coordinates == null) {
+            return;
+        }
+        generator.writeFieldName(name);
+        CoordinatesSerializer.writeCoordinates(generator, coordinates);
+    }
+}
@@ -0,0 +1,113 @@
+package org.poo.main.GameHandler;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * The errors reported by the {@link ErrorHandler}, with their command and message
+ * encoded once so they can be copied straight to the output.
+ */
+public enum ErrorTemplate {
+    PLACE_CARD_ENVIRONMENT_CARD("placeCard",
+            "Cannot place environment card on table."),
+    PLACE_CARD_NOT_ENOUGH_MANA("placeCard",
+            "Not enough mana to place card on table."),
+    PLACE_CARD_NOT_ENOUGH_SPACE("placeCard",
+            "Cannot place card on table since row is full."),
+    ATTACK_NOT_ENEMY_CARD("cardUsesAttack",
+            "Attacked card does not belong to the enemy."),
+    ATTACK_ALREADY_ATTACKED("cardUsesAttack",
+            "Attacker card has already attacked this turn."),
+    ATTACK_IS_FROZEN("cardUsesAttack",
+            "Attacker card is frozen."),
+    ATTACK_TANK("cardUsesAttack",
+            "Attacked card is not of type 'Tank'."),
+    ABILITY_IS_FROZEN("cardUsesAbility",
+            "Attacker card is frozen."),
+    ABILITY_ALREADY_ATTACKED("cardUsesAbility",
+            "Attacker card has already attacked this turn."),
+    ABILITY_NOT_MY_CARD("cardUsesAbility",
+            "Attacked card does not belong to the current player."),
+    ABILITY_NOT_ENEMY_CARD("cardUsesAbility",
+            "Attacked card does not belong to the enemy."),
+    ABILITY_TANK("cardUsesAbility",
+            "Attacked card is not of type 'Tank'."),
+    ATTACK_HERO_IS_FROZEN("useAttackHero",
+            "Attacker card is frozen."),
+    ATTACK_HERO_ALREADY_ATTACKED("useAttackHero",
+            "Attacker card has already attacked this turn."),
+    ATTACK_HERO_TANK("useAttackHero",
+            "Attacked card is not of type 'Tank'."),
+    HERO_ABILITY_NOT_ENOUGH_MANA("useHeroAbility",
+            "Not enough mana to use hero's ability."),
+    HERO_ABILITY_ALREADY_ATTACKED("useHeroAbility",
+            "Hero has already attacked this turn."),
+    HERO_ABILITY_NOT_ENEMY_ROW("useHeroAbility",
+            "Selected row does not belong to the enemy."),
+    HERO_ABILITY_NOT_MY_ROW("useHeroAbility",
+            "Selected row does not belong to the current player."),
+    NOT_ENVIRONMENT_TYPE("useEnvironmentCard",
+            "Chosen card is not of type environment."),
+    ENVIRONMENT_NOT_ENOUGH_MANA("useEnvironmentCard",
+            "Not enough mana to use environment card."),
+    ENVIRONMENT_NOT_ENEMY_ROW("useEnvironmentCard",
+            "Chosen row does not belong to the enemy."),
+    ENVIRONMENT_NOT_ENOUGH_SPACE("useEnvironmentCard",
+            "Cannot steal enemy card since the player's row is full."),
+    SNAPSHOT_UNKNOWN_FIELD("getGameSnapshot",
+            "Unknown snapshot field.");
+
+    private final String command;
+    private final String error;
+    private final SerializedString encodedCommand;
+    private final SerializedString encodedError;
+
+    /**
+     * Creates an error template.
+     *
+     * @param command The command that reports the error.
+     * @param error   The error message.
+     */
+    ErrorTemplate(final String command,
+                  final String error) {
+        this.command = command;
+        this.error = error;
+        this.encodedCommand = new SerializedString(command);
+        this.encodedError = new SerializedString(error);
+    }
+
+    /**
+     * Gets the command that reports the error.
+     *
+     * @return The command name.
+     */
+    public String getCommand() {
+        return command;
+    }
+
+    /**
+     * Gets the error message.
+     *
+     * @return The error message.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Gets the pre-encoded command name.
+     *
+     * @return The command name, quoted and escaped once.
+     */
+    public SerializedString getEncodedCommand() {
+        return encodedCommand;
+    }
+
+    /**
+     * Gets the pre-encoded error message.
+     *
+     * @return The error message, quoted and escaped once.
+     */
+    public SerializedString getEncodedError() {
+        return encodedError;
+    }
+}
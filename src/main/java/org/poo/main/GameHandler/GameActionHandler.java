@@ -7,6 +7,9 @@ import org.poo.fileio.StartGameInput;
 import org.poo.main.CardHandler.Deck;
 import org.poo.main.CardHandler.Hero;
 import org.poo.main.CardHandler.Minion;
+import org.poo.main.CardHandler.PlayerDeck;
+import org.poo.main.CardHandler.PlayerHand;
+import org.poo.main.EngineContext;
 import org.poo.main.Utils;
 
 import java.util.ArrayList;
@@ -21,7 +24,7 @@ public final class GameActionHandler {
     // Maximum number of cards allowed on a row of the playing table
     public static final int MAX_SIZE = 5;
     // ObjectMapper instance for JSON processing
-    private static ObjectMapper objectMapper = new ObjectMapper();
+    private static ObjectMapper objectMapper = EngineContext.get().getObjectMapper();
 
     /**
      * Places a card on the playing table based on the provided command and game state.
@@ -38,12 +41,12 @@ public final class GameActionHandler {
                                  final ActionsInput command,
                                  final int turn,
                                  final ArrayList<LinkedList<Minion>> playingTable,
-                                 final LinkedList<Deck> playerOneDeckInHand,
-                                 final LinkedList<Deck> playerTwoDeckInHand,
+                                 final PlayerHand playerOneDeckInHand,
+                                 final PlayerHand playerTwoDeckInHand,
                                  final Utils utils) {
         // Extract the index of the card to be placed from the player's hand
         int handIdx = command.getHandIdx();
-        LinkedList<Deck> currentDeckInHand;
+        PlayerHand currentDeckInHand;
         Deck cardToPlace;
         int currentMana;
         int targetRow;
@@ -54,19 +57,13 @@ public final class GameActionHandler {
                 cardToPlace = playerOneDeckInHand.get(handIdx);
                 currentDeckInHand = playerOneDeckInHand;
                 currentMana = utils.getPlayerOneMana();
-                targetRow = (cardToPlace.getName().equals("The Ripper")
-                        || cardToPlace.getName().equals("Miraj")
-                        || cardToPlace.getName().equals("Goliath")
-                        || cardToPlace.getName().equals("Warden")) ? 2 : 3;
+                targetRow = cardToPlace.getRule().isFrontRow() ? 2 : 3;
                 break;
             case 2:
                 cardToPlace = playerTwoDeckInHand.get(handIdx);
                 currentDeckInHand = playerTwoDeckInHand;
                 currentMana = utils.getPlayerTwoMana();
-                targetRow = (cardToPlace.getName().equals("The Ripper")
-                        || cardToPlace.getName().equals("Miraj")
-                        || cardToPlace.getName().equals("Goliath")
-                        || cardToPlace.getName().equals("Warden")) ? 1 : 0;
+                targetRow = cardToPlace.getRule().isFrontRow() ? 1 : 0;
                 break;
             default:
                 return;
@@ -94,41 +91,34 @@ public final class GameActionHandler {
                                          final int turn,
                                          final int handIdx,
                                          final Deck cardToPlace,
-                                         final LinkedList<Deck> currentDeckInHand,
+                                         final PlayerHand currentDeckInHand,
                                          final int currentMana,
                                          final int targetRow,
                                          final ArrayList<LinkedList<Minion>> playingTable,
                                          final Utils utils) {
-        String cardName = cardToPlace.getName();
-
         // Check for invalid cases
-        switch (cardName) {
-            case "Firestorm":
-            case "Winterfell":
-            case "Heart Hound":
-                // Environment cards cannot be placed on the table
-                ErrorHandler.placeCardEnvironmentCard(output, handIdx);
-                return;
-            default:
-                if (cardToPlace.getMana() > currentMana) {
-                    // Not enough mana to place the card
-                    ErrorHandler.placeCardNotEnoughMana(output, handIdx);
-                    return;
-                }
-                if (playingTable.get(targetRow).size() == EnvironmentCardHandler.MAX_SIZE) {
-                    // No available space on the target row
-                    ErrorHandler.placeCardNotEnoughSpace(output, handIdx);
-                    return;
-                }
-                // Decrease mana and place the card on the table
-                if (turn == 1) {
-                    utils.setPlayerOneMana(currentMana - cardToPlace.getMana());
-                } else {
-                    utils.setPlayerTwoMana(currentMana - cardToPlace.getMana());
-                }
-                playingTable.get(targetRow).addLast((Minion) currentDeckInHand.remove(handIdx));
-                break;
+        if (cardToPlace.getRule().isEnvironment()) {
+            // Environment cards cannot be placed on the table
+            ErrorHandler.placeCardEnvironmentCard(output, handIdx);
+            return;
+        }
+        if (cardToPlace.getMana() > currentMana) {
+            // Not enough mana to place the card
+            ErrorHandler.placeCardNotEnoughMana(output, handIdx);
+            return;
+        }
+        if (playingTable.get(targetRow).size() == EnvironmentCardHandler.MAX_SIZE) {
+            // No available space on the target row
+            ErrorHandler.placeCardNotEnoughSpace(output, handIdx);
+            return;
+        }
+        // Decrease mana and place the card on the table
+        if (turn == 1) {
+            utils.setPlayerOneMana(currentMana - cardToPlace.getMana());
+        } else {
+            utils.setPlayerTwoMana(currentMana - cardToPlace.getMana());
         }
+        playingTable.get(targetRow).addLast((Minion) currentDeckInHand.remove(handIdx));
     }
 
     /**
@@ -144,10 +134,10 @@ public final class GameActionHandler {
      * @param newGame             The new game input containing initial game settings.
      * @param utils               Utility class containing game-related data (e.g., mana, turn).
      */
-    public static void endPlayerTurn(final LinkedList<Deck> playerOneDeck,
-                                     final LinkedList<Deck> playerTwoDeck,
-                                     final LinkedList<Deck> playerOneDeckInHand,
-                                     final LinkedList<Deck> playerTwoDeckInHand,
+    public static void endPlayerTurn(final PlayerDeck playerOneDeck,
+                                     final PlayerDeck playerTwoDeck,
+                                     final PlayerHand playerOneDeckInHand,
+                                     final PlayerHand playerTwoDeckInHand,
                                      final ArrayList<LinkedList<Minion>> playingTable,
                                      final Hero playerOneHero,
                                      final Hero playerTwoHero,
@@ -187,10 +177,10 @@ public final class GameActionHandler {
      * @param playerTwoDeckInHand The deck of cards in hand for player two.
      * @param utils               Utility class containing game-related data.
      */
-    private static void updatePlayerManaAndDrawCards(final LinkedList<Deck> playerOneDeck,
-                                                     final LinkedList<Deck> playerTwoDeck,
-                                                     final LinkedList<Deck> playerOneDeckInHand,
-                                                     final LinkedList<Deck> playerTwoDeckInHand,
+    private static void updatePlayerManaAndDrawCards(final PlayerDeck playerOneDeck,
+                                                     final PlayerDeck playerTwoDeck,
+                                                     final PlayerHand playerOneDeckInHand,
+                                                     final PlayerHand playerTwoDeckInHand,
                                                      final Utils utils) {
         // Increment the round number
         utils.setNumberOfRounds(utils.getNumberOfRounds() + 1);
@@ -200,10 +190,10 @@ public final class GameActionHandler {
 
         // Draw cards from each player's deck if available
         if (!playerOneDeck.isEmpty()) {
-            playerOneDeckInHand.addLast(playerOneDeck.removeFirst());
+            playerOneDeckInHand.add(playerOneDeck.draw());
         }
         if (!playerTwoDeck.isEmpty()) {
-            playerTwoDeckInHand.addLast(playerTwoDeck.removeFirst());
+            playerTwoDeckInHand.add(playerTwoDeck.draw());
         }
     }
 
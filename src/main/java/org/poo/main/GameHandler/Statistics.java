@@ -3,9 +3,10 @@ package org.poo.main.GameHandler;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.main.EngineContext;
 
 public final class Statistics {
-    private static ObjectMapper objectMapper = new ObjectMapper();
+    private static ObjectMapper objectMapper = EngineContext.get().getObjectMapper();
 
     private Statistics() {
     }
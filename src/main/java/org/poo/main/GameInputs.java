@@ -0,0 +1,283 @@
+package org.poo.main;
+
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.CardInput;
+import org.poo.fileio.Coordinates;
+import org.poo.fileio.DecksInput;
+import org.poo.fileio.GameInput;
+import org.poo.fileio.Input;
+import org.poo.fileio.StartGameInput;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Content hashes and field by field comparisons of the games of an input file. Hashes
+ * are 64-bit FNV-1a over the field values and only point to candidates, which are
+ * compared before two games (or two game starts, or two actions) are treated as equal.
+ */
+final class GameInputs {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Input inputData;
+    // Content hash of every deck, computed when a game first uses it
+    private final IdentityHashMap<List<CardInput>, Long> deckHashes =
+            new IdentityHashMap<>();
+
+    /**
+     * Creates the helper for the games of an input file.
+     *
+     * @param inputData The input file.
+     */
+    GameInputs(final Input inputData) {
+        this.inputData = inputData;
+    }
+
+    /**
+     * Computes the content hash of the start of a game: its two decks and its start
+     * settings.
+     *
+     * @param gameIndex The index of the game in the input file.
+     * @return The hash of the game start.
+     */
+    long startHash(final int gameIndex) {
+        StartGameInput startGame = inputData.getGames().get(gameIndex).getStartGame();
+        long hash = FNV_OFFSET_BASIS;
+        hash = mix(hash, deckHash(inputData.getPlayerOneDecks(),
+                startGame.getPlayerOneDeckIdx()));
+        hash = mix(hash, deckHash(inputData.getPlayerTwoDecks(),
+                startGame.getPlayerTwoDeckIdx()));
+        hash = mix(hash, startGame.getShuffleSeed());
+        hash = mix(hash, startGame.getStartingPlayer());
+        hash = mixCard(hash, startGame.getPlayerOneHero());
+        return mixCard(hash, startGame.getPlayerTwoHero());
+    }
+
+    /**
+     * Computes the content hash of a whole game: its start and its actions.
+     *
+     * @param gameIndex The index of the game in the input file.
+     * @return The hash of the game.
+     */
+    long gameHash(final int gameIndex) {
+        long hash = startHash(gameIndex);
+        for (ActionsInput action : inputData.getGames().get(gameIndex).getActions()) {
+            hash = mix(hash, actionHash(action));
+        }
+        return hash;
+    }
+
+    /**
+     * Computes the content hash of an action.
+     *
+     * @param action The action.
+     * @return The hash of the action.
+     */
+    static long actionHash(final ActionsInput action) {
+        long hash = mix(FNV_OFFSET_BASIS, Objects.hashCode(action.getCommand()));
+        hash = mix(hash, action.getHandIdx());
+        hash = mix(hash, action.getAffectedRow());
+        hash = mix(hash, action.getPlayerIdx());
+        hash = mix(hash, action.getX());
+        hash = mix(hash, action.getY());
+        hash = mixCoordinates(hash, action.getCardAttacker());
+        hash = mixCoordinates(hash, action.getCardAttacked());
+        return mix(hash, Objects.hashCode(action.getFields()));
+    }
+
+    /**
+     * Tells whether two games of the input file have the same decks, start settings
+     * and actions.
+     *
+     * @param first  The index of the first game.
+     * @param second The index of the second game.
+     * @return True if the games are identical.
+     */
+    boolean sameGame(final int first,
+                     final int second) {
+        if (!sameStart(first, second)) {
+            return false;
+        }
+        List<ActionsInput> firstActions = inputData.getGames().get(first).getActions();
+        List<ActionsInput> secondActions = inputData.getGames().get(second).getActions();
+        if (firstActions.size() != secondActions.size()) {
+            return false;
+        }
+        for (int i = 0; i < firstActions.size(); i++) {
+            if (!sameAction(firstActions.get(i), secondActions.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tells whether two games of the input file have the same decks and start settings.
+     *
+     * @param first  The index of the first game.
+     * @param second The index of the second game.
+     * @return True if the games start from the same state.
+     */
+    boolean sameStart(final int first,
+                      final int second) {
+        StartGameInput firstStart = inputData.getGames().get(first).getStartGame();
+        StartGameInput secondStart = inputData.getGames().get(second).getStartGame();
+        return firstStart.getShuffleSeed() == secondStart.getShuffleSeed()
+                && firstStart.getStartingPlayer() == secondStart.getStartingPlayer()
+                && sameCard(firstStart.getPlayerOneHero(), secondStart.getPlayerOneHero())
+                && sameCard(firstStart.getPlayerTwoHero(), secondStart.getPlayerTwoHero())
+                && sameDeck(inputData.getPlayerOneDecks(), firstStart.getPlayerOneDeckIdx(),
+                        secondStart.getPlayerOneDeckIdx())
+                && sameDeck(inputData.getPlayerTwoDecks(), firstStart.getPlayerTwoDeckIdx(),
+                        secondStart.getPlayerTwoDeckIdx());
+    }
+
+    /**
+     * Tells whether two actions are identical.
+     *
+     * @param first  The first action.
+     * @param second The second action.
+     * @return True if all the fields of the actions are equal.
+     */
+    static boolean sameAction(final ActionsInput first,
+                              final ActionsInput second) {
+        return first.getHandIdx() == second.getHandIdx()
+                && first.getAffectedRow() == second.getAffectedRow()
+                && first.getPlayerIdx() == second.getPlayerIdx()
+                && first.getX() == second.getX()
+                && first.getY() == second.getY()
+                && Objects.equals(first.getCommand(), second.getCommand())
+                && sameCoordinates(first.getCardAttacker(), second.getCardAttacker())
+                && sameCoordinates(first.getCardAttacked(), second.getCardAttacked())
+                && Objects.equals(first.getFields(), second.getFields());
+    }
+
+    /**
+     * Tells whether two decks of a player hold the same cards.
+     *
+     * @param decks    The decks of the player.
+     * @param firstIdx The index of the first deck.
+     * @param secondIdx The index of the second deck.
+     * @return True if the decks are identical.
+     */
+    private static boolean sameDeck(final DecksInput decks,
+                                    final int firstIdx,
+                                    final int secondIdx) {
+        if (firstIdx == secondIdx) {
+            return true;
+        }
+        List<CardInput> firstDeck = decks.getDecks().get(firstIdx);
+        List<CardInput> secondDeck = decks.getDecks().get(secondIdx);
+        if (firstDeck.size() != secondDeck.size()) {
+            return false;
+        }
+        for (int i = 0; i < firstDeck.size(); i++) {
+            if (!sameCard(firstDeck.get(i), secondDeck.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tells whether two input cards are identical.
+     *
+     * @param first  The first card.
+     * @param second The second card.
+     * @return True if all the fields of the cards are equal.
+     */
+    private static boolean sameCard(final CardInput first,
+                                    final CardInput second) {
+        if (first == null || second == null) {
+            return first == second;
+        }
+        return first.getMana() == second.getMana()
+                && first.getHealth() == second.getHealth()
+                && first.getAttackDamage() == second.getAttackDamage()
+                && Objects.equals(first.getName(), second.getName())
+                && Objects.equals(first.getDescription(), second.getDescription())
+                && Objects.equals(first.getColors(), second.getColors());
+    }
+
+    /**
+     * Tells whether two coordinates are identical.
+     *
+     * @param first  The first coordinates, possibly null.
+     * @param second The second coordinates, possibly null.
+     * @return True if both are null or both point to the same cell.
+     */
+    private static boolean sameCoordinates(final Coordinates first,
+                                           final Coordinates second) {
+        if (first == null || second == null) {
+            return first == second;
+        }
+        return first.getX() == second.getX() && first.getY() == second.getY();
+    }
+
+    /**
+     * Gets the content hash of a deck of the input file.
+     *
+     * @param decks   The decks of a player.
+     * @param deckIdx The index of the deck.
+     * @return The hash of the cards of the deck.
+     */
+    private long deckHash(final DecksInput decks,
+                          final int deckIdx) {
+        return deckHashes.computeIfAbsent(decks.getDecks().get(deckIdx), deck -> {
+            long hash = FNV_OFFSET_BASIS;
+            for (CardInput card : deck) {
+                hash = mixCard(hash, card);
+            }
+            return hash;
+        });
+    }
+
+    /**
+     * Mixes an input card into a hash.
+     *
+     * @param hash The hash so far.
+     * @param card The card, possibly null.
+     * @return The new hash.
+     */
+    private static long mixCard(final long hash,
+                                final CardInput card) {
+        if (card == null) {
+            return mix(hash, 0);
+        }
+        long mixed = mix(hash, card.getMana());
+        mixed = mix(mixed, card.getHealth());
+        mixed = mix(mixed, card.getAttackDamage());
+        mixed = mix(mixed, Objects.hashCode(card.getName()));
+        mixed = mix(mixed, Objects.hashCode(card.getDescription()));
+        return mix(mixed, Objects.hashCode(card.getColors()));
+    }
+
+    /**
+     * Mixes coordinates into a hash.
+     *
+     * @param hash        The hash so far.
+     * @param coordinates The coordinates, possibly null.
+     * @return The new hash.
+     */
+    private static long mixCoordinates(final long hash,
+                                       final Coordinates coordinates) {
+        if (coordinates == null) {
+            return mix(hash, -1);
+        }
+        return mix(mix(hash, coordinates.getX()), coordinates.getY());
+    }
+
+    /**
+     * Mixes a value into a 64-bit FNV-1a hash.
+     *
+     * @param hash  The hash so far.
+     * @param value The value.
+     * @return The new hash.
+     */
+    private static long mix(final long hash,
+                            final long value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+}
@@ -0,0 +1,315 @@
+package org.poo.main;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.Input;
+import org.poo.fileio.StartGameInput;
+import org.poo.main.CardHandler.Deck;
+import org.poo.main.Instrumentation.GameMetrics;
+import org.poo.main.Instrumentation.GameStartEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Runs the games of an input file as a trie of actions. Games that start from the same
+ * decks and settings are grouped, and the actions they share at the beginning are only
+ * executed once: at the first action where two games differ, the session is forked and
+ * each branch continues on its own copy of the state.
+ * <p>
+ * The output of every action is recorded in its trie node, so the output of a game is
+ * the output of the nodes on its path. Games are then emitted in input order as
+ * {@link RecordedGame}s, which rebuild the statistics queries, so the output is the same
+ * as when every game is played on its own. Games using {@code getStateDiff} depend on
+ * the history of their session and are played on their own.
+ * <p>
+ * Enabled with {@code -Dgwent.trie=true}. The metrics count the actions that were
+ * actually executed.
+ */
+public final class GamePrefixTrie {
+    public static final String ENABLED_PROPERTY = "gwent.trie";
+    private static final JsonNode[] NO_ENTRIES = new JsonNode[0];
+    private static final byte[] NO_KINDS = new byte[0];
+
+    private final Input inputData;
+    private final LinkedList<LinkedList<Deck>> playerOne;
+    private final LinkedList<LinkedList<Deck>> playerTwo;
+    private final GameInputs gameInputs;
+    private long executedActions;
+    private long totalActions;
+
+    /**
+     * Creates the trie runner of an input file.
+     *
+     * @param inputData The input file.
+     * @param playerOne Player one's deck list.
+     * @param playerTwo Player two's deck list.
+     */
+    public GamePrefixTrie(final Input inputData,
+                          final LinkedList<LinkedList<Deck>> playerOne,
+                          final LinkedList<LinkedList<Deck>> playerTwo) {
+        this.inputData = inputData;
+        this.playerOne = playerOne;
+        this.playerTwo = playerTwo;
+        this.gameInputs = new GameInputs(inputData);
+    }
+
+    /**
+     * Tells whether games are run as a trie.
+     *
+     * @return True if {@code gwent.trie} is set to true.
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    /**
+     * Runs all the games of the input file and adds their output, in input order.
+     *
+     * @param output The output ArrayNode.
+     * @param utils  The utility object holding the win counters, which are updated.
+     */
+    public void run(final ArrayNode output,
+                    final Utils utils) {
+        int gameCount = inputData.getGames().size();
+        ArrayList<Group> groups = buildGroups(gameCount);
+
+        Node[] lastNodes = new Node[gameCount];
+        for (Group group : groups) {
+            for (int gameIndex : group.games) {
+                lastNodes[gameIndex] = insert(group.root, gameIndex);
+            }
+            execute(group);
+        }
+
+        for (int i = 0; i < gameCount; i++) {
+            GameStartEvent.emit(i, inputData.getGames().get(i).getStartGame());
+            recordGame(i, lastNodes[i]).emit(output, i, utils, false);
+            GameMetrics.recordGameCompleted();
+        }
+    }
+
+    /**
+     * Gets the number of actions that were executed.
+     *
+     * @return The number of executed actions.
+     */
+    public long getExecutedActions() {
+        return executedActions;
+    }
+
+    /**
+     * Gets the number of actions of all the games.
+     *
+     * @return The number of actions in the input.
+     */
+    public long getTotalActions() {
+        return totalActions;
+    }
+
+    /**
+     * Groups the games that start from the same state, in the order of their first game.
+     * A game streaming state diffs gets a group of its own.
+     *
+     * @param gameCount The number of games.
+     * @return The groups.
+     */
+    private ArrayList<Group> buildGroups(final int gameCount) {
+        ArrayList<Group> groups = new ArrayList<>();
+        HashMap<Long, List<Group>> groupsByStart = new HashMap<>();
+        for (int i = 0; i < gameCount; i++) {
+            totalActions += inputData.getGames().get(i).getActions().size();
+            if (streamsStateDiffs(i)) {
+                Group group = new Group(i);
+                groups.add(group);
+                continue;
+            }
+            List<Group> candidates = groupsByStart.computeIfAbsent(gameInputs.startHash(i),
+                    hash -> new ArrayList<>(1));
+            Group group = null;
+            for (Group candidate : candidates) {
+                if (gameInputs.sameStart(candidate.games.get(0), i)) {
+                    group = candidate;
+                    break;
+                }
+            }
+            if (group == null) {
+                group = new Group(i);
+                candidates.add(group);
+                groups.add(group);
+            } else {
+                group.games.add(i);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Tells whether a game asks for state diffs.
+     *
+     * @param gameIndex The index of the game.
+     * @return True if one of its actions is {@code getStateDiff}.
+     */
+    private boolean streamsStateDiffs(final int gameIndex) {
+        for (ActionsInput action : inputData.getGames().get(gameIndex).getActions()) {
+            if ("getStateDiff".equals(action.getCommand())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the actions of a game to a trie, sharing the nodes of the actions already
+     * added by the previous games.
+     *
+     * @param root      The root of the trie.
+     * @param gameIndex The index of the game.
+     * @return The node of the last action of the game (the root if it has none).
+     */
+    private Node insert(final Node root,
+                        final int gameIndex) {
+        Node node = root;
+        for (ActionsInput action : inputData.getGames().get(gameIndex).getActions()) {
+            long actionHash = GameInputs.actionHash(action);
+            Node next = null;
+            for (Node child : node.children) {
+                if (child.actionHash == actionHash
+                        && GameInputs.sameAction(child.action, action)) {
+                    next = child;
+                    break;
+                }
+            }
+            if (next == null) {
+                next = new Node(node, action, actionHash);
+                node.children.add(next);
+            }
+            node = next;
+        }
+        return node;
+    }
+
+    /**
+     * Executes the actions of a trie, each of them once, and records their output in
+     * their nodes. The session is forked for every branch but the last one, which goes
+     * on with the original session.
+     *
+     * @param group The group of games of the trie.
+     */
+    private void execute(final Group group) {
+        int firstGame = group.games.get(0);
+        StartGameInput startGame = inputData.getGames().get(firstGame).getStartGame();
+        // The win counters of the group are not used, the statistics are rebuilt
+        GameSession rootSession = new GameSession(startGame, firstGame, playerOne,
+                playerTwo, new Utils());
+        ArrayNode scratch = EngineContext.get().createArrayNode();
+
+        ArrayDeque<Node> nodes = new ArrayDeque<>();
+        ArrayDeque<GameSession> sessions = new ArrayDeque<>();
+        nodes.push(group.root);
+        sessions.push(rootSession);
+        while (!nodes.isEmpty()) {
+            Node node = nodes.pop();
+            GameSession session = sessions.pop();
+            if (node.action != null) {
+                session.execute(node.action, scratch);
+                executedActions++;
+                GameMetrics.recordAction();
+                if (!scratch.isEmpty()) {
+                    // Entries are classified once, whatever the number of games sharing them
+                    node.entries = new JsonNode[scratch.size()];
+                    node.kinds = new byte[scratch.size()];
+                    for (int i = 0; i < scratch.size(); i++) {
+                        node.entries[i] = scratch.get(i);
+                        node.kinds[i] = RecordedGame.classify(node.entries[i]);
+                    }
+                    scratch.removeAll();
+                }
+            }
+            // Forks are taken now, before the last branch changes the session
+            int last = node.children.size() - 1;
+            for (int i = 0; i < last; i++) {
+                nodes.push(node.children.get(i));
+                sessions.push(session.fork());
+            }
+            if (last >= 0) {
+                nodes.push(node.children.get(last));
+                sessions.push(session);
+            }
+        }
+    }
+
+    /**
+     * Collects the output of a game from the nodes on its path.
+     *
+     * @param gameIndex The index of the game.
+     * @param lastNode  The node of its last action.
+     * @return The recorded game.
+     */
+    private RecordedGame recordGame(final int gameIndex,
+                                    final Node lastNode) {
+        int size = 0;
+        for (Node node = lastNode; node != null; node = node.parent) {
+            size += node.entries.length;
+        }
+        // Segments are copied from the last one backwards
+        JsonNode[] entries = new JsonNode[size];
+        byte[] kinds = new byte[size];
+        for (Node node = lastNode; node != null; node = node.parent) {
+            size -= node.entries.length;
+            System.arraycopy(node.entries, 0, entries, size, node.entries.length);
+            System.arraycopy(node.kinds, 0, kinds, size, node.kinds.length);
+        }
+        return new RecordedGame(gameIndex, entries, kinds,
+                inputData.getGames().get(gameIndex).getActions().size());
+    }
+
+    /**
+     * Games starting from the same state, with the trie of their actions.
+     */
+    private static final class Group {
+        private final ArrayList<Integer> games = new ArrayList<>();
+        private final Node root = new Node(null, null, 0);
+
+        /**
+         * Creates a group.
+         *
+         * @param firstGame The index of the first game of the group.
+         */
+        private Group(final int firstGame) {
+            games.add(firstGame);
+        }
+    }
+
+    /**
+     * An action of the trie, shared by all the games whose actions up to this one are
+     * the same, together with the output it produced.
+     */
+    private static final class Node {
+        private final Node parent;
+        private final ActionsInput action;
+        private final long actionHash;
+        private final ArrayList<Node> children = new ArrayList<>(1);
+        private JsonNode[] entries = NO_ENTRIES;
+        private byte[] kinds = NO_KINDS;
+
+        /**
+         * Creates a node.
+         *
+         * @param parent     The node of the previous action, null for the root.
+         * @param action     The action, null for the root.
+         * @param actionHash The content hash of the action.
+         */
+        private Node(final Node parent,
+                     final ActionsInput action,
+                     final long actionHash) {
+            this.parent = parent;
+            this.action = action;
+            this.actionHash = actionHash;
+        }
+    }
+}
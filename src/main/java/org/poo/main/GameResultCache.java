@@ -0,0 +1,109 @@
+package org.poo.main;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.poo.fileio.Input;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Memoizes the output of whole games of an input file. A game is identified by a
+ * 64-bit hash of its two decks, its start settings and its actions, so a duplicate
+ * game is emitted from the output of the first one instead of being played again.
+ * A hit is only used after comparing the two games field by field.
+ * <p>
+ * The statistics queries of a duplicate are recomputed, see {@link RecordedGame}.
+ * Memoization is disabled with {@code -Dgwent.memo=false}.
+ */
+public final class GameResultCache {
+    public static final String ENABLED_PROPERTY = "gwent.memo";
+
+    private final Input inputData;
+    private final GameInputs gameInputs;
+    private final HashMap<Long, RecordedGame> games = new HashMap<>();
+    private long hits;
+
+    /**
+     * Creates an empty cache for the games of an input file.
+     *
+     * @param inputData The input file.
+     */
+    public GameResultCache(final Input inputData) {
+        this.inputData = inputData;
+        this.gameInputs = new GameInputs(inputData);
+    }
+
+    /**
+     * Tells whether game memoization is enabled.
+     *
+     * @return False if {@code gwent.memo} is set to false.
+     */
+    public static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+    }
+
+    /**
+     * Computes the content hash of a game from its two decks, its start settings and its
+     * actions. The hash is only used to find a candidate, which {@link #replay} compares
+     * with the game before reusing its output.
+     *
+     * @param gameIndex The index of the game in the input file.
+     * @return The hash of the game.
+     */
+    public long key(final int gameIndex) {
+        return gameInputs.gameHash(gameIndex);
+    }
+
+    /**
+     * Adds the output of a game that was already played, if any.
+     *
+     * @param key       The content hash of the game.
+     * @param output    The output ArrayNode.
+     * @param gameIndex The index of the game in the input file.
+     * @param utils     The utility object holding the win counters, which are updated.
+     * @return True if the game was replayed, false if it has to be played.
+     */
+    public boolean replay(final long key,
+                          final ArrayNode output,
+                          final int gameIndex,
+                          final Utils utils) {
+        RecordedGame game = games.get(key);
+        if (game == null || !gameInputs.sameGame(game.getGameIndex(), gameIndex)) {
+            return false;
+        }
+        hits++;
+        game.emit(output, gameIndex, utils, true);
+        return true;
+    }
+
+    /**
+     * Remembers the output of a game that was just played.
+     *
+     * @param key       The content hash of the game.
+     * @param gameIndex The index of the game in the input file.
+     * @param output    The output ArrayNode.
+     * @param fromIndex The index of the first output entry of the game.
+     */
+    public void store(final long key,
+                      final int gameIndex,
+                      final ArrayNode output,
+                      final int fromIndex) {
+        ArrayList<JsonNode> entries = new ArrayList<>(output.size() - fromIndex);
+        for (int i = fromIndex; i < output.size(); i++) {
+            entries.add(output.get(i));
+        }
+        // On a hash collision the first game keeps the entry
+        games.putIfAbsent(key, new RecordedGame(gameIndex, entries,
+                inputData.getGames().get(gameIndex).getActions().size()));
+    }
+
+    /**
+     * Gets the number of games replayed from the cache.
+     *
+     * @return The number of cache hits.
+     */
+    public long getHits() {
+        return hits;
+    }
+}
@@ -0,0 +1,422 @@
+package org.poo.main;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.StartGameInput;
+import org.poo.main.CardHandler.Deck;
+import org.poo.main.CardHandler.Hero;
+import org.poo.main.CardHandler.Minion;
+import org.poo.main.CardHandler.MinionRow;
+import org.poo.main.CardHandler.PlayerDeck;
+import org.poo.main.CardHandler.PlayerHand;
+import org.poo.main.GameAction.GameCardPlay;
+import org.poo.main.GameAction.GameInfo;
+import org.poo.main.GameAction.StateDiffEncoder;
+import org.poo.main.GameHandler.EnvironmentCardHandler;
+import org.poo.main.GameHandler.GameActionHandler;
+import org.poo.main.GameHandler.Statistics;
+import org.poo.main.Rules.MinionDeaths;
+import org.poo.main.Spectator.GameEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+
+/**
+ * Holds the state of a single game session (decks, hands, playing table and heroes)
+ * and executes the game commands against it, one at a time.
+ */
+public final class GameSession {
+    public static final int INITIAL_CAPACITY = 4;
+
+    private final StartGameInput newGame;
+    private final int gameIndex;
+    private final Utils utils;
+    private final PlayerDeck playerOneDeck;
+    private final PlayerDeck playerTwoDeck;
+    private final PlayerHand playerOneDeckInHand;
+    private final PlayerHand playerTwoDeckInHand;
+    private final ArrayList<LinkedList<Minion>> playingTable;
+    private final Hero playerOneHero;
+    private final Hero playerTwoHero;
+    private GameEventListener eventListener;
+    // Forwards the deaths of the commands to the event listener
+    private MinionDeaths.Listener deathListener;
+    // Created by the first getStateDiff command of the game
+    private StateDiffEncoder stateDiffEncoder;
+    // Bumped by every command that may change the state
+    private long stateVersion;
+    private final QueryCache queryCache = new QueryCache();
+
+    /**
+     * Initializes the game setup for the given game session.
+     * This includes setting initial mana, shuffling player decks, drawing the first card,
+     * setting up the playing table, and determining the starting player.
+     *
+     * @param newGame   The StartGameInput object containing the game settings.
+     * @param gameIndex The index of the game session.
+     * @param playerOne Player one's deck list.
+     * @param playerTwo Player two's deck list.
+     * @param utils     Utility object containing game state information.
+     */
+    public GameSession(final StartGameInput newGame,
+                       final int gameIndex,
+                       final LinkedList<LinkedList<Deck>> playerOne,
+                       final LinkedList<LinkedList<Deck>> playerTwo,
+                       final Utils utils) {
+        this.newGame = newGame;
+        this.gameIndex = gameIndex;
+        this.utils = utils;
+        this.playerOneDeck = new PlayerDeck(playerOne.get(newGame.getPlayerOneDeckIdx()));
+        this.playerTwoDeck = new PlayerDeck(playerTwo.get(newGame.getPlayerTwoDeckIdx()));
+        this.playerOneDeckInHand = new PlayerHand(playerOneDeck.size());
+        this.playerTwoDeckInHand = new PlayerHand(playerTwoDeck.size());
+
+        // Initialize players' mana, hands, and draw the first card
+        setInitialMana();
+        shuffleAndDrawFirstCard(playerOneDeck, playerOneDeckInHand);
+        shuffleAndDrawFirstCard(playerTwoDeck, playerTwoDeckInHand);
+
+        // Initialize the playing table and heroes
+        this.playingTable = initializePlayingTable();
+        this.playerOneHero = new Hero(newGame.getPlayerOneHero());
+        this.playerTwoHero = new Hero(newGame.getPlayerTwoHero());
+
+        // Set the initial turn and number of rounds
+        setInitialTurnAndRounds();
+    }
+
+    /**
+     * Executes a single command against the game state.
+     *
+     * @param command The command to execute.
+     * @param output  The output ArrayNode to store the result of the command.
+     */
+    public void execute(final ActionsInput command,
+                        final ArrayNode output) {
+        if (eventListener == null) {
+            dispatch(command, output);
+            return;
+        }
+        int outputSize = output.size();
+        eventListener.beforeCommand(this, command);
+        MinionDeaths.Listener previous = MinionDeaths.setListener(deathListener);
+        try {
+            dispatch(command, output);
+        } finally {
+            MinionDeaths.setListener(previous);
+        }
+        eventListener.afterCommand(this, command, output, outputSize);
+    }
+
+    /**
+     * Sends a command to the handler responsible for it. The output of read-only
+     * queries is reused while the state version is unchanged.
+     *
+     * @param command The command to execute.
+     * @param output  The output ArrayNode to store the result of the command.
+     */
+    private void dispatch(final ActionsInput command,
+                          final ArrayNode output) {
+        if (QueryCache.isCacheable(command)) {
+            JsonNode cached = queryCache.get(stateVersion, command);
+            if (cached != null) {
+                output.add(cached);
+                return;
+            }
+            int outputSize = output.size();
+            runCommand(command, output);
+            // Errors are not cached, so they keep being reported to the metrics
+            if (output.size() == outputSize + 1
+                    && !Utils.isErrorOutput(output.get(outputSize))) {
+                queryCache.put(stateVersion, command, output.get(outputSize));
+            }
+            return;
+        }
+        // Anything that is not a query (placeCard, endPlayerTurn, ...) may change the state
+        if (!command.getCommand().startsWith("get")) {
+            stateVersion++;
+        }
+        runCommand(command, output);
+    }
+
+    /**
+     * Runs a command with the handler responsible for it.
+     *
+     * @param command The command to execute.
+     * @param output  The output ArrayNode to store the result of the command.
+     */
+    private void runCommand(final ActionsInput command,
+                            final ArrayNode output) {
+        switch (command.getCommand()) {
+            case ("getCardsInHand") -> GameInfo.getCardsInHand(output, command,
+                    playerOneDeckInHand, playerTwoDeckInHand);
+            case ("getPlayerDeck") -> GameInfo.getPlayerDeck(output, command,
+                    playerOneDeck, playerTwoDeck);
+            case ("getCardsOnTable") -> GameInfo.getCardsOnTable(output, playingTable);
+            case ("getPlayerTurn") -> GameInfo.getPlayerTurn(output, utils.getTurn());
+            case ("getPlayerHero") -> GameInfo.getPlayerHero(output, command, playerOneHero,
+                    playerTwoHero);
+            case ("getCardAtPosition") -> GameInfo.getCardsAtPosition(output, command,
+                    playingTable);
+            case ("getPlayerMana") -> GameInfo.getPlayerMana(output, command,
+                    utils.getPlayerOneMana(), utils.getPlayerTwoMana());
+            case ("getEnvironmentCardsInHand") -> GameInfo.getEnvironmentCardsInHand(output,
+                    command, playerOneDeckInHand, playerTwoDeckInHand);
+            case ("getFrozenCardsOnTable") -> GameInfo.getFrozenCardsOnTable(output,
+                    playingTable);
+            case ("getTotalGamesPlayed") -> Statistics.getTotalGamesPlayed(output, gameIndex);
+            case ("getPlayerOneWins") -> Statistics.getPlayerOneWins(output,
+                    utils.getPlayerOneWins());
+            case ("getPlayerTwoWins") -> Statistics.getPlayerTwoWins(output,
+                    utils.getPlayerTwoWins());
+            case ("endPlayerTurn") -> GameActionHandler.endPlayerTurn(playerOneDeck,
+                    playerTwoDeck, playerOneDeckInHand, playerTwoDeckInHand,
+                    playingTable, playerOneHero, playerTwoHero, newGame, utils);
+            case ("placeCard") -> GameActionHandler.placeCard(output, command,
+                    utils.getTurn(), playingTable, playerOneDeckInHand,
+                    playerTwoDeckInHand, utils);
+            case ("cardUsesAttack") -> GameCardPlay.cardUsesAttack(output, command,
+                    playingTable, utils.getTurn());
+            case ("cardUsesAbility") -> GameCardPlay.cardUsesAbility(output, command,
+                    playingTable, utils.getTurn());
+            case ("useAttackHero") -> GameCardPlay.cardAttackHero(output, command,
+                    playingTable, utils.getTurn(), utils, playerOneHero, playerTwoHero);
+            case ("useHeroAbility") -> GameCardPlay.useHeroAbility(output, command,
+                    playingTable, utils.getTurn(),
+                    utils, playerOneHero, playerTwoHero);
+            case ("useEnvironmentCard") -> EnvironmentCardHandler.useEnvironmentCard(output,
+                    command, playerOneDeckInHand, playerTwoDeckInHand, playingTable,
+                    utils, utils.getTurn());
+            case ("getGameSnapshot") -> GameInfo.getGameSnapshot(output, command, this);
+            case ("getStateDiff") -> {
+                if (stateDiffEncoder == null) {
+                    stateDiffEncoder = new StateDiffEncoder();
+                }
+                stateDiffEncoder.getStateDiff(output, this);
+            }
+            default -> System.out.println("Invalid command received.");
+        }
+    }
+
+    /**
+     * Sets the listener notified around every executed command and of the minions
+     * that die during them.
+     *
+     * @param eventListener The listener, or null to stop notifying.
+     */
+    public void setEventListener(final GameEventListener eventListener) {
+        this.eventListener = eventListener;
+        this.deathListener = eventListener == null ? null
+                : (row, minions) -> eventListener.minionsDied(this, row, minions);
+    }
+
+    /**
+     * Gets the version of the game state, bumped by every command that may change it.
+     *
+     * @return The state version.
+     */
+    public long getStateVersion() {
+        return stateVersion;
+    }
+
+    /**
+     * Creates a deep copy of a game session in its current state.
+     *
+     * @param other The session to copy.
+     */
+    private GameSession(final GameSession other) {
+        this.newGame = other.newGame;
+        this.gameIndex = other.gameIndex;
+        this.utils = new Utils();
+        utils.setPlayerOneMana(other.utils.getPlayerOneMana());
+        utils.setPlayerTwoMana(other.utils.getPlayerTwoMana());
+        utils.setTurn(other.utils.getTurn());
+        utils.setPlayerOneWins(other.utils.getPlayerOneWins());
+        utils.setPlayerTwoWins(other.utils.getPlayerTwoWins());
+        utils.setNumberOfRounds(other.utils.getNumberOfRounds());
+        this.playerOneDeck = new PlayerDeck(other.playerOneDeck);
+        this.playerTwoDeck = new PlayerDeck(other.playerTwoDeck);
+        this.playerOneDeckInHand = new PlayerHand(other.playerOneDeckInHand);
+        this.playerTwoDeckInHand = new PlayerHand(other.playerTwoDeckInHand);
+        this.playingTable = new ArrayList<>(INITIAL_CAPACITY);
+        for (LinkedList<Minion> row : other.playingTable) {
+            LinkedList<Minion> rowCopy = new MinionRow();
+            for (Minion minion : row) {
+                rowCopy.addLast((Minion) Deck.copyOf(minion));
+            }
+            playingTable.add(rowCopy);
+        }
+        this.playerOneHero = (Hero) Deck.copyOf(other.playerOneHero);
+        this.playerTwoHero = (Hero) Deck.copyOf(other.playerTwoHero);
+        this.stateVersion = other.stateVersion;
+    }
+
+    /**
+     * Restores a game session from a saved state. The state version restarts at 0, as
+     * it only keys the query cache of the session.
+     *
+     * @param newGame      The StartGameInput object containing the game settings.
+     * @param gameIndex    The index of the game session.
+     * @param utils        Utility object holding the saved mana, turn, rounds and wins.
+     * @param decks        The remaining decks of player one and player two.
+     * @param hands        The hands of player one and player two.
+     * @param playingTable The 4 rows of minions on the table.
+     * @param heroes       The heroes of player one and player two.
+     */
+    public GameSession(final StartGameInput newGame,
+                       final int gameIndex,
+                       final Utils utils,
+                       final PlayerDeck[] decks,
+                       final PlayerHand[] hands,
+                       final ArrayList<LinkedList<Minion>> playingTable,
+                       final Hero[] heroes) {
+        this.newGame = newGame;
+        this.gameIndex = gameIndex;
+        this.utils = utils;
+        this.playerOneDeck = decks[0];
+        this.playerTwoDeck = decks[1];
+        this.playerOneDeckInHand = hands[0];
+        this.playerTwoDeckInHand = hands[1];
+        this.playingTable = playingTable;
+        this.playerOneHero = heroes[0];
+        this.playerTwoHero = heroes[1];
+    }
+
+    /**
+     * Tells whether a state diff stream was started. Its history is not part of the
+     * game state, so such a session can neither be forked nor saved.
+     *
+     * @return True if a getStateDiff command was executed.
+     */
+    public boolean isStreamingStateDiffs() {
+        return stateDiffEncoder != null;
+    }
+
+    /**
+     * Forks the game: the returned session continues from the current state, with its
+     * own copy of the cards and of the utility object, and no event listener.
+     *
+     * @return The forked session.
+     * @throws IllegalStateException If a state diff stream was started, as its history
+     *                               cannot be shared by two sessions.
+     */
+    public GameSession fork() {
+        if (stateDiffEncoder != null) {
+            throw new IllegalStateException("A session streaming state diffs cannot be forked.");
+        }
+        return new GameSession(this);
+    }
+
+    /**
+     * Gets the game settings of this session.
+     *
+     * @return The StartGameInput object containing the game settings.
+     */
+    public StartGameInput getNewGame() {
+        return newGame;
+    }
+
+    /**
+     * Gets the index of this game session.
+     *
+     * @return The game index.
+     */
+    public int getGameIndex() {
+        return gameIndex;
+    }
+
+    /**
+     * Gets the utility object holding mana, turn, rounds and wins.
+     *
+     * @return The utility object of this session.
+     */
+    public Utils getUtils() {
+        return utils;
+    }
+
+    /**
+     * Gets the remaining deck of the given player.
+     *
+     * @param playerIdx The index of the player (1 or 2).
+     * @return The player's deck.
+     */
+    public PlayerDeck getPlayerDeck(final int playerIdx) {
+        return playerIdx == 1 ? playerOneDeck : playerTwoDeck;
+    }
+
+    /**
+     * Gets the cards in hand of the given player.
+     *
+     * @param playerIdx The index of the player (1 or 2).
+     * @return The player's hand.
+     */
+    public PlayerHand getPlayerHand(final int playerIdx) {
+        return playerIdx == 1 ? playerOneDeckInHand : playerTwoDeckInHand;
+    }
+
+    /**
+     * Gets the playing table.
+     *
+     * @return The 4 rows of minions on the table.
+     */
+    public ArrayList<LinkedList<Minion>> getPlayingTable() {
+        return playingTable;
+    }
+
+    /**
+     * Gets the hero of the given player.
+     *
+     * @param playerIdx The index of the player (1 or 2).
+     * @return The player's hero.
+     */
+    public Hero getPlayerHero(final int playerIdx) {
+        return playerIdx == 1 ? playerOneHero : playerTwoHero;
+    }
+
+    /**
+     * Sets the initial mana for both players at the beginning of the game.
+     */
+    private void setInitialMana() {
+        utils.setPlayerOneMana(1);
+        utils.setPlayerTwoMana(1);
+    }
+
+    /**
+     * Shuffles the player's deck and draws the first card to add to the player's hand.
+     * This ensures that each player starts with one card in their hand.
+     *
+     * @param playerDeck The player's deck to shuffle and draw from.
+     * @param playerHand The player's hand to add the drawn card.
+     */
+    private void shuffleAndDrawFirstCard(final PlayerDeck playerDeck,
+                                         final PlayerHand playerHand) {
+        playerDeck.shuffle(newGame.getShuffleSeed());
+        playerHand.add(playerDeck.draw());
+    }
+
+    /**
+     * Sets the initial turn and number of rounds for the game session.
+     * This establishes which player goes first and initializes the round count.
+     */
+    private void setInitialTurnAndRounds() {
+        utils.setTurn(newGame.getStartingPlayer());
+        utils.setNumberOfRounds(1);
+    }
+
+    /**
+     * Initializes the playing table with empty rows to represent each player's minion rows.
+     * Each row can hold multiple minions during the game.
+     *
+     * @return An ArrayList containing 4 empty MinionRow objects to store Minion objects.
+     */
+    private static ArrayList<LinkedList<Minion>> initializePlayingTable() {
+        ArrayList<LinkedList<Minion>> table = new ArrayList<>(INITIAL_CAPACITY);
+
+        for (int i = 0; i < INITIAL_CAPACITY; i++) {
+            table.add(new MinionRow());
+        }
+
+        return table;
+    }
+}
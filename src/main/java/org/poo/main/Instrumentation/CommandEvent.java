@@ -0,0 +1,88 @@
+package org.poo.main.Instrumentation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.poo.main.Utils;
+
+/**
+ * Flight Recorder event wrapping the execution of a single game command.
+ * The outcome is derived from the nodes the command appended to the output:
+ * "ok" when nothing was written, "output" for query results, "error" for
+ * error messages and "gameEnded" when a hero was killed.
+ */
+@Name("org.poo.Command")
+@Label("Command Execution")
+@Category({"GwentStone", "Command"})
+@Description("Execution of one action from the command list of a game")
+@Enabled(false)
+@StackTrace(false)
+public final class CommandEvent extends Event {
+    @Label("Game Index")
+    int gameIndex;
+
+    @Label("Action Index")
+    int actionIndex;
+
+    @Label("Command")
+    String command;
+
+    @Label("Turn")
+    int turn;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Fills in the event fields and commits it. Must only be called after
+     * {@link #end()} and when {@link #shouldCommit()} returned true.
+     *
+     * @param gameIndex   The index of the current game session.
+     * @param actionIndex The index of the command in the game's command list.
+     * @param command     The name of the executed command.
+     * @param turn        The current player's turn (1 or 2).
+     * @param output      The output ArrayNode the command wrote to.
+     * @param outputSize  The size of the output before the command was executed.
+     */
+    public void commit(final int gameIndex,
+                       final int actionIndex,
+                       final String command,
+                       final int turn,
+                       final ArrayNode output,
+                       final int outputSize) {
+        this.gameIndex = gameIndex;
+        this.actionIndex = actionIndex;
+        this.command = command;
+        this.turn = turn;
+        this.outcome = getOutcome(output, outputSize);
+        commit();
+    }
+
+    /**
+     * Determines the outcome of a command from the last node it added to the output.
+     *
+     * @param output     The output ArrayNode the command wrote to.
+     * @param outputSize The size of the output before the command was executed.
+     * @return The outcome of the command.
+     */
+    private static String getOutcome(final ArrayNode output,
+                                     final int outputSize) {
+        if (output.size() == outputSize) {
+            return "ok";
+        }
+        JsonNode lastNode = Utils.getOutputNode(output.get(output.size() - 1));
+        if (lastNode.has("error")) {
+            return "error";
+        }
+        if (lastNode.has("gameEnded")) {
+            return "gameEnded";
+        }
+        return "output";
+    }
+}
@@ -0,0 +1,240 @@
+package org.poo.main.Instrumentation;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process wide counters describing the progress of the game engine, rendered in the
+ * Prometheus text exposition format by {@link MetricsServer}.
+ * <p>
+ * Counting is only done when the {@code gwent.metrics.port} system property is set,
+ * otherwise every record method returns after a single constant check.
+ */
+public final class GameMetrics {
+    public static final String PORT_PROPERTY = "gwent.metrics.port";
+    public static final boolean ENABLED = System.getProperty(PORT_PROPERTY) != null;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private static final long START_TIME = System.nanoTime();
+    private static final LongAdder GAMES_COMPLETED = new LongAdder();
+    private static final LongAdder ACTIONS = new LongAdder();
+    private static final LongAdder PLAYER_ONE_WINS = new LongAdder();
+    private static final LongAdder PLAYER_TWO_WINS = new LongAdder();
+    private static final LongAdder FILES_PROCESSED = new LongAdder();
+    private static final LongAdder SHUFFLE_CACHE_HITS = new LongAdder();
+    private static final LongAdder SHUFFLE_CACHE_MISSES = new LongAdder();
+    private static final LongAdder QUERY_CACHE_HITS = new LongAdder();
+    private static final LongAdder QUERY_CACHE_MISSES = new LongAdder();
+    // Error counters grouped by command and error message
+    private static final Map<String, Map<String, LongAdder>> ERRORS = new ConcurrentHashMap<>();
+
+    private GameMetrics() {
+    }
+
+    /**
+     * Counts an executed command.
+     */
+    public static void recordAction() {
+        if (ENABLED) {
+            ACTIONS.increment();
+        }
+    }
+
+    /**
+     * Counts a finished game session.
+     */
+    public static void recordGameCompleted() {
+        if (ENABLED) {
+            GAMES_COMPLETED.increment();
+        }
+    }
+
+    /**
+     * Counts a game won by the given player.
+     *
+     * @param winner The player that killed the enemy hero (1 or 2).
+     */
+    public static void recordWin(final int winner) {
+        if (ENABLED) {
+            (winner == 1 ? PLAYER_ONE_WINS : PLAYER_TWO_WINS).increment();
+        }
+    }
+
+    /**
+     * Counts a fully processed input file.
+     */
+    public static void recordFileProcessed() {
+        if (ENABLED) {
+            FILES_PROCESSED.increment();
+        }
+    }
+
+    /**
+     * Counts a lookup of the shuffle permutation cache.
+     *
+     * @param hit Whether the permutation was cached.
+     */
+    public static void recordShuffleCacheLookup(final boolean hit) {
+        if (ENABLED) {
+            (hit ? SHUFFLE_CACHE_HITS : SHUFFLE_CACHE_MISSES).increment();
+        }
+    }
+
+    /**
+     * Counts a lookup of a session's query output cache.
+     *
+     * @param hit Whether the output was reused.
+     */
+    public static void recordQueryCacheLookup(final boolean hit) {
+        if (ENABLED) {
+            (hit ? QUERY_CACHE_HITS : QUERY_CACHE_MISSES).increment();
+        }
+    }
+
+    /**
+     * Counts an error reported by the ErrorHandler.
+     *
+     * @param command The command that caused the error.
+     * @param error   The error message.
+     */
+    public static void recordError(final String command,
+                                   final String error) {
+        if (ENABLED) {
+            ERRORS.computeIfAbsent(command, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(error, key -> new LongAdder())
+                    .increment();
+        }
+    }
+
+    /**
+     * Renders all the counters, together with heap and GC statistics,
+     * in the Prometheus text exposition format.
+     *
+     * @return The metrics page.
+     */
+    public static String render() {
+        StringBuilder page = new StringBuilder();
+        long actions = ACTIONS.sum();
+        double uptime = (System.nanoTime() - START_TIME) / NANOS_PER_SECOND;
+
+        appendMetric(page, "gwent_games_completed_total", "counter",
+                "Number of finished game sessions.", GAMES_COMPLETED.sum());
+        appendMetric(page, "gwent_files_processed_total", "counter",
+                "Number of processed input files.", FILES_PROCESSED.sum());
+        appendMetric(page, "gwent_actions_total", "counter",
+                "Number of executed commands.", actions);
+        appendMetric(page, "gwent_actions_per_second", "gauge",
+                "Average command throughput since startup.", uptime > 0 ? actions / uptime : 0);
+
+        appendHeader(page, "gwent_wins_total", "counter", "Number of games won by each player.");
+        page.append("gwent_wins_total{player=\"1\"} ").append(PLAYER_ONE_WINS.sum()).append('\n');
+        page.append("gwent_wins_total{player=\"2\"} ").append(PLAYER_TWO_WINS.sum()).append('\n');
+
+        appendHeader(page, "gwent_shuffle_cache_lookups_total", "counter",
+                "Number of shuffle permutation lookups by result.");
+        page.append("gwent_shuffle_cache_lookups_total{result=\"hit\"} ")
+                .append(SHUFFLE_CACHE_HITS.sum()).append('\n');
+        page.append("gwent_shuffle_cache_lookups_total{result=\"miss\"} ")
+                .append(SHUFFLE_CACHE_MISSES.sum()).append('\n');
+
+        appendHeader(page, "gwent_query_cache_lookups_total", "counter",
+                "Number of query output cache lookups by result.");
+        page.append("gwent_query_cache_lookups_total{result=\"hit\"} ")
+                .append(QUERY_CACHE_HITS.sum()).append('\n');
+        page.append("gwent_query_cache_lookups_total{result=\"miss\"} ")
+                .append(QUERY_CACHE_MISSES.sum()).append('\n');
+
+        appendHeader(page, "gwent_errors_total", "counter",
+                "Number of invalid commands by command and error.");
+        for (Map.Entry<String, Map<String, LongAdder>> command : ERRORS.entrySet()) {
+            for (Map.Entry<String, LongAdder> error : command.getValue().entrySet()) {
+                page.append("gwent_errors_total{command=\"").append(escape(command.getKey()))
+                        .append("\",error=\"").append(escape(error.getKey())).append("\"} ")
+                        .append(error.getValue().sum()).append('\n');
+            }
+        }
+
+        appendJvmMetrics(page, uptime);
+        return page.toString();
+    }
+
+    /**
+     * Appends heap usage and garbage collector statistics.
+     *
+     * @param page   The metrics page being rendered.
+     * @param uptime The number of seconds since startup.
+     */
+    private static void appendJvmMetrics(final StringBuilder page,
+                                         final double uptime) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        appendMetric(page, "gwent_jvm_heap_used_bytes", "gauge",
+                "Used heap memory.", heap.getUsed());
+        appendMetric(page, "gwent_jvm_heap_committed_bytes", "gauge",
+                "Committed heap memory.", heap.getCommitted());
+        appendMetric(page, "gwent_jvm_heap_max_bytes", "gauge",
+                "Maximum heap memory.", heap.getMax());
+        appendMetric(page, "gwent_uptime_seconds", "gauge",
+                "Seconds since the metrics were initialized.", uptime);
+
+        appendHeader(page, "gwent_jvm_gc_collections_total", "counter",
+                "Number of collections by garbage collector.");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            page.append("gwent_jvm_gc_collections_total{gc=\"").append(escape(gc.getName()))
+                    .append("\"} ").append(gc.getCollectionCount()).append('\n');
+        }
+        appendHeader(page, "gwent_jvm_gc_time_seconds_total", "counter",
+                "Time spent in collections by garbage collector.");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            page.append("gwent_jvm_gc_time_seconds_total{gc=\"").append(escape(gc.getName()))
+                    .append("\"} ").append(gc.getCollectionTime() / 1000.0).append('\n');
+        }
+    }
+
+    /**
+     * Appends the HELP and TYPE lines of a metric.
+     *
+     * @param page The metrics page being rendered.
+     * @param name The metric name.
+     * @param type The metric type (counter or gauge).
+     * @param help The metric description.
+     */
+    private static void appendHeader(final StringBuilder page,
+                                     final String name,
+                                     final String type,
+                                     final String help) {
+        page.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        page.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Appends a metric without labels.
+     *
+     * @param page  The metrics page being rendered.
+     * @param name  The metric name.
+     * @param type  The metric type (counter or gauge).
+     * @param help  The metric description.
+     * @param value The metric value.
+     */
+    private static void appendMetric(final StringBuilder page,
+                                     final String name,
+                                     final String type,
+                                     final String help,
+                                     final Number value) {
+        appendHeader(page, name, type, help);
+        page.append(name).append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Escapes a label value as required by the exposition format.
+     *
+     * @param value The raw label value.
+     * @return The escaped label value.
+     */
+    private static String escape(final String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,66 @@
+package org.poo.main.Instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.poo.fileio.StartGameInput;
+
+/**
+ * Flight Recorder event emitted when a game session is initialized.
+ * Disabled by default, it has to be turned on from the recording settings.
+ */
+@Name("org.poo.GameStart")
+@Label("Game Start")
+@Category({"GwentStone", "Game"})
+@Description("A game session was initialized from its StartGameInput")
+@Enabled(false)
+@StackTrace(false)
+public final class GameStartEvent extends Event {
+    @Label("Game Index")
+    int gameIndex;
+
+    @Label("Player One Deck Index")
+    int playerOneDeckIdx;
+
+    @Label("Player Two Deck Index")
+    int playerTwoDeckIdx;
+
+    @Label("Shuffle Seed")
+    int shuffleSeed;
+
+    @Label("Starting Player")
+    int startingPlayer;
+
+    @Label("Player One Hero")
+    String playerOneHero;
+
+    @Label("Player Two Hero")
+    String playerTwoHero;
+
+    /**
+     * Records the start of a game session if the event is enabled.
+     *
+     * @param gameIndex The index of the game session.
+     * @param newGame   The StartGameInput object containing the game settings.
+     */
+    public static void emit(final int gameIndex,
+                            final StartGameInput newGame) {
+        GameStartEvent event = new GameStartEvent();
+        // Skip filling in the fields when nobody is recording
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.gameIndex = gameIndex;
+        event.playerOneDeckIdx = newGame.getPlayerOneDeckIdx();
+        event.playerTwoDeckIdx = newGame.getPlayerTwoDeckIdx();
+        event.shuffleSeed = newGame.getShuffleSeed();
+        event.startingPlayer = newGame.getStartingPlayer();
+        event.playerOneHero = newGame.getPlayerOneHero().getName();
+        event.playerTwoHero = newGame.getPlayerTwoHero().getName();
+        event.commit();
+    }
+}
@@ -0,0 +1,49 @@
+package org.poo.main.Instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event emitted when a hero is killed and the game ends.
+ */
+@Name("org.poo.HeroDeath")
+@Label("Hero Death")
+@Category({"GwentStone", "Game"})
+@Description("A hero was killed and the game ended")
+@Enabled(false)
+@StackTrace(false)
+public final class HeroDeathEvent extends Event {
+    @Label("Winner")
+    int winner;
+
+    @Label("Player One Wins")
+    int playerOneWins;
+
+    @Label("Player Two Wins")
+    int playerTwoWins;
+
+    /**
+     * Records the end of a game if the event is enabled.
+     *
+     * @param winner        The player that killed the enemy hero (1 or 2).
+     * @param playerOneWins The number of wins of player one, including this game.
+     * @param playerTwoWins The number of wins of player two, including this game.
+     */
+    public static void emit(final int winner,
+                            final int playerOneWins,
+                            final int playerTwoWins) {
+        HeroDeathEvent event = new HeroDeathEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.winner = winner;
+        event.playerOneWins = playerOneWins;
+        event.playerTwoWins = playerTwoWins;
+        event.commit();
+    }
+}
@@ -0,0 +1,76 @@
+package org.poo.main.Instrumentation;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP endpoint publishing {@link GameMetrics} on {@code /metrics}.
+ * It is only started when the {@code gwent.metrics.port} system property is set.
+ */
+public final class MetricsServer {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_METHOD_NOT_ALLOWED = 405;
+
+    private static HttpServer server;
+
+    private MetricsServer() {
+    }
+
+    /**
+     * Starts the metrics endpoint on the configured port, if metrics are enabled and
+     * the server was not already started. The server runs on a daemon thread, so it
+     * never keeps the JVM alive on its own.
+     *
+     * @throws IOException if the port cannot be bound
+     */
+    public static synchronized void startIfConfigured() throws IOException {
+        if (!GameMetrics.ENABLED || server != null) {
+            return;
+        }
+        int port = Integer.parseInt(System.getProperty(GameMetrics.PORT_PROPERTY));
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/metrics", MetricsServer::handle);
+        server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gwent-metrics");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        // The dispatcher thread inherits the daemon flag of the thread that starts it
+        Thread starter = new Thread(server::start, "gwent-metrics-starter");
+        starter.setDaemon(true);
+        starter.start();
+        try {
+            starter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Serves a scrape request.
+     *
+     * @param exchange The HTTP request and response.
+     * @throws IOException in case of exceptions while writing the response
+     */
+    private static void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(HTTP_METHOD_NOT_ALLOWED, -1);
+                return;
+            }
+            byte[] body = GameMetrics.render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(HTTP_OK, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.poo.main.Instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event emitted when minions die and are removed from a row.
+ */
+@Name("org.poo.MinionDeath")
+@Label("Minion Death")
+@Category({"GwentStone", "Game"})
+@Description("Minions died and were removed from a row")
+@Enabled(false)
+@StackTrace(false)
+public final class MinionDeathEvent extends Event {
+    @Label("Row")
+    int row;
+
+    @Label("Count")
+    int count;
+
+    /**
+     * Records the deaths of a row if the event is enabled.
+     *
+     * @param row   The row the minions were removed from.
+     * @param count The number of dead minions.
+     */
+    public static void emit(final int row,
+                            final int count) {
+        MinionDeathEvent event = new MinionDeathEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.row = row;
+        event.count = count;
+        event.commit();
+    }
+}
@@ -0,0 +1,48 @@
+package org.poo.main.Instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event wrapping the serialization of the output array to disk.
+ */
+@Name("org.poo.OutputFlush")
+@Label("Output Flush")
+@Category({"GwentStone", "Output"})
+@Description("The output of an input file was serialized and written to disk")
+@Enabled(false)
+@StackTrace(false)
+public final class OutputFlushEvent extends Event {
+    @Label("File")
+    String file;
+
+    @Label("Output Nodes")
+    int outputNodes;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytesWritten;
+
+    /**
+     * Fills in the event fields and commits it. Must only be called after
+     * {@link #end()} and when {@link #shouldCommit()} returned true.
+     *
+     * @param file         The path of the written output file.
+     * @param outputNodes  The number of nodes in the output array.
+     * @param bytesWritten The size of the written file.
+     */
+    public void commit(final String file,
+                       final int outputNodes,
+                       final long bytesWritten) {
+        this.file = file;
+        this.outputNodes = outputNodes;
+        this.bytesWritten = bytesWritten;
+        commit();
+    }
+}
@@ -1,11 +1,16 @@
 package org.poo.main;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 
 
 import org.poo.main.CardHandler.Deck;
+import org.poo.main.Encoding.OutputFormat;
+import org.poo.main.Instrumentation.GameMetrics;
+import org.poo.main.Instrumentation.MetricsServer;
+import org.poo.main.Instrumentation.OutputFlushEvent;
+import org.poo.main.Persistence.CheckpointStore;
+import org.poo.main.Persistence.ResultCache;
+import org.poo.main.Simulation.StateTrace;
 import org.poo.checker.Checker;
 import org.poo.checker.CheckerConstants;
 import org.poo.fileio.Input;
@@ -64,14 +69,32 @@ public final class Main {
      * @param filePath1 for input file
      * @param filePath2 for output file
      * @throws IOException in case of exceptions to reading / writing
+     * @throws IllegalStateException if the games diverge from a verified state trace
      */
     public static void action(final String filePath1,
                               final String filePath2) throws IOException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        Input inputData = objectMapper.readValue(new File(CheckerConstants.TESTS_PATH + filePath1),
-                Input.class);
+        MetricsServer.startIfConfigured();
+        EngineContext context = EngineContext.get();
+        context.warmUp();
+        File inputFile = new File(CheckerConstants.TESTS_PATH + filePath1);
+        File outputFile = new File(filePath2);
+        OutputFormat format = OutputFormat.fromSystemProperty();
+        StateTrace stateTrace = null;
+
+        // State traces are written while the games are played, so they bypass the caches
+        boolean tracing = System.getProperty(StateTrace.RECORD_PROPERTY) != null
+                || System.getProperty(StateTrace.VERIFY_PROPERTY) != null;
+        ResultCache resultCache = tracing ? null : ResultCache.fromSystemProperties();
+        CheckpointStore checkpoints = tracing ? null : CheckpointStore.fromSystemProperties();
+        String cacheKey = resultCache == null ? null : resultCache.key(inputFile, format);
+        if (resultCache != null && resultCache.restore(cacheKey, outputFile)) {
+            GameMetrics.recordFileProcessed();
+            return;
+        }
+
+        Input inputData = context.getInputReader().readValue(inputFile);
 
-        ArrayNode output = objectMapper.createArrayNode();
+        ArrayNode output = context.createArrayNode();
 
         /*
          * TODO Implement your function here
@@ -96,9 +119,42 @@ public final class Main {
         LinkedList<LinkedList<Deck>> playerTwo = Deck.setCardType(inputData.getPlayerTwoDecks());
 
         Command command = new Command(inputData, playerOne, playerTwo, output);
-        command.run();
+        // Actions appended to the last game resume from its checkpoint
+        CheckpointStore.Checkpoint checkpoint = checkpoints == null ? null
+                : checkpoints.load(filePath1, inputData, outputFile, format);
+        if (checkpoint != null) {
+            command.resume(checkpoint.getSession(), checkpoint.getActions());
+        } else {
+            command.setKeepLastSession(checkpoints != null);
+            stateTrace = StateTrace.open(filePath1);
+            try (StateTrace trace = stateTrace) {
+                command.setStateTrace(trace);
+                command.run();
+            }
+        }
 
-        ObjectWriter objectWriter = objectMapper.writerWithDefaultPrettyPrinter();
-        objectWriter.writeValue(new File(filePath2), output);
+        OutputFlushEvent flushEvent = new OutputFlushEvent();
+        flushEvent.begin();
+        // JSON unless -Dgwent.output.format=cbor is set
+        if (checkpoint != null) {
+            format.append(outputFile, output);
+        } else {
+            format.write(outputFile, output);
+        }
+        flushEvent.end();
+        if (flushEvent.shouldCommit()) {
+            flushEvent.commit(filePath2, output.size(), outputFile.length());
+        }
+        if (checkpoints != null) {
+            checkpoints.save(filePath1, inputData, command.getLastSession(), outputFile, format);
+        }
+        if (resultCache != null) {
+            resultCache.store(cacheKey, outputFile);
+        }
+        GameMetrics.recordFileProcessed();
+        // The output is still written, so the divergent run can be inspected
+        if (stateTrace != null && stateTrace.hasDiverged()) {
+            throw new IllegalStateException("State trace divergence in " + filePath1 + ".");
+        }
     }
 }
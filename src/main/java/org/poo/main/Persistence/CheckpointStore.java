@@ -0,0 +1,441 @@
+package org.poo.main.Persistence;
+
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.CardInput;
+import org.poo.fileio.Coordinates;
+import org.poo.fileio.DecksInput;
+import org.poo.fileio.GameInput;
+import org.poo.fileio.Input;
+import org.poo.fileio.StartGameInput;
+import org.poo.main.Encoding.OutputFormat;
+import org.poo.main.GameSession;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checkpoints of input files whose last game keeps growing, as when a live match is
+ * captured by appending actions to it. After a run, the state of the last game is saved
+ * together with a SHA-256 digest of the input it was computed from (the decks, the
+ * previous games, the start of the last game and its actions) and the size and
+ * SHA-256 digest of the output file.
+ * <p>
+ * On the next run of the same file, if the digest of the same prefix of the new input
+ * still matches and the output file was not changed, the game is restored and only the
+ * appended actions are executed; their output is appended to the output file. Otherwise
+ * the file is run from the start.
+ * <p>
+ * Enabled with {@code -Dgwent.checkpoint.dir=<dir>}.
+ */
+public final class CheckpointStore {
+    public static final String DIR_PROPERTY = "gwent.checkpoint.dir";
+    private static final String EXTENSION = ".ckpt";
+    private static final int MAGIC = 0x47574350;
+    private static final int VERSION = 2;
+
+    private final Path directory;
+    private final String fingerprint;
+
+    /**
+     * Creates a checkpoint store in a directory.
+     *
+     * @param directory   The checkpoint directory.
+     * @param fingerprint The fingerprint of the engine build.
+     */
+    public CheckpointStore(final Path directory,
+                           final String fingerprint) {
+        this.directory = directory;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Creates the checkpoint store configured by the system properties.
+     *
+     * @return The store, or null if it is not enabled or the engine build cannot be
+     *         fingerprinted.
+     */
+    public static CheckpointStore fromSystemProperties() {
+        String dir = System.getProperty(DIR_PROPERTY);
+        if (dir == null) {
+            return null;
+        }
+        String fingerprint = EngineFingerprint.get();
+        // A state saved by another build may not be understood, or played, the same way
+        return fingerprint == null ? null : new CheckpointStore(Path.of(dir), fingerprint);
+    }
+
+    /**
+     * Loads the checkpoint of an input file, if it is still valid for the new input.
+     *
+     * @param inputName  The name of the input file.
+     * @param inputData  The new input.
+     * @param outputFile The output file of the previous run.
+     * @param format     The format the output is written in.
+     * @return The checkpoint, or null if the input has to be run from the start.
+     */
+    public Checkpoint load(final String inputName,
+                           final Input inputData,
+                           final File outputFile,
+                           final OutputFormat format) {
+        Path file = checkpointFile(inputName);
+        if (!Files.isRegularFile(file) || inputData.getGames().isEmpty()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION
+                    || !fingerprint.equals(in.readUTF())
+                    || !format.name().equals(in.readUTF())) {
+                return null;
+            }
+            int gameCount = in.readInt();
+            int actions = in.readInt();
+            long outputBytes = in.readLong();
+            byte[] outputDigest = readBytes(in);
+            byte[] digest = readBytes(in);
+
+            int lastGame = gameCount - 1;
+            if (gameCount != inputData.getGames().size()
+                    || actions > inputData.getGames().get(lastGame).getActions().size()
+                    || !outputFile.isFile() || outputFile.length() != outputBytes
+                    || !Arrays.equals(digest, digest(inputData, actions))
+                    // The output is spliced, so an edit of the same size must be caught too
+                    || !Arrays.equals(outputDigest, digest(outputFile))) {
+                return null;
+            }
+            StartGameInput newGame = inputData.getGames().get(lastGame).getStartGame();
+            return new Checkpoint(SessionCodec.read(in, newGame, lastGame), actions);
+        } catch (IOException e) {
+            // A damaged checkpoint only costs a full run
+            return null;
+        }
+    }
+
+    /**
+     * Saves the checkpoint of an input file after a run. Nothing is saved if the last
+     * game cannot be restored later, in which case the previous checkpoint is deleted.
+     *
+     * @param inputName  The name of the input file.
+     * @param inputData  The input that was run.
+     * @param session    The session of the last game, after all its actions.
+     * @param outputFile The output file that was written.
+     * @param format     The format the output was written in.
+     * @throws IOException If the checkpoint cannot be written.
+     */
+    public void save(final String inputName,
+                     final Input inputData,
+                     final GameSession session,
+                     final File outputFile,
+                     final OutputFormat format) throws IOException {
+        Path file = checkpointFile(inputName);
+        int gameCount = inputData.getGames().size();
+        if (session == null || session.isStreamingStateDiffs()
+                || session.getGameIndex() != gameCount - 1) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        int actions = inputData.getGames().get(gameCount - 1).getActions().size();
+        byte[] digest = digest(inputData, actions);
+
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, inputName, ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(fingerprint);
+                out.writeUTF(format.name());
+                out.writeInt(gameCount);
+                out.writeInt(actions);
+                out.writeLong(outputFile.length());
+                writeBytes(out, digest(outputFile));
+                writeBytes(out, digest);
+                SessionCodec.write(out, session);
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Gets the checkpoint file of an input file.
+     *
+     * @param inputName The name of the input file.
+     * @return The path of its checkpoint.
+     */
+    private Path checkpointFile(final String inputName) {
+        return directory.resolve(inputName + EXTENSION);
+    }
+
+    /**
+     * Writes a length-prefixed byte array.
+     *
+     * @param out   The checkpoint output.
+     * @param bytes The bytes.
+     * @throws IOException If writing fails.
+     */
+    private static void writeBytes(final DataOutputStream out,
+                                   final byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a length-prefixed byte array.
+     *
+     * @param in The checkpoint input.
+     * @return The bytes.
+     * @throws IOException If reading fails.
+     */
+    private static byte[] readBytes(final DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Creates a SHA-256 digest.
+     *
+     * @return The digest.
+     * @throws IOException If SHA-256 is not available.
+     */
+    private static MessageDigest newDigest() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Computes the digest of an output file.
+     *
+     * @param outputFile The output file.
+     * @return The SHA-256 digest of its content.
+     * @throws IOException If the file cannot be read.
+     */
+    private static byte[] digest(final File outputFile) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(
+                Files.newInputStream(outputFile.toPath()), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Computes the digest of the prefix of an input: the decks of both players, all the
+     * games but the last one, the start of the last game and its first actions.
+     *
+     * @param inputData The input.
+     * @param actions   The number of actions of the last game to include.
+     * @return The SHA-256 digest.
+     * @throws IOException If the digest cannot be computed.
+     */
+    private static byte[] digest(final Input inputData,
+                                 final int actions) throws IOException {
+        MessageDigest digest = newDigest();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new DigestOutputStream(OutputStream.nullOutputStream(), digest)))) {
+            writeDecks(out, inputData.getPlayerOneDecks());
+            writeDecks(out, inputData.getPlayerTwoDecks());
+            List<GameInput> games = inputData.getGames();
+            out.writeInt(games.size());
+            for (int i = 0; i < games.size(); i++) {
+                List<ActionsInput> gameActions = games.get(i).getActions();
+                int count = i == games.size() - 1 ? actions : gameActions.size();
+                writeStart(out, games.get(i).getStartGame());
+                out.writeInt(count);
+                for (int j = 0; j < count; j++) {
+                    writeAction(out, gameActions.get(j));
+                }
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Writes the decks of a player to a digest.
+     *
+     * @param out   The digest output.
+     * @param decks The decks.
+     * @throws IOException If writing fails.
+     */
+    private static void writeDecks(final DataOutputStream out,
+                                   final DecksInput decks) throws IOException {
+        out.writeInt(decks.getDecks().size());
+        for (List<CardInput> deck : decks.getDecks()) {
+            out.writeInt(deck.size());
+            for (CardInput card : deck) {
+                writeCard(out, card);
+            }
+        }
+    }
+
+    /**
+     * Writes the start settings of a game to a digest.
+     *
+     * @param out       The digest output.
+     * @param startGame The start settings.
+     * @throws IOException If writing fails.
+     */
+    private static void writeStart(final DataOutputStream out,
+                                   final StartGameInput startGame) throws IOException {
+        out.writeInt(startGame.getPlayerOneDeckIdx());
+        out.writeInt(startGame.getPlayerTwoDeckIdx());
+        out.writeInt(startGame.getShuffleSeed());
+        out.writeInt(startGame.getStartingPlayer());
+        writeCard(out, startGame.getPlayerOneHero());
+        writeCard(out, startGame.getPlayerTwoHero());
+    }
+
+    /**
+     * Writes an action to a digest.
+     *
+     * @param out    The digest output.
+     * @param action The action.
+     * @throws IOException If writing fails.
+     */
+    private static void writeAction(final DataOutputStream out,
+                                    final ActionsInput action) throws IOException {
+        writeString(out, action.getCommand());
+        out.writeInt(action.getHandIdx());
+        out.writeInt(action.getAffectedRow());
+        out.writeInt(action.getPlayerIdx());
+        out.writeInt(action.getX());
+        out.writeInt(action.getY());
+        writeCoordinates(out, action.getCardAttacker());
+        writeCoordinates(out, action.getCardAttacked());
+        writeStrings(out, action.getFields());
+    }
+
+    /**
+     * Writes an input card to a digest.
+     *
+     * @param out  The digest output.
+     * @param card The card, possibly null.
+     * @throws IOException If writing fails.
+     */
+    private static void writeCard(final DataOutputStream out,
+                                  final CardInput card) throws IOException {
+        out.writeBoolean(card != null);
+        if (card == null) {
+            return;
+        }
+        out.writeInt(card.getMana());
+        out.writeInt(card.getHealth());
+        out.writeInt(card.getAttackDamage());
+        writeString(out, card.getName());
+        writeString(out, card.getDescription());
+        writeStrings(out, card.getColors());
+    }
+
+    /**
+     * Writes coordinates to a digest.
+     *
+     * @param out         The digest output.
+     * @param coordinates The coordinates, possibly null.
+     * @throws IOException If writing fails.
+     */
+    private static void writeCoordinates(final DataOutputStream out,
+                                         final Coordinates coordinates) throws IOException {
+        out.writeBoolean(coordinates != null);
+        if (coordinates != null) {
+            out.writeInt(coordinates.getX());
+            out.writeInt(coordinates.getY());
+        }
+    }
+
+    /**
+     * Writes a list of strings to a digest.
+     *
+     * @param out     The digest output.
+     * @param strings The strings, possibly null.
+     * @throws IOException If writing fails.
+     */
+    private static void writeStrings(final DataOutputStream out,
+                                     final List<String> strings) throws IOException {
+        out.writeInt(strings == null ? -1 : strings.size());
+        if (strings != null) {
+            for (String string : strings) {
+                writeString(out, string);
+            }
+        }
+    }
+
+    /**
+     * Writes a string to a digest.
+     *
+     * @param out   The digest output.
+     * @param value The string, possibly null.
+     * @throws IOException If writing fails.
+     */
+    private static void writeString(final DataOutputStream out,
+                                    final String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * A restored game, with the number of its actions that were already executed.
+     */
+    public static final class Checkpoint {
+        private final GameSession session;
+        private final int actions;
+
+        /**
+         * Creates a checkpoint.
+         *
+         * @param session The restored session of the last game.
+         * @param actions The number of its actions that were executed.
+         */
+        private Checkpoint(final GameSession session,
+                           final int actions) {
+            this.session = session;
+            this.actions = actions;
+        }
+
+        /**
+         * Gets the restored session of the last game.
+         *
+         * @return The session.
+         */
+        public GameSession getSession() {
+            return session;
+        }
+
+        /**
+         * Gets the number of actions of the last game that were executed.
+         *
+         * @return The index of the first action to execute.
+         */
+        public int getActions() {
+            return actions;
+        }
+    }
+}
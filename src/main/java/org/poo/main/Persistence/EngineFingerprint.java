@@ -0,0 +1,83 @@
+package org.poo.main.Persistence;
+
+import com.fasterxml.jackson.databind.cfg.PackageVersion;
+import org.poo.main.Main;
+import org.poo.main.Rules.CardRules;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Identifies the engine build: a SHA-256 hash of the compiled classes (the class files
+ * of the output directory, or the jar the engine was loaded from), of the card rules in
+ * use (built-in or given with {@code -Dgwent.rules}) and of the Jackson version. Any
+ * change to the code or rules that produce the outputs changes the fingerprint.
+ */
+public final class EngineFingerprint {
+    private static String fingerprint;
+    private static boolean computed;
+
+    private EngineFingerprint() {
+    }
+
+    /**
+     * Gets the fingerprint of the running engine, computed on the first call.
+     *
+     * @return The fingerprint as a hex string, or null if the classes of the engine
+     *         cannot be located.
+     */
+    public static synchronized String get() {
+        if (!computed) {
+            computed = true;
+            fingerprint = compute();
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Hashes the classes the engine was loaded from and the card rules.
+     *
+     * @return The fingerprint, or null if it cannot be computed.
+     */
+    private static String compute() {
+        try {
+            CodeSource codeSource = Main.class.getProtectionDomain().getCodeSource();
+            if (codeSource == null) {
+                return null;
+            }
+            Path location = Path.of(codeSource.getLocation().toURI());
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(PackageVersion.VERSION.toString().getBytes(StandardCharsets.UTF_8));
+            digest.update(CardRules.get().getDefinitions());
+            if (Files.isDirectory(location)) {
+                List<Path> classFiles;
+                try (Stream<Path> files = Files.walk(location)) {
+                    // Sorted, so the hash does not depend on the file system order
+                    classFiles = files.filter(file -> file.toString().endsWith(".class"))
+                            .sorted()
+                            .toList();
+                }
+                for (Path classFile : classFiles) {
+                    digest.update(location.relativize(classFile).toString()
+                            .getBytes(StandardCharsets.UTF_8));
+                    digest.update(Files.readAllBytes(classFile));
+                }
+            } else {
+                digest.update(Files.readAllBytes(location));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | URISyntaxException | NoSuchAlgorithmException
+                 | IllegalArgumentException | SecurityException e) {
+            return null;
+        }
+    }
+}
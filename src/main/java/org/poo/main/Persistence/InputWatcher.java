@@ -0,0 +1,136 @@
+package org.poo.main.Persistence;
+
+import org.poo.checker.CheckerConstants;
+import org.poo.main.Main;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watch mode: runs every input file of the tests directory, then keeps watching the
+ * directory and runs again only the input files that were created or changed. Outputs
+ * are written where {@link Main#main} writes them.
+ * <p>
+ * Combined with {@code -Dgwent.cache.dir}, an input file saved again without changes is
+ * restored from the {@link ResultCache} instead of being run.
+ * <p>
+ * Usage: {@code InputWatcher}, stopped with Ctrl+C.
+ */
+public final class InputWatcher {
+    // Editors write a file in several steps, so events are collected for a while
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    // Last modification time and size of every input file that was run
+    private final Map<String, Long> lastModified = new HashMap<>();
+    private final Map<String, Long> sizes = new HashMap<>();
+
+    private InputWatcher() {
+    }
+
+    /**
+     * Runs the watcher.
+     *
+     * @param args The command line arguments, unused.
+     * @throws IOException          If the directories cannot be read or created.
+     * @throws InterruptedException If the watcher is interrupted.
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        new InputWatcher().watch(Path.of(CheckerConstants.TESTS_PATH));
+    }
+
+    /**
+     * Runs all the input files of a directory, then the ones that change.
+     *
+     * @param directory The input directory.
+     * @throws IOException          If the directories cannot be read or created.
+     * @throws InterruptedException If the watcher is interrupted.
+     */
+    private void watch(final Path directory) throws IOException, InterruptedException {
+        Files.createDirectories(Path.of(CheckerConstants.RESULT_PATH));
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            // Registered first, so a file changed during the first run is not missed
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            TreeSet<String> names = new TreeSet<>();
+            for (File file : Objects.requireNonNull(directory.toFile().listFiles())) {
+                names.add(file.getName());
+            }
+            runChanged(directory, names);
+            System.out.println("Watching " + directory + " for changes");
+
+            while (true) {
+                WatchKey key = watchService.take();
+                TreeSet<String> changed = new TreeSet<>();
+                while (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.context() instanceof Path name) {
+                            changed.add(name.toString());
+                        }
+                    }
+                    if (!key.reset()) {
+                        System.err.println("Input directory is no longer accessible");
+                        return;
+                    }
+                    key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                runChanged(directory, changed);
+            }
+        } catch (ClosedWatchServiceException e) {
+            // The watcher was stopped
+        }
+    }
+
+    /**
+     * Runs the input files whose modification time or size changed since their last run.
+     *
+     * @param directory The input directory.
+     * @param names     The names of the input files to check.
+     */
+    private void runChanged(final Path directory,
+                            final Iterable<String> names) {
+        for (String name : names) {
+            Path input = directory.resolve(name);
+            long modified;
+            long size;
+            try {
+                if (!Files.isRegularFile(input)) {
+                    continue;
+                }
+                modified = Files.getLastModifiedTime(input).toMillis();
+                size = Files.size(input);
+            } catch (IOException e) {
+                // Deleted in the meantime
+                continue;
+            }
+            if (Objects.equals(lastModified.get(name), modified)
+                    && Objects.equals(sizes.get(name), size)) {
+                continue;
+            }
+            lastModified.put(name, modified);
+            sizes.put(name, size);
+
+            long start = System.nanoTime();
+            try {
+                Main.action(name, CheckerConstants.OUT_PATH + name);
+                System.out.printf("%s: done in %d ms%n", name,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (IOException | RuntimeException e) {
+                // A broken input file must not stop the watcher
+                System.err.println(name + ": " + e);
+            }
+        }
+    }
+}
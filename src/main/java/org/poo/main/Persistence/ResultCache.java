@@ -0,0 +1,212 @@
+package org.poo.main.Persistence;
+
+import org.poo.main.Encoding.OutputFormat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Content addressed cache of output files on the local disk. An output is stored under
+ * the SHA-256 hash of its input file, the {@link EngineFingerprint} and the output
+ * format, so it is reused as long as neither the input nor the engine build changed.
+ * <p>
+ * Enabled with {@code -Dgwent.cache.dir=<dir>}. The cache is bounded by
+ * {@code -Dgwent.cache.maxBytes} (512 MiB by default): once it grows past the bound, the
+ * least recently used outputs are deleted. Outputs are written to a temporary file and
+ * moved into place, so several processes can share the same directory.
+ */
+public final class ResultCache {
+    public static final String DIR_PROPERTY = "gwent.cache.dir";
+    public static final String MAX_BYTES_PROPERTY = "gwent.cache.maxBytes";
+    public static final long DEFAULT_MAX_BYTES = 512L * 1024 * 1024;
+    private static final String EXTENSION = ".out";
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final String fingerprint;
+
+    /**
+     * Creates a cache stored in a directory.
+     *
+     * @param directory   The cache directory.
+     * @param maxBytes    The maximum total size of the cached outputs.
+     * @param fingerprint The fingerprint of the engine build.
+     */
+    public ResultCache(final Path directory,
+                       final long maxBytes,
+                       final String fingerprint) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Creates the cache configured by the system properties.
+     *
+     * @return The cache, or null if it is not enabled or the engine build cannot be
+     *         fingerprinted.
+     */
+    public static ResultCache fromSystemProperties() {
+        String dir = System.getProperty(DIR_PROPERTY);
+        if (dir == null) {
+            return null;
+        }
+        String fingerprint = EngineFingerprint.get();
+        if (fingerprint == null) {
+            // Without a fingerprint an output could outlive the engine that produced it
+            return null;
+        }
+        return new ResultCache(Path.of(dir), Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES),
+                fingerprint);
+    }
+
+    /**
+     * Computes the key of an input file for the given output format.
+     *
+     * @param inputFile The input file.
+     * @param format    The format the output is written in.
+     * @return The key.
+     * @throws IOException If the input file cannot be read.
+     */
+    public String key(final File inputFile,
+                      final OutputFormat format) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        try (InputStream in = Files.newInputStream(inputFile.toPath())) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        digest.update(fingerprint.getBytes(StandardCharsets.UTF_8));
+        digest.update(format.name().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Copies a cached output to the output file.
+     *
+     * @param key        The key of the input.
+     * @param outputFile The output file to write.
+     * @return True if the output was cached, false if the input has to be run.
+     * @throws IOException If the output cannot be copied.
+     */
+    public boolean restore(final String key,
+                           final File outputFile) throws IOException {
+        Path cached = directory.resolve(key + EXTENSION);
+        if (!Files.isRegularFile(cached)) {
+            return false;
+        }
+        Files.copy(cached, outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        // Marks the output as recently used for the eviction
+        Files.setLastModifiedTime(cached, FileTime.fromMillis(System.currentTimeMillis()));
+        return true;
+    }
+
+    /**
+     * Stores an output file, then evicts the least recently used outputs if the cache
+     * is over its size bound.
+     *
+     * @param key        The key of the input.
+     * @param outputFile The output file that was written.
+     * @throws IOException If the output cannot be stored.
+     */
+    public void store(final String key,
+                      final File outputFile) throws IOException {
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, key, ".tmp");
+        try {
+            Files.copy(outputFile.toPath(), temporary, StandardCopyOption.REPLACE_EXISTING);
+            Path cached = directory.resolve(key + EXTENSION);
+            try {
+                Files.move(temporary, cached, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, cached, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        evict();
+    }
+
+    /**
+     * Deletes the least recently used outputs until the cache fits in its size bound.
+     *
+     * @throws IOException If the cache directory cannot be listed.
+     */
+    private void evict() throws IOException {
+        List<CachedFile> files = new ArrayList<>();
+        long totalBytes = 0;
+        try (Stream<Path> entries = Files.list(directory)) {
+            for (Path entry : (Iterable<Path>) entries::iterator) {
+                if (!entry.getFileName().toString().endsWith(EXTENSION)) {
+                    continue;
+                }
+                try {
+                    CachedFile file = new CachedFile(entry, Files.size(entry),
+                            Files.getLastModifiedTime(entry).toMillis());
+                    files.add(file);
+                    totalBytes += file.size;
+                } catch (IOException e) {
+                    // Deleted by another process in the meantime
+                }
+            }
+        }
+        if (totalBytes <= maxBytes) {
+            return;
+        }
+        files.sort(Comparator.comparingLong(file -> file.lastUsed));
+        for (CachedFile file : files) {
+            if (totalBytes <= maxBytes) {
+                break;
+            }
+            if (Files.deleteIfExists(file.path)) {
+                totalBytes -= file.size;
+            }
+        }
+    }
+
+    /**
+     * A cached output with its size and last use time.
+     */
+    private static final class CachedFile {
+        private final Path path;
+        private final long size;
+        private final long lastUsed;
+
+        /**
+         * Creates the description of a cached output.
+         *
+         * @param path     The path of the output.
+         * @param size     Its size in bytes.
+         * @param lastUsed Its last use time, in milliseconds.
+         */
+        private CachedFile(final Path path,
+                           final long size,
+                           final long lastUsed) {
+            this.path = path;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package org.poo.main.Persistence;
+
+import org.poo.fileio.CardInput;
+import org.poo.fileio.StartGameInput;
+import org.poo.main.CardHandler.Deck;
+import org.poo.main.CardHandler.Environment;
+import org.poo.main.CardHandler.Hero;
+import org.poo.main.CardHandler.Minion;
+import org.poo.main.CardHandler.MinionRow;
+import org.poo.main.CardHandler.PlayerDeck;
+import org.poo.main.CardHandler.PlayerHand;
+import org.poo.main.GameSession;
+import org.poo.main.Utils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+
+/**
+ * Binary encoding of the state of a game session: the {@link Utils} fields, the
+ * remaining decks, the hands, the playing table and the heroes, with the current health,
+ * frozen and attack used flags of every card.
+ */
+final class SessionCodec {
+    // Card type tags
+    private static final int MINION = 0;
+    private static final int ENVIRONMENT = 1;
+    private static final int HERO = 2;
+
+    private SessionCodec() {
+    }
+
+    /**
+     * Writes the state of a session.
+     *
+     * @param out     The output to write to.
+     * @param session The session.
+     * @throws IOException If writing fails.
+     */
+    static void write(final DataOutput out,
+                      final GameSession session) throws IOException {
+        Utils utils = session.getUtils();
+        out.writeInt(utils.getPlayerOneMana());
+        out.writeInt(utils.getPlayerTwoMana());
+        out.writeInt(utils.getTurn());
+        out.writeInt(utils.getPlayerOneWins());
+        out.writeInt(utils.getPlayerTwoWins());
+        out.writeInt(utils.getNumberOfRounds());
+        for (int playerIdx = 1; playerIdx <= 2; playerIdx++) {
+            writeCards(out, session.getPlayerDeck(playerIdx));
+            writeCards(out, session.getPlayerHand(playerIdx));
+        }
+        out.writeInt(session.getPlayingTable().size());
+        for (LinkedList<Minion> row : session.getPlayingTable()) {
+            writeCards(out, row);
+        }
+        writeCard(out, session.getPlayerHero(1));
+        writeCard(out, session.getPlayerHero(2));
+    }
+
+    /**
+     * Reads the state of a session written by {@link #write}.
+     *
+     * @param in        The input to read from.
+     * @param newGame   The settings of the game.
+     * @param gameIndex The index of the game.
+     * @return The restored session.
+     * @throws IOException If reading fails or the state is malformed.
+     */
+    static GameSession read(final DataInput in,
+                            final StartGameInput newGame,
+                            final int gameIndex) throws IOException {
+        Utils utils = new Utils();
+        utils.setPlayerOneMana(in.readInt());
+        utils.setPlayerTwoMana(in.readInt());
+        utils.setTurn(in.readInt());
+        utils.setPlayerOneWins(in.readInt());
+        utils.setPlayerTwoWins(in.readInt());
+        utils.setNumberOfRounds(in.readInt());
+        PlayerDeck[] decks = new PlayerDeck[2];
+        PlayerHand[] hands = new PlayerHand[2];
+        for (int i = 0; i < 2; i++) {
+            decks[i] = new PlayerDeck(readCards(in));
+            ArrayList<Deck> handCards = readCards(in);
+            hands[i] = new PlayerHand(handCards.size() + decks[i].size());
+            for (Deck card : handCards) {
+                hands[i].add(card);
+            }
+        }
+        int rows = in.readInt();
+        ArrayList<LinkedList<Minion>> playingTable = new ArrayList<>(GameSession.INITIAL_CAPACITY);
+        for (int i = 0; i < rows; i++) {
+            LinkedList<Minion> row = new MinionRow();
+            for (Deck card : readCards(in)) {
+                if (!(card instanceof Minion minion)) {
+                    throw new IOException("Only minions can be on the table");
+                }
+                row.addLast(minion);
+            }
+            playingTable.add(row);
+        }
+        Hero[] heroes = new Hero[2];
+        for (int i = 0; i < 2; i++) {
+            if (!(readCard(in) instanceof Hero hero)) {
+                throw new IOException("Expected a hero");
+            }
+            heroes[i] = hero;
+        }
+        return new GameSession(newGame, gameIndex, utils, decks, hands, playingTable, heroes);
+    }
+
+    /**
+     * Writes a list of cards.
+     *
+     * @param out   The output to write to.
+     * @param cards The cards.
+     * @throws IOException If writing fails.
+     */
+    private static void writeCards(final DataOutput out,
+                                   final Iterable<? extends Deck> cards) throws IOException {
+        int size = 0;
+        for (Deck ignored : cards) {
+            size++;
+        }
+        out.writeInt(size);
+        for (Deck card : cards) {
+            writeCard(out, card);
+        }
+    }
+
+    /**
+     * Reads a list of cards written by {@link #writeCards}.
+     *
+     * @param in The input to read from.
+     * @return The cards.
+     * @throws IOException If reading fails.
+     */
+    private static ArrayList<Deck> readCards(final DataInput in) throws IOException {
+        int size = in.readInt();
+        ArrayList<Deck> cards = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            cards.add(readCard(in));
+        }
+        return cards;
+    }
+
+    /**
+     * Writes a card in its current state.
+     *
+     * @param out  The output to write to.
+     * @param card The card.
+     * @throws IOException If writing fails.
+     */
+    private static void writeCard(final DataOutput out,
+                                  final Deck card) throws IOException {
+        if (card instanceof Minion minion) {
+            out.writeByte(MINION);
+            out.writeInt(minion.getHealth());
+            out.writeInt(minion.getAttackDamage());
+        } else if (card instanceof Hero hero) {
+            out.writeByte(HERO);
+            out.writeInt(hero.getHealth());
+            out.writeInt(0);
+        } else {
+            out.writeByte(ENVIRONMENT);
+            out.writeInt(0);
+            out.writeInt(0);
+        }
+        out.writeInt(card.getMana());
+        writeString(out, card.getDescription());
+        writeString(out, card.getName());
+        out.writeInt(card.getColors().size());
+        for (String color : card.getColors()) {
+            writeString(out, color);
+        }
+        out.writeInt(card.getIsFrozen());
+        out.writeInt(card.getAttackUsed());
+    }
+
+    /**
+     * Reads a card written by {@link #writeCard}.
+     *
+     * @param in The input to read from.
+     * @return The card, of its original type and in its saved state.
+     * @throws IOException If reading fails or the card type is unknown.
+     */
+    private static Deck readCard(final DataInput in) throws IOException {
+        int type = in.readByte();
+        CardInput cardInput = new CardInput();
+        cardInput.setHealth(in.readInt());
+        cardInput.setAttackDamage(in.readInt());
+        cardInput.setMana(in.readInt());
+        cardInput.setDescription(readString(in));
+        cardInput.setName(readString(in));
+        int colorCount = in.readInt();
+        ArrayList<String> colors = new ArrayList<>(colorCount);
+        for (int i = 0; i < colorCount; i++) {
+            colors.add(readString(in));
+        }
+        cardInput.setColors(colors);
+
+        Deck card = switch (type) {
+            case MINION -> new Minion(cardInput);
+            case ENVIRONMENT -> new Environment(cardInput);
+            case HERO -> {
+                Hero hero = new Hero(cardInput);
+                // A new hero starts with full health
+                hero.setHealth(cardInput.getHealth());
+                yield hero;
+            }
+            default -> throw new IOException("Unknown card type " + type);
+        };
+        card.setIsFrozen(in.readInt());
+        card.setAttackUsed(in.readInt());
+        return card;
+    }
+
+    /**
+     * Writes a string that may be null.
+     *
+     * @param out   The output to write to.
+     * @param value The string.
+     * @throws IOException If writing fails.
+     */
+    private static void writeString(final DataOutput out,
+                                    final String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeString}.
+     *
+     * @param in The input to read from.
+     * @return The string, possibly null.
+     * @throws IOException If reading fails.
+     */
+    private static String readString(final DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
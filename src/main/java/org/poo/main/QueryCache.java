@@ -0,0 +1,114 @@
+package org.poo.main;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.poo.fileio.ActionsInput;
+import org.poo.main.Instrumentation.GameMetrics;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Caches the output nodes of read-only commands for one version of a game state.
+ * Identical queries executed while the version is unchanged reuse the same node
+ * instead of copying and building it again. Hits and misses are counted in
+ * {@link GameMetrics}.
+ */
+public final class QueryCache {
+    // Commands whose output only depends on the game state and their own arguments
+    public static final Set<String> CACHEABLE_COMMANDS = Set.of("getCardsInHand",
+            "getPlayerDeck", "getCardsOnTable", "getPlayerTurn", "getPlayerHero",
+            "getCardAtPosition", "getPlayerMana", "getEnvironmentCardsInHand",
+            "getFrozenCardsOnTable", "getTotalGamesPlayed", "getPlayerOneWins",
+            "getPlayerTwoWins", "getGameSnapshot");
+
+    // A version only sees a handful of distinct queries, so they are scanned in order
+    private static final int MAX_ENTRIES = 32;
+
+    private final ArrayList<ActionsInput> queries = new ArrayList<>();
+    private final ArrayList<JsonNode> nodes = new ArrayList<>();
+    private long version = -1;
+
+    /**
+     * Tells whether the output of a command can be cached.
+     *
+     * @param command The command.
+     * @return True if the command is a read-only query.
+     */
+    public static boolean isCacheable(final ActionsInput command) {
+        return CACHEABLE_COMMANDS.contains(command.getCommand());
+    }
+
+    /**
+     * Gets the cached output node of a query.
+     *
+     * @param stateVersion The current version of the game state.
+     * @param command      The query.
+     * @return The cached output node, or null if the query was not cached for this version.
+     */
+    public JsonNode get(final long stateVersion,
+                        final ActionsInput command) {
+        if (stateVersion != version) {
+            // The state changed since the nodes were built
+            clear(stateVersion);
+            GameMetrics.recordQueryCacheLookup(false);
+            return null;
+        }
+        for (int i = 0; i < queries.size(); i++) {
+            if (sameQuery(queries.get(i), command)) {
+                GameMetrics.recordQueryCacheLookup(true);
+                return nodes.get(i);
+            }
+        }
+        GameMetrics.recordQueryCacheLookup(false);
+        return null;
+    }
+
+    /**
+     * Caches the output node of a query for the given state version.
+     *
+     * @param stateVersion The version of the game state the node was built from.
+     * @param command      The query.
+     * @param node         The output node.
+     */
+    public void put(final long stateVersion,
+                    final ActionsInput command,
+                    final JsonNode node) {
+        if (stateVersion != version) {
+            clear(stateVersion);
+        }
+        if (queries.size() < MAX_ENTRIES) {
+            queries.add(command);
+            nodes.add(node);
+        }
+    }
+
+    /**
+     * Drops the nodes of the previous state version.
+     *
+     * @param stateVersion The new state version.
+     */
+    private void clear(final long stateVersion) {
+        queries.clear();
+        nodes.clear();
+        version = stateVersion;
+    }
+
+    /**
+     * Tells whether two queries have the same output: same command and same arguments
+     * among those the outputs depend on. Compared field by field, so a lookup builds
+     * no key.
+     *
+     * @param cached  A cached query.
+     * @param command The query being executed.
+     * @return True if the output of the cached query can be reused.
+     */
+    private static boolean sameQuery(final ActionsInput cached,
+                                     final ActionsInput command) {
+        return cached.getPlayerIdx() == command.getPlayerIdx()
+                && cached.getX() == command.getX()
+                && cached.getY() == command.getY()
+                && cached.getCommand().equals(command.getCommand())
+                && Objects.equals(cached.getFields(), command.getFields());
+    }
+}
@@ -0,0 +1,180 @@
+package org.poo.main;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+import org.poo.main.GameHandler.ErrorOutput;
+import org.poo.main.GameHandler.Statistics;
+import org.poo.main.Instrumentation.GameMetrics;
+
+import java.util.List;
+
+/**
+ * The output of a played game, ready to be emitted again as the output of an identical
+ * game at any position of the input file.
+ * <p>
+ * A game does not depend on the previous games, except for the statistics queries:
+ * {@code getTotalGamesPlayed} depends on the index of the game and the win queries on
+ * the wins of the previous games. These entries are rebuilt on every emission, and the
+ * wins of the game are added to the counters.
+ */
+final class RecordedGame {
+    // How an output entry is emitted
+    private static final byte PLAIN = 0;
+    private static final byte PLAYER_ONE_WON = 1;
+    private static final byte PLAYER_TWO_WON = 2;
+    private static final byte TOTAL_GAMES_PLAYED = 3;
+    private static final byte PLAYER_ONE_WINS = 4;
+    private static final byte PLAYER_TWO_WINS = 5;
+
+    private final int gameIndex;
+    private final JsonNode[] entries;
+    private final byte[] kinds;
+    private final int actions;
+
+    /**
+     * Records the output entries of a game.
+     *
+     * @param gameIndex The index of the game that was played.
+     * @param entries   The output entries of the game, in order.
+     * @param actions   The number of actions of the game.
+     */
+    RecordedGame(final int gameIndex,
+                 final List<JsonNode> entries,
+                 final int actions) {
+        this(gameIndex, entries.toArray(new JsonNode[0]), classify(entries), actions);
+    }
+
+    /**
+     * Records the output entries of a game that were already classified.
+     *
+     * @param gameIndex The index of the game that was played.
+     * @param entries   The output entries of the game, in order.
+     * @param kinds     The kinds of the entries, see {@link #classify(JsonNode)}.
+     * @param actions   The number of actions of the game.
+     */
+    RecordedGame(final int gameIndex,
+                 final JsonNode[] entries,
+                 final byte[] kinds,
+                 final int actions) {
+        this.gameIndex = gameIndex;
+        this.entries = entries;
+        this.kinds = kinds;
+        this.actions = actions;
+    }
+
+    /**
+     * Finds out how output entries are emitted.
+     *
+     * @param entries The output entries.
+     * @return The kinds of the entries.
+     */
+    static byte[] classify(final List<JsonNode> entries) {
+        byte[] kinds = new byte[entries.size()];
+        for (int i = 0; i < kinds.length; i++) {
+            kinds[i] = classify(entries.get(i));
+        }
+        return kinds;
+    }
+
+    /**
+     * Gets the index of the game that was played.
+     *
+     * @return The game index.
+     */
+    int getGameIndex() {
+        return gameIndex;
+    }
+
+    /**
+     * Adds the output of the game as the output of the game at the given index.
+     *
+     * @param output        The output ArrayNode.
+     * @param atGameIndex   The index of the game being emitted.
+     * @param utils         The utility object holding the win counters, which are updated.
+     * @param recordMetrics Whether the actions, wins and errors are counted in the
+     *                      metrics, as they are when a game is played.
+     */
+    void emit(final ArrayNode output,
+              final int atGameIndex,
+              final Utils utils,
+              final boolean recordMetrics) {
+        int playerOneWins = utils.getPlayerOneWins();
+        int playerTwoWins = utils.getPlayerTwoWins();
+        for (int i = 0; i < entries.length; i++) {
+            JsonNode entry = entries[i];
+            switch (kinds[i]) {
+                case TOTAL_GAMES_PLAYED -> Statistics.getTotalGamesPlayed(output, atGameIndex);
+                case PLAYER_ONE_WINS -> Statistics.getPlayerOneWins(output, playerOneWins);
+                case PLAYER_TWO_WINS -> Statistics.getPlayerTwoWins(output, playerTwoWins);
+                case PLAYER_ONE_WON, PLAYER_TWO_WON -> {
+                    int winner = kinds[i] == PLAYER_ONE_WON ? 1 : 2;
+                    if (winner == 1) {
+                        playerOneWins++;
+                    } else {
+                        playerTwoWins++;
+                    }
+                    if (recordMetrics) {
+                        GameMetrics.recordWin(winner);
+                    }
+                    output.add(entry);
+                }
+                default -> {
+                    if (recordMetrics && GameMetrics.ENABLED && Utils.isErrorOutput(entry)) {
+                        recordError(entry);
+                    }
+                    output.add(entry);
+                }
+            }
+        }
+        utils.setPlayerOneWins(playerOneWins);
+        utils.setPlayerTwoWins(playerTwoWins);
+        if (recordMetrics) {
+            for (int i = 0; i < actions; i++) {
+                GameMetrics.recordAction();
+            }
+        }
+    }
+
+    /**
+     * Finds out how an output entry is emitted.
+     *
+     * @param entry The output entry.
+     * @return The kind of the entry.
+     */
+    static byte classify(final JsonNode entry) {
+        if (entry instanceof POJONode pojoNode && pojoNode.getPojo() instanceof ErrorOutput) {
+            return PLAIN;
+        }
+        JsonNode node = Utils.getOutputNode(entry);
+        JsonNode gameEnded = node.get("gameEnded");
+        if (gameEnded != null) {
+            return gameEnded.asText().startsWith("Player one") ? PLAYER_ONE_WON : PLAYER_TWO_WON;
+        }
+        if (node.has("error")) {
+            return PLAIN;
+        }
+        return switch (node.path("command").asText()) {
+            case "getTotalGamesPlayed" -> TOTAL_GAMES_PLAYED;
+            case "getPlayerOneWins" -> PLAYER_ONE_WINS;
+            case "getPlayerTwoWins" -> PLAYER_TWO_WINS;
+            default -> PLAIN;
+        };
+    }
+
+    /**
+     * Counts an emitted error in the metrics, as the ErrorHandler did when it was played.
+     *
+     * @param entry The error entry.
+     */
+    private static void recordError(final JsonNode entry) {
+        if (entry instanceof POJONode pojoNode
+                && pojoNode.getPojo() instanceof ErrorOutput errorOutput) {
+            GameMetrics.recordError(errorOutput.getTemplate().getCommand(),
+                    errorOutput.getTemplate().getError());
+            return;
+        }
+        JsonNode node = Utils.getOutputNode(entry);
+        GameMetrics.recordError(node.path("command").asText(), node.path("error").asText());
+    }
+}
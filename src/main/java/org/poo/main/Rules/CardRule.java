@@ -0,0 +1,124 @@
+package org.poo.main.Rules;
+
+/**
+ * The compiled rules of a card: its kind, where it is placed, whether it is a tank, and
+ * its ability or effect as pre-built effect objects. Every card holds its rule from the
+ * moment it is created, so the handlers dispatch on it without looking anything up.
+ */
+public final class CardRule {
+    /**
+     * The kinds of cards.
+     */
+    public enum Kind {
+        MINION,
+        ENVIRONMENT,
+        HERO,
+        // A name without a definition; such cards are left out of the decks
+        UNKNOWN
+    }
+
+    static final CardRule UNKNOWN = new CardRule(Kind.UNKNOWN, false, false, null, null, null);
+
+    private final Kind kind;
+    private final boolean frontRow;
+    private final boolean tank;
+    private final Target target;
+    private final TargetEffect targetEffect;
+    private final RowEffect rowEffect;
+
+    /**
+     * Creates the rules of a card.
+     *
+     * @param kind         The kind of card.
+     * @param frontRow     Whether a minion is placed on the front row.
+     * @param tank         Whether a minion must be attacked before the others.
+     * @param target       The side the ability or effect is used on, null if none.
+     * @param targetEffect The ability of a minion, null if it has none.
+     * @param rowEffect    The effect of an environment card or hero ability, null if none.
+     */
+    CardRule(final Kind kind,
+             final boolean frontRow,
+             final boolean tank,
+             final Target target,
+             final TargetEffect targetEffect,
+             final RowEffect rowEffect) {
+        this.kind = kind;
+        this.frontRow = frontRow;
+        this.tank = tank;
+        this.target = target;
+        this.targetEffect = targetEffect;
+        this.rowEffect = rowEffect;
+    }
+
+    /**
+     * Gets the kind of card.
+     *
+     * @return The kind.
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Tells whether the card is a minion.
+     *
+     * @return True for minions.
+     */
+    public boolean isMinion() {
+        return kind == Kind.MINION;
+    }
+
+    /**
+     * Tells whether the card is an environment card.
+     *
+     * @return True for environment cards.
+     */
+    public boolean isEnvironment() {
+        return kind == Kind.ENVIRONMENT;
+    }
+
+    /**
+     * Tells whether a minion is placed on the front row of its player.
+     *
+     * @return True for the front row, false for the back row.
+     */
+    public boolean isFrontRow() {
+        return frontRow;
+    }
+
+    /**
+     * Tells whether a minion is a tank, which must be attacked before the other minions.
+     *
+     * @return True for tanks.
+     */
+    public boolean isTank() {
+        return tank;
+    }
+
+    /**
+     * Gets the side the ability or effect of the card is used on.
+     *
+     * @return The target, null if the card has no ability.
+     */
+    public Target getTarget() {
+        return target;
+    }
+
+    /**
+     * Gets the ability of a minion.
+     *
+     * @return The effect on the targeted minion, null if the minion has no ability.
+     */
+    public TargetEffect getTargetEffect() {
+        return targetEffect;
+    }
+
+    /**
+     * Gets the effect of an environment card or of a hero ability.
+     *
+     * @return The effect on the affected row, null if the card has none.
+     */
+    public RowEffect getRowEffect() {
+        return rowEffect;
+    }
+}
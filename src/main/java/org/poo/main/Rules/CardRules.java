@@ -0,0 +1,212 @@
+package org.poo.main.Rules;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.poo.main.EngineContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * The catalog of card and hero rules, compiled from declarative definitions when it is
+ * first used. The definitions of the game are built into the engine
+ * ({@link DefaultCardRules}); the file given with {@code -Dgwent.rules=<file>} replaces
+ * them, so cards can be added or changed without touching the handlers.
+ * <p>
+ * A definition file has three sections, keyed by card name:
+ * <ul>
+ *     <li>{@code minions}: {@code row} ("front" or "back"), {@code tank}, and an optional
+ *     {@code ability} with its {@code target} ("enemy" or "ally") and {@code effects};</li>
+ *     <li>{@code environments}: the {@code effects} on the affected enemy row;</li>
+ *     <li>{@code heroes}: the {@code target} row side and the {@code effects} of the
+ *     hero ability.</li>
+ * </ul>
+ * Effects are lists of primitives ({@code {"type": "damageRow", "amount": 1}}), see
+ * {@link RowEffects} and {@link TargetEffects}. The stats of the cards (mana, health,
+ * attack damage) come from the decks of the input files.
+ */
+public final class CardRules {
+    public static final String RULES_PROPERTY = "gwent.rules";
+
+    private final Map<String, CardRule> rules;
+    private final byte[] definitions;
+
+    /**
+     * Creates a catalog from compiled rules.
+     *
+     * @param rules       The rules, by card name.
+     * @param definitions The definitions they were compiled from.
+     */
+    private CardRules(final Map<String, CardRule> rules,
+                      final byte[] definitions) {
+        this.rules = rules;
+        this.definitions = definitions;
+    }
+
+    /**
+     * Gets the catalog used by the engine, compiling it on the first call.
+     *
+     * @return The catalog.
+     * @throws IllegalStateException If the definitions cannot be read or are invalid.
+     */
+    public static CardRules get() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * Gets the rules of a card. Only called when a card is created from its input.
+     *
+     * @param name The name of the card.
+     * @return The rules of the card, of kind UNKNOWN if it has no definition.
+     */
+    public CardRule forName(final String name) {
+        return rules.getOrDefault(name, CardRule.UNKNOWN);
+    }
+
+    /**
+     * Gets the definitions the catalog was compiled from. They are part of the
+     * {@code EngineFingerprint}, as they change the outputs as much as the code does.
+     *
+     * @return A copy of the definitions, as UTF-8 JSON.
+     */
+    public byte[] getDefinitions() {
+        return definitions.clone();
+    }
+
+    /**
+     * Compiles card definitions.
+     *
+     * @param definitions The root node of a definition file.
+     * @return The catalog.
+     * @throws IllegalArgumentException If a definition is invalid.
+     */
+    public static CardRules compile(final JsonNode definitions) {
+        return new CardRules(compileRules(definitions),
+                definitions.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compiles the rules of every card of a definition file.
+     *
+     * @param definitions The root node of a definition file.
+     * @return The rules, by card name.
+     * @throws IllegalArgumentException If a definition is invalid.
+     */
+    private static Map<String, CardRule> compileRules(final JsonNode definitions) {
+        Map<String, CardRule> rules = new HashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = definitions.path("minions").fields();
+             it.hasNext();) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            rules.put(entry.getKey(), compileMinion(entry.getKey(), entry.getValue()));
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> it =
+                definitions.path("environments").fields(); it.hasNext();) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            RowEffect effect = RowEffects.compile(requireEffects(entry.getKey(),
+                    entry.getValue()));
+            rules.put(entry.getKey(), new CardRule(CardRule.Kind.ENVIRONMENT, false, false,
+                    Target.ENEMY, null, effect));
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> it = definitions.path("heroes").fields();
+             it.hasNext();) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            RowEffect effect = RowEffects.compile(requireEffects(entry.getKey(),
+                    entry.getValue()));
+            rules.put(entry.getKey(), new CardRule(CardRule.Kind.HERO, false, false,
+                    Target.parse(entry.getValue().path("target").asText()), null, effect));
+        }
+        return rules;
+    }
+
+    /**
+     * Compiles the definition of a minion.
+     *
+     * @param name       The name of the minion.
+     * @param definition Its definition.
+     * @return The rules of the minion.
+     * @throws IllegalArgumentException If the definition is invalid.
+     */
+    private static CardRule compileMinion(final String name,
+                                          final JsonNode definition) {
+        String row = definition.path("row").asText();
+        if (!row.equals("front") && !row.equals("back")) {
+            throw new IllegalArgumentException(name + ": row must be \"front\" or \"back\"");
+        }
+        JsonNode ability = definition.get("ability");
+        Target target = null;
+        TargetEffect effect = null;
+        if (ability != null) {
+            target = Target.parse(ability.path("target").asText());
+            effect = TargetEffects.compile(requireEffects(name, ability));
+        }
+        return new CardRule(CardRule.Kind.MINION, row.equals("front"),
+                definition.path("tank").asBoolean(false), target, effect, null);
+    }
+
+    /**
+     * Gets the non-empty {@code effects} array of a definition.
+     *
+     * @param name       The name of the card.
+     * @param definition The definition holding the effects.
+     * @return The effects.
+     * @throws IllegalArgumentException If there are no effects.
+     */
+    private static JsonNode requireEffects(final String name,
+                                           final JsonNode definition) {
+        JsonNode effects = definition.path("effects");
+        if (!effects.isArray() || effects.isEmpty()) {
+            throw new IllegalArgumentException(name + ": effects are missing");
+        }
+        return effects;
+    }
+
+    /**
+     * Gets an integer parameter of an effect.
+     *
+     * @param effect The effect definition.
+     * @param field  The name of the parameter.
+     * @return The value.
+     * @throws IllegalArgumentException If the parameter is missing.
+     */
+    static int requireInt(final JsonNode effect,
+                          final String field) {
+        JsonNode value = effect.get(field);
+        if (value == null || !value.canConvertToInt()) {
+            throw new IllegalArgumentException(effect.path("type").asText()
+                    + ": integer \"" + field + "\" is missing");
+        }
+        return value.asInt();
+    }
+
+    /**
+     * Reads and compiles the definitions of the file selected by the system property, or
+     * the built-in ones.
+     *
+     * @return The catalog.
+     */
+    private static CardRules load() {
+        String file = System.getProperty(RULES_PROPERTY);
+        try {
+            byte[] definitions = file != null ? Files.readAllBytes(Path.of(file))
+                    : DefaultCardRules.DEFINITIONS.getBytes(StandardCharsets.UTF_8);
+            return new CardRules(compileRules(EngineContext.get().getObjectMapper()
+                    .readTree(definitions)), definitions);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid card rules: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compiles the shared catalog when it is first used.
+     */
+    private static final class Holder {
+        private static final CardRules SHARED = load();
+    }
+}
@@ -0,0 +1,73 @@
+package org.poo.main.Rules;
+
+/**
+ * The definitions of the cards and heroes of the game, in the format read by
+ * {@link CardRules}. They are compiled into the engine, so it runs from its classes
+ * alone; {@code -Dgwent.rules=<file>} replaces them.
+ */
+final class DefaultCardRules {
+    static final String DEFINITIONS = """
+            {
+              "minions": {
+                "Sentinel": { "row": "back" },
+                "Berserker": { "row": "back" },
+                "Goliath": { "row": "front", "tank": true },
+                "Warden": { "row": "front", "tank": true },
+                "The Ripper": {
+                  "row": "front",
+                  "ability": {
+                    "target": "enemy",
+                    "effects": [{ "type": "addAttack", "amount": -2 }]
+                  }
+                },
+                "Miraj": {
+                  "row": "front",
+                  "ability": {
+                    "target": "enemy",
+                    "effects": [{ "type": "swapHealthWithTarget" }]
+                  }
+                },
+                "The Cursed One": {
+                  "row": "back",
+                  "ability": {
+                    "target": "enemy",
+                    "effects": [{ "type": "swapTargetHealthAndAttack" }]
+                  }
+                },
+                "Disciple": {
+                  "row": "back",
+                  "ability": {
+                    "target": "ally",
+                    "effects": [{ "type": "addHealth", "amount": 2 }]
+                  }
+                }
+              },
+              "environments": {
+                "Firestorm": { "effects": [{ "type": "damageRow", "amount": 1 }] },
+                "Winterfell": { "effects": [{ "type": "freezeRow" }] },
+                "Heart Hound": { "effects": [{ "type": "stealHighestHealth" }] }
+              },
+              "heroes": {
+                "Lord Royce": {
+                  "target": "enemy",
+                  "effects": [{ "type": "freezeRow" }]
+                },
+                "Empress Thorina": {
+                  "target": "enemy",
+                  "effects": [{ "type": "destroyHighestHealth" }]
+                },
+                "General Kocioraw": {
+                  "target": "ally",
+                  "effects": [{ "type": "addRowAttack", "amount": 1 }]
+                },
+                "King Mudface": {
+                  "target": "ally",
+                  "effects": [{ "type": "addRowHealth", "amount": 1 }]
+                }
+              }
+            }
+            """;
+
+    private DefaultCardRules() {
+    }
+}
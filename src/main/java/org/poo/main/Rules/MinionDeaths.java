@@ -0,0 +1,117 @@
+package org.poo.main.Rules;
+
+import org.poo.main.CardHandler.Minion;
+import org.poo.main.Instrumentation.MinionDeathEvent;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The single place where minions die. Deaths are marked as a bit mask of the columns of
+ * a row, and the row is compacted in one stable pass that keeps the survivors in their
+ * left to right order. Every compaction that removed minions fires a single
+ * "minions died" notification: a {@link MinionDeathEvent} and, on the current thread,
+ * the {@link Listener} installed by the session executing the command.
+ */
+public final class MinionDeaths {
+    private static final ThreadLocal<Listener> LISTENER = new ThreadLocal<>();
+
+    private MinionDeaths() {
+    }
+
+    /**
+     * Observes the minions that died.
+     */
+    public interface Listener {
+        /**
+         * Called once per compaction that removed minions.
+         *
+         * @param row     The row the minions were removed from.
+         * @param minions The dead minions, in their left to right order.
+         */
+        void minionsDied(int row, List<Minion> minions);
+    }
+
+    /**
+     * Sets the listener notified on the current thread.
+     *
+     * @param listener The listener, or null to stop notifying.
+     * @return The listener that was set before.
+     */
+    public static Listener setListener(final Listener listener) {
+        Listener previous = LISTENER.get();
+        if (listener == null) {
+            LISTENER.remove();
+        } else {
+            LISTENER.set(listener);
+        }
+        return previous;
+    }
+
+    /**
+     * Marks the minion of a column as dead.
+     *
+     * @param deaths The deaths marked so far.
+     * @param column The column of the dead minion.
+     * @return The marked deaths.
+     */
+    public static long mark(final long deaths,
+                            final int column) {
+        return deaths | 1L << Objects.checkIndex(column, Long.SIZE);
+    }
+
+    /**
+     * Removes a single dead minion from a row.
+     *
+     * @param row      The minions of the row.
+     * @param rowIndex The index of the row.
+     * @param column   The column of the dead minion.
+     */
+    public static void kill(final LinkedList<Minion> row,
+                            final int rowIndex,
+                            final int column) {
+        compact(row, rowIndex, mark(0, column));
+    }
+
+    /**
+     * Removes the marked minions from a row in a single pass, keeping the order of the
+     * survivors, and notifies their death.
+     *
+     * @param row      The minions of the row.
+     * @param rowIndex The index of the row.
+     * @param deaths   The columns of the dead minions, see {@link #mark(long, int)}.
+     */
+    public static void compact(final LinkedList<Minion> row,
+                               final int rowIndex,
+                               final long deaths) {
+        if (deaths == 0) {
+            return;
+        }
+        Listener listener = LISTENER.get();
+        List<Minion> died = listener != null ? new ArrayList<>(Long.bitCount(deaths)) : null;
+        int count = 0;
+        Iterator<Minion> minions = row.iterator();
+        // The walk stops after the last marked column
+        for (int column = 0; column < Long.SIZE && deaths >>> column != 0
+                && minions.hasNext(); column++) {
+            Minion minion = minions.next();
+            if ((deaths & 1L << column) != 0) {
+                minions.remove();
+                count++;
+                if (died != null) {
+                    died.add(minion);
+                }
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        MinionDeathEvent.emit(rowIndex, count);
+        if (listener != null) {
+            listener.minionsDied(rowIndex, died);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.poo.main.Rules;
+
+import org.poo.main.CardHandler.Minion;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+
+/**
+ * An effect on a whole row of the playing table, used by environment cards and hero
+ * abilities. Effects are built once, when the card definitions are compiled.
+ */
+public interface RowEffect {
+    /**
+     * Applies the effect to a row.
+     *
+     * @param playingTable The playing table.
+     * @param row          The affected row.
+     */
+    void apply(ArrayList<LinkedList<Minion>> playingTable, int row);
+
+    /**
+     * Tells whether the effect can be applied to a row, e.g. whether there is space left
+     * for the minions it moves.
+     *
+     * @param playingTable The playing table.
+     * @param row          The affected row.
+     * @return True if the effect can be applied.
+     */
+    default boolean fits(final ArrayList<LinkedList<Minion>> playingTable,
+                         final int row) {
+        return true;
+    }
+}
@@ -0,0 +1,250 @@
+package org.poo.main.Rules;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.poo.main.CardHandler.Minion;
+import org.poo.main.CardHandler.MinionRow;
+import org.poo.main.GameHandler.EnvironmentCardHandler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * The row effect primitives a card definition can use, and their compiler.
+ */
+public final class RowEffects {
+    // Rows 0-1 belong to player two and rows 2-3 to player one
+    private static final int LAST_ROW = 3;
+
+    private RowEffects() {
+    }
+
+    /**
+     * Compiles the {@code effects} of a card definition into a single effect.
+     *
+     * @param effects The array of effect definitions, applied in order.
+     * @return The compiled effect.
+     * @throws IllegalArgumentException If an effect is unknown or malformed.
+     */
+    static RowEffect compile(final JsonNode effects) {
+        List<RowEffect> compiled = new ArrayList<>();
+        for (JsonNode effect : effects) {
+            RowEffect next = compileOne(effect);
+            int last = compiled.size() - 1;
+            if (last >= 0 && compiled.get(last) instanceof KernelEffect previous
+                    && next instanceof KernelEffect kernel) {
+                // Consecutive kernels share one load and store of the row
+                compiled.set(last, previous.then(kernel));
+            } else {
+                compiled.add(next);
+            }
+        }
+        if (compiled.size() == 1) {
+            // The common case dispatches straight to the primitive
+            return compiled.get(0);
+        }
+        return new Sequence(compiled.toArray(new RowEffect[0]));
+    }
+
+    /**
+     * Compiles one effect definition.
+     *
+     * @param effect The effect definition, with its {@code type} and parameters.
+     * @return The effect.
+     * @throws IllegalArgumentException If the effect is unknown or malformed.
+     */
+    private static RowEffect compileOne(final JsonNode effect) {
+        String type = effect.path("type").asText();
+        return switch (type) {
+            case "damageRow" -> damageRow(CardRules.requireInt(effect, "amount"));
+            case "freezeRow" -> freezeRow();
+            case "addRowAttack" -> addRowAttack(CardRules.requireInt(effect, "amount"));
+            case "addRowHealth" -> addRowHealth(CardRules.requireInt(effect, "amount"));
+            case "destroyHighestHealth" -> destroyHighestHealth();
+            case "stealHighestHealth" -> stealHighestHealth();
+            default -> throw new IllegalArgumentException("Unknown row effect: " + type);
+        };
+    }
+
+    /**
+     * Damages every minion of the row; minions left without health die.
+     *
+     * @param amount The damage.
+     * @return The effect.
+     */
+    public static RowEffect damageRow(final int amount) {
+        return new KernelEffect(arrays -> arrays.damage(amount));
+    }
+
+    /**
+     * Freezes every minion of the row.
+     *
+     * @return The effect.
+     */
+    public static RowEffect freezeRow() {
+        return new KernelEffect(RowKernels.RowArrays::freeze);
+    }
+
+    /**
+     * Adds attack damage to every minion of the row.
+     *
+     * @param amount The attack damage to add.
+     * @return The effect.
+     */
+    public static RowEffect addRowAttack(final int amount) {
+        return new KernelEffect(arrays -> arrays.addAttack(amount));
+    }
+
+    /**
+     * Adds health to every minion of the row.
+     *
+     * @param amount The health to add.
+     * @return The effect.
+     */
+    public static RowEffect addRowHealth(final int amount) {
+        return new KernelEffect(arrays -> arrays.addHealth(amount));
+    }
+
+    /**
+     * Destroys the minion with the highest health of the row; on a tie, the last one.
+     *
+     * @return The effect.
+     */
+    public static RowEffect destroyHighestHealth() {
+        return (playingTable, row) -> {
+            LinkedList<Minion> minions = playingTable.get(row);
+            int maxHealthIdx = MinionRow.lastIndexOfMaxHealth(minions);
+            if (maxHealthIdx != -1) {
+                MinionDeaths.kill(minions, row, maxHealthIdx);
+            }
+        };
+    }
+
+    /**
+     * Moves the minion with the highest health of the row (on a tie, the first one) to
+     * the mirrored row of the other player, which must have space left.
+     *
+     * @return The effect.
+     */
+    public static RowEffect stealHighestHealth() {
+        return new RowEffect() {
+            @Override
+            public void apply(final ArrayList<LinkedList<Minion>> playingTable,
+                              final int row) {
+                LinkedList<Minion> minions = playingTable.get(row);
+                int maxHealthIdx = MinionRow.firstIndexOfMaxHealth(minions);
+                playingTable.get(mirroredRow(row)).add(minions.remove(maxHealthIdx));
+            }
+
+            @Override
+            public boolean fits(final ArrayList<LinkedList<Minion>> playingTable,
+                                final int row) {
+                if (row < 0 || row > LAST_ROW) {
+                    return false;
+                }
+                return playingTable.get(mirroredRow(row)).size()
+                        < EnvironmentCardHandler.MAX_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Gets the row of the other player facing a row (front to front, back to back).
+     *
+     * @param row The row.
+     * @return The mirrored row.
+     */
+    public static int mirroredRow(final int row) {
+        return LAST_ROW - row;
+    }
+
+    /**
+     * A kernel of an arithmetic row effect, run on the primitive arrays of the row.
+     */
+    private interface Kernel {
+        /**
+         * Runs the kernel.
+         *
+         * @param arrays The arrays of the row.
+         */
+        void run(RowKernels.RowArrays arrays);
+    }
+
+    /**
+     * Arithmetic effects run as kernels between one load and one store of the row.
+     */
+    private static final class KernelEffect implements RowEffect {
+        private final Kernel[] kernels;
+
+        /**
+         * Creates the effect of kernels.
+         *
+         * @param kernels The kernels, in order.
+         */
+        private KernelEffect(final Kernel... kernels) {
+            this.kernels = kernels;
+        }
+
+        /**
+         * Fuses this effect with the one applied after it.
+         *
+         * @param next The next effect.
+         * @return The effect running the kernels of both.
+         */
+        private KernelEffect then(final KernelEffect next) {
+            Kernel[] fused = Arrays.copyOf(kernels, kernels.length + next.kernels.length);
+            System.arraycopy(next.kernels, 0, fused, kernels.length, next.kernels.length);
+            return new KernelEffect(fused);
+        }
+
+        @Override
+        public void apply(final ArrayList<LinkedList<Minion>> playingTable,
+                          final int row) {
+            LinkedList<Minion> minions = playingTable.get(row);
+            if (minions.isEmpty()) {
+                return;
+            }
+            RowKernels.RowArrays arrays = RowKernels.load(minions);
+            for (Kernel kernel : kernels) {
+                kernel.run(arrays);
+            }
+            RowKernels.store(arrays, minions, row);
+        }
+    }
+
+    /**
+     * Effects applied one after the other.
+     */
+    private static final class Sequence implements RowEffect {
+        private final RowEffect[] effects;
+
+        /**
+         * Creates a sequence of effects.
+         *
+         * @param effects The effects, in order.
+         */
+        private Sequence(final RowEffect[] effects) {
+            this.effects = effects;
+        }
+
+        @Override
+        public void apply(final ArrayList<LinkedList<Minion>> playingTable,
+                          final int row) {
+            for (RowEffect effect : effects) {
+                effect.apply(playingTable, row);
+            }
+        }
+
+        @Override
+        public boolean fits(final ArrayList<LinkedList<Minion>> playingTable,
+                            final int row) {
+            for (RowEffect effect : effects) {
+                if (!effect.fits(playingTable, row)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.poo.main.Rules;
+
+import org.poo.main.CardHandler.Minion;
+import org.poo.main.GameHandler.EnvironmentCardHandler;
+
+import java.util.LinkedList;
+
+/**
+ * Bulk kernels of the arithmetic row effects. A row is loaded once into primitive
+ * health, attack damage and frozen arrays, the kernels run as plain counted loops over
+ * them, and the row is stored back once: only the fields a kernel changed are written to
+ * the minions. Minions that die are only marked, the row is compacted once by
+ * {@link MinionDeaths} when it is stored.
+ * <p>
+ * A row holds at most {@link EnvironmentCardHandler#MAX_SIZE} minions, so the loops are
+ * left to the JIT compiler (unrolling, auto-vectorization) rather than to explicit
+ * vector code.
+ */
+public final class RowKernels {
+    // The fields a kernel changed, written back by store
+    private static final int HEALTH = 1;
+    private static final int ATTACK = 2;
+    private static final int FROZEN = 4;
+
+    private RowKernels() {
+    }
+
+    /**
+     * Loads the stats of the minions of a row into primitive arrays.
+     *
+     * @param row The row.
+     * @return The arrays of the row.
+     */
+    public static RowArrays load(final LinkedList<Minion> row) {
+        RowArrays arrays = new RowArrays(row.size());
+        int i = 0;
+        for (Minion minion : row) {
+            arrays.minions[i] = minion;
+            arrays.health[i] = minion.getHealth();
+            arrays.attack[i] = minion.getAttackDamage();
+            arrays.frozen[i] = minion.getIsFrozen();
+            i++;
+        }
+        arrays.size = i;
+        return arrays;
+    }
+
+    /**
+     * Stores the arrays back into the minions and the row.
+     *
+     * @param arrays   The arrays, after the kernels ran.
+     * @param row      The row they were loaded from.
+     * @param rowIndex The index of the row.
+     */
+    public static void store(final RowArrays arrays,
+                             final LinkedList<Minion> row,
+                             final int rowIndex) {
+        int size = arrays.size;
+        Minion[] minions = arrays.minions;
+        if ((arrays.dirty & HEALTH) != 0) {
+            for (int i = 0; i < size; i++) {
+                minions[i].setHealth(arrays.health[i]);
+            }
+        }
+        if ((arrays.dirty & ATTACK) != 0) {
+            for (int i = 0; i < size; i++) {
+                minions[i].setAttackDamage(arrays.attack[i]);
+            }
+        }
+        if ((arrays.dirty & FROZEN) != 0) {
+            for (int i = 0; i < size; i++) {
+                minions[i].setIsFrozen(arrays.frozen[i]);
+            }
+        }
+        MinionDeaths.compact(row, rowIndex, arrays.deaths);
+    }
+
+    /**
+     * Adds a value to the first elements of an array.
+     *
+     * @param values The array.
+     * @param size   The number of elements.
+     * @param amount The value to add.
+     */
+    public static void add(final int[] values,
+                           final int size,
+                           final int amount) {
+        for (int i = 0; i < size; i++) {
+            values[i] += amount;
+        }
+    }
+
+    /**
+     * Sets the first elements of an array to a value.
+     *
+     * @param values The array.
+     * @param size   The number of elements.
+     * @param value  The value.
+     */
+    public static void fill(final int[] values,
+                            final int size,
+                            final int value) {
+        for (int i = 0; i < size; i++) {
+            values[i] = value;
+        }
+    }
+
+    /**
+     * The minions of a row with their stats in primitive arrays.
+     */
+    public static final class RowArrays {
+        private final Minion[] minions;
+        private final int[] health;
+        private final int[] attack;
+        private final int[] frozen;
+        private int size;
+        private int dirty;
+        // The columns of the minions that died, see MinionDeaths
+        private long deaths;
+
+        /**
+         * Creates empty arrays.
+         *
+         * @param capacity The number of minions of the row.
+         */
+        private RowArrays(final int capacity) {
+            minions = new Minion[capacity];
+            health = new int[capacity];
+            attack = new int[capacity];
+            frozen = new int[capacity];
+        }
+
+        /**
+         * Adds health to every minion.
+         *
+         * @param amount The health to add.
+         */
+        public void addHealth(final int amount) {
+            add(health, size, amount);
+            dirty |= HEALTH;
+        }
+
+        /**
+         * Adds attack damage to every minion.
+         *
+         * @param amount The attack damage to add.
+         */
+        public void addAttack(final int amount) {
+            add(attack, size, amount);
+            dirty |= ATTACK;
+        }
+
+        /**
+         * Freezes every minion.
+         */
+        public void freeze() {
+            fill(frozen, size, 1);
+            dirty |= FROZEN;
+        }
+
+        /**
+         * Damages every minion and marks the ones left without health as dead. The dead
+         * ones keep their lanes, so the columns stay those of the row.
+         *
+         * @param amount The damage.
+         */
+        public void damage(final int amount) {
+            add(health, size, -amount);
+            dirty |= HEALTH;
+            for (int i = 0; i < size; i++) {
+                if (health[i] <= 0) {
+                    deaths = MinionDeaths.mark(deaths, i);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.poo.main.Rules;
+
+/**
+ * The side of the table an ability or effect may be used on.
+ */
+public enum Target {
+    // A card or row of the opponent; enemy minion abilities must respect the tanks
+    ENEMY,
+    // A card or row of the player using it
+    ALLY;
+
+    /**
+     * Parses a target from a card definition.
+     *
+     * @param value The value of the {@code target} field ("enemy" or "ally").
+     * @return The target.
+     * @throws IllegalArgumentException If the value is not a known target.
+     */
+    static Target parse(final String value) {
+        return switch (value) {
+            case "enemy" -> ENEMY;
+            case "ally" -> ALLY;
+            default -> throw new IllegalArgumentException("Unknown target: " + value);
+        };
+    }
+
+    /**
+     * Tells whether a row is on the wrong side of the table for this target.
+     *
+     * @param turn The player using the ability (1 or 2).
+     * @param row  The row of the table (0-1 belong to player two, 2-3 to player one).
+     * @return True if the row belongs to the other side.
+     */
+    public boolean rejectsRow(final int turn,
+                              final int row) {
+        boolean playerOneRow = row == 2 || row == 3;
+        boolean playerTwoRow = row == 0 || row == 1;
+        boolean ownRow = turn == 1 ? playerOneRow : playerTwoRow;
+        boolean enemyRow = turn == 1 ? playerTwoRow : playerOneRow;
+        return this == ENEMY ? ownRow : enemyRow;
+    }
+}
@@ -0,0 +1,24 @@
+package org.poo.main.Rules;
+
+import org.poo.main.CardHandler.Minion;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+
+/**
+ * An effect of a minion ability on the card it targets. Effects are built once, when the
+ * card definitions are compiled.
+ */
+public interface TargetEffect {
+    /**
+     * Applies the effect.
+     *
+     * @param source       The minion using its ability.
+     * @param target       The targeted minion.
+     * @param playingTable The current state of the playing table.
+     * @param targetRow    The row of the targeted minion.
+     * @param targetColumn The column of the targeted minion.
+     */
+    void apply(Minion source, Minion target, ArrayList<LinkedList<Minion>> playingTable,
+               int targetRow, int targetColumn);
+}
@@ -0,0 +1,109 @@
+package org.poo.main.Rules;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The minion ability primitives a card definition can use, and their compiler.
+ */
+public final class TargetEffects {
+
+    private TargetEffects() {
+    }
+
+    /**
+     * Compiles the {@code effects} of an ability definition into a single effect.
+     *
+     * @param effects The array of effect definitions, applied in order.
+     * @return The compiled effect.
+     * @throws IllegalArgumentException If an effect is unknown or malformed.
+     */
+    static TargetEffect compile(final JsonNode effects) {
+        List<TargetEffect> compiled = new ArrayList<>();
+        for (JsonNode effect : effects) {
+            compiled.add(compileOne(effect));
+        }
+        if (compiled.size() == 1) {
+            // The common case dispatches straight to the primitive
+            return compiled.get(0);
+        }
+        TargetEffect[] sequence = compiled.toArray(new TargetEffect[0]);
+        return (source, target, playingTable, targetRow, targetColumn) -> {
+            for (TargetEffect effect : sequence) {
+                effect.apply(source, target, playingTable, targetRow, targetColumn);
+            }
+        };
+    }
+
+    /**
+     * Compiles one effect definition.
+     *
+     * @param effect The effect definition, with its {@code type} and parameters.
+     * @return The effect.
+     * @throws IllegalArgumentException If the effect is unknown or malformed.
+     */
+    private static TargetEffect compileOne(final JsonNode effect) {
+        String type = effect.path("type").asText();
+        return switch (type) {
+            case "addHealth" -> addHealth(CardRules.requireInt(effect, "amount"));
+            case "addAttack" -> addAttack(CardRules.requireInt(effect, "amount"));
+            case "swapHealthWithTarget" -> swapHealthWithTarget();
+            case "swapTargetHealthAndAttack" -> swapTargetHealthAndAttack();
+            default -> throw new IllegalArgumentException("Unknown ability effect: " + type);
+        };
+    }
+
+    /**
+     * Adds health to the target.
+     *
+     * @param amount The health to add.
+     * @return The effect.
+     */
+    public static TargetEffect addHealth(final int amount) {
+        return (source, target, playingTable, targetRow, targetColumn) ->
+                target.setHealth(target.getHealth() + amount);
+    }
+
+    /**
+     * Adds attack damage to the target, which never drops below 0.
+     *
+     * @param amount The attack damage to add, negative to weaken the target.
+     * @return The effect.
+     */
+    public static TargetEffect addAttack(final int amount) {
+        return (source, target, playingTable, targetRow, targetColumn) ->
+                target.setAttackDamage(Math.max(0, target.getAttackDamage() + amount));
+    }
+
+    /**
+     * Swaps the health of the minion using the ability with the health of the target.
+     *
+     * @return The effect.
+     */
+    public static TargetEffect swapHealthWithTarget() {
+        return (source, target, playingTable, targetRow, targetColumn) -> {
+            int health = target.getHealth();
+            target.setHealth(source.getHealth());
+            source.setHealth(health);
+        };
+    }
+
+    /**
+     * Swaps the health and the attack damage of the target, which dies if it is left
+     * without health.
+     *
+     * @return The effect.
+     */
+    public static TargetEffect swapTargetHealthAndAttack() {
+        return (source, target, playingTable, targetRow, targetColumn) -> {
+            int health = target.getHealth();
+            target.setHealth(target.getAttackDamage());
+            target.setAttackDamage(health);
+            if (target.getHealth() <= 0) {
+                MinionDeaths.kill(playingTable.get(targetRow), targetRow, targetColumn);
+            }
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package org.poo.main.Serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.poo.main.CardHandler.Deck;
+import org.poo.main.CardHandler.Hero;
+import org.poo.main.CardHandler.Minion;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes cards (minions, heroes and environment cards) straight to the generator,
+ * with the same fields and order as the bean serialization: mana, description,
+ * colors, name, then health and attackDamage for minions or health for heroes.
+ * The frozen and attack flags are never written.
+ */
+public final class CardSerializer extends StdSerializer<Deck> {
+    private static final long serialVersionUID = 1L;
+    private static final SerializedString MANA = new SerializedString("mana");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString COLORS = new SerializedString("colors");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString HEALTH = new SerializedString("health");
+    private static final SerializedString ATTACK_DAMAGE = new SerializedString("attackDamage");
+
+    /**
+     * Creates the serializer.
+     */
+    public CardSerializer() {
+        super(Deck.class);
+    }
+
+    @Override
+    public void serialize(final Deck card,
+                          final JsonGenerator generator,
+                          final SerializerProvider provider) throws IOException {
+        writeCard(generator, card);
+    }
+
+    /**
+     * Writes a card as a JSON object.
+     *
+     * @param generator The generator to write to.
+     * @param card      The card.
+     * @throws IOException If the generator fails.
+     */
+    public static void writeCard(final JsonGenerator generator,
+                                 final Deck card) throws IOException {
+        generator.writeStartObject(card);
+        generator.writeFieldName(MANA);
+        generator.writeNumber(card.getMana());
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(card.getDescription());
+        generator.writeFieldName(COLORS);
+        writeColors(generator, card.getColors());
+        generator.writeFieldName(NAME);
+        generator.writeString(card.getName());
+        if (card instanceof Minion minion) {
+            generator.writeFieldName(HEALTH);
+            generator.writeNumber(minion.getHealth());
+            generator.writeFieldName(ATTACK_DAMAGE);
+            generator.writeNumber(minion.getAttackDamage());
+        } else if (card instanceof Hero hero) {
+            generator.writeFieldName(HEALTH);
+            generator.writeNumber(hero.getHealth());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the colors of a card.
+     *
+     * @param generator The generator to write to.
+     * @param colors    The colors, possibly null.
+     * @throws IOException If the generator fails.
+     */
+    private static void writeColors(final JsonGenerator generator,
+                                    final List<String> colors) throws IOException {
+        if (colors == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray(colors, colors.size());
+        for (String color : colors) {
+            generator.writeString(color);
+        }
+        generator.writeEndArray();
+    }
+}
@@ -0,0 +1,49 @@
+package org.poo.main.Serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.poo.fileio.Coordinates;
+
+import java.io.IOException;
+
+/**
+ * Writes coordinates straight to the generator as {@code {"x": .., "y": ..}}.
+ */
+public final class CoordinatesSerializer extends StdSerializer<Coordinates> {
+    private static final long serialVersionUID = 1L;
+    private static final SerializedString X = new SerializedString("x");
+    private static final SerializedString Y = new SerializedString("y");
+
+    /**
+     * Creates the serializer.
+     */
+    public CoordinatesSerializer() {
+        super(Coordinates.class);
+    }
+
+    @Override
+    public void serialize(final Coordinates coordinates,
+                          final JsonGenerator generator,
+                          final SerializerProvider provider) throws IOException {
+        writeCoordinates(generator, coordinates);
+    }
+
+    /**
+     * Writes coordinates as a JSON object.
+     *
+     * @param generator   The generator to write to.
+     * @param coordinates The coordinates.
+     * @throws IOException If the generator fails.
+     */
+    public static void writeCoordinates(final JsonGenerator generator,
+                                        final Coordinates coordinates) throws IOException {
+        generator.writeStartObject(coordinates);
+        generator.writeFieldName(X);
+        generator.writeNumber(coordinates.getX());
+        generator.writeFieldName(Y);
+        generator.writeNumber(coordinates.getY());
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,95 @@
+package org.poo.main.Server;
+
+import java.io.Closeable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Runs the command loops of the match sessions and bounds how many of them may use
+ * the game engine at the same time.
+ * <p>
+ * Session loops run on virtual threads when the runtime provides them (Java 21+), and
+ * on a cached pool of daemon platform threads otherwise. Engine work is additionally
+ * guarded by a fixed number of "engine slots", so CPU bound commands can never occupy
+ * more cores than configured and starve the I/O thread.
+ */
+public final class EngineExecutor implements Closeable {
+    private final ExecutorService executor;
+    private final Semaphore engineSlots;
+    private final boolean virtualThreads;
+
+    /**
+     * Creates an executor with the given number of engine slots.
+     *
+     * @param engineSlots The maximum number of commands executed at the same time.
+     */
+    public EngineExecutor(final int engineSlots) {
+        if (engineSlots < 1) {
+            throw new IllegalArgumentException("At least one engine slot is required.");
+        }
+        ExecutorService virtualExecutor = createVirtualThreadExecutor();
+        this.virtualThreads = virtualExecutor != null;
+        this.executor = virtualThreads ? virtualExecutor : Executors.newCachedThreadPool(
+                runnable -> {
+                    Thread thread = new Thread(runnable, "gwent-session");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.engineSlots = new Semaphore(engineSlots, true);
+    }
+
+    /**
+     * Creates a virtual thread per task executor, if the runtime supports it.
+     *
+     * @return The executor, or null on runtimes without virtual threads.
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Tells whether session loops run on virtual threads.
+     *
+     * @return True on runtimes with virtual threads.
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Runs a session loop.
+     *
+     * @param sessionLoop The loop to run.
+     */
+    public void execute(final Runnable sessionLoop) {
+        executor.execute(sessionLoop);
+    }
+
+    /**
+     * Runs engine work while holding an engine slot, waiting for a free slot if needed.
+     *
+     * @param engineWork The work to run.
+     * @param <T>        The type of the result.
+     * @return The result of the work.
+     */
+    public <T> T withEngineSlot(final Supplier<T> engineWork) {
+        engineSlots.acquireUninterruptibly();
+        try {
+            return engineWork.get();
+        } finally {
+            engineSlots.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
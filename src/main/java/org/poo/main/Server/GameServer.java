@@ -0,0 +1,560 @@
+package org.poo.main.Server;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.poo.fileio.Input;
+import org.poo.main.CardHandler.Deck;
+import org.poo.main.EngineContext;
+import org.poo.main.Spectator.GameFrame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+
+/**
+ * Local server hosting many live matches at once. Every connection owns a
+ * {@link MatchSession} and sends newline-delimited JSON messages; every message is
+ * answered with one line holding the JSON array of output nodes it produced.
+ * <p>
+ * All the connections are served by a single NIO selector thread. Idle connections only
+ * hold their session and channel: line and write buffers are allocated while a partial
+ * message or a pending response exists, so tens of thousands of idle matches stay cheap.
+ * <p>
+ * Without an {@link EngineExecutor}, messages are handled on the selector thread. With
+ * one, every connection gets a {@link SessionMailbox} and its messages are handled by
+ * the executor; the responses are handed back to the selector thread to be written.
+ * <p>
+ * Two messages are answered by the server itself instead of the match:
+ * {@code {"getMatchId": true}} gives the id of the connection's match, and
+ * {@code {"spectate": id}} subscribes the connection to the event stream of that match.
+ * The {@link GameFrame}s of the match are then written to it, one per line, as the
+ * socket accepts them: the next frame is only requested once the previous one was
+ * written, so a slow spectator falls under the drop policy of the match broadcaster
+ * instead of buffering in the server. The connection is closed when the match ends.
+ */
+public final class GameServer implements Closeable {
+    public static final int DEFAULT_PORT = 9090;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_LINE_LENGTH = 1024 * 1024;
+    private static final ObjectWriter OBJECT_WRITER = EngineContext.get().getCompactWriter();
+    private static final ObjectMapper OBJECT_MAPPER = EngineContext.get().getObjectMapper();
+    private static final byte[] LINE_END = {'\n'};
+
+    private final LinkedList<LinkedList<Deck>> playerOne;
+    private final LinkedList<LinkedList<Deck>> playerTwo;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private final EngineExecutor engineExecutor;
+    private final ConcurrentLinkedQueue<Response> responses = new ConcurrentLinkedQueue<>();
+    // The open connections by match id, only used by the selector thread
+    private final HashMap<Integer, SelectionKey> matches = new HashMap<>();
+    private int nextMatchId;
+    private volatile boolean running = true;
+
+    /**
+     * Opens the server socket. The decks of the matches are taken from an input file,
+     * whose games are ignored.
+     *
+     * @param inputData      Input data containing the deck pool.
+     * @param address        The address to listen on.
+     * @param engineExecutor The executor handling the messages, or null to handle them
+     *                       on the selector thread.
+     * @throws IOException if the server socket cannot be opened
+     */
+    public GameServer(final Input inputData,
+                      final InetSocketAddress address,
+                      final EngineExecutor engineExecutor) throws IOException {
+        this.engineExecutor = engineExecutor;
+        this.playerOne = Deck.setCardType(inputData.getPlayerOneDecks());
+        this.playerTwo = Deck.setCardType(inputData.getPlayerTwoDecks());
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Starts the server from the command line.
+     * Usage: {@code GameServer <decks input file> [--port N] [--engine-slots N]}
+     * Without {@code --engine-slots}, messages are handled on the selector thread.
+     *
+     * @param args from command line
+     * @throws IOException in case of exceptions to reading the decks or serving
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 0 || args.length % 2 == 0) {
+            System.out.println("Usage: GameServer <decks input file> [--port N]"
+                    + " [--engine-slots N]");
+            return;
+        }
+        int port = DEFAULT_PORT;
+        int engineSlots = 0;
+        for (int i = 1; i < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[i + 1]);
+                case "--engine-slots" -> engineSlots = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        EngineContext.get().warmUp();
+        Input inputData = EngineContext.get().getInputReader().readValue(new File(args[0]));
+        EngineExecutor engineExecutor = engineSlots > 0 ? new EngineExecutor(engineSlots) : null;
+        try (GameServer server = new GameServer(inputData,
+                new InetSocketAddress("127.0.0.1", port), engineExecutor)) {
+            System.out.println("GwentStone server listening on port " + server.getPort());
+            server.run();
+        } finally {
+            if (engineExecutor != null) {
+                engineExecutor.close();
+            }
+        }
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return The local port.
+     * @throws IOException if the port cannot be queried
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Serves connections until the server is stopped.
+     *
+     * @throws IOException if the selector fails
+     */
+    public void run() throws IOException {
+        while (running) {
+            selector.select();
+            writeResponses();
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                try {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    }
+                    if (key.isValid() && key.isReadable()) {
+                        read(key);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        write(key);
+                    }
+                } catch (IOException e) {
+                    // A broken connection only closes its own match
+                    closeConnection(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the server loop.
+     */
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    /**
+     * Accepts a new connection and gives it an idle match session.
+     *
+     * @throws IOException if the connection cannot be accepted
+     */
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        MatchSession session = new MatchSession(playerOne, playerTwo);
+        SessionMailbox mailbox = engineExecutor == null ? null
+                : new SessionMailbox(session, engineExecutor, response -> {
+                    responses.add(new Response(key, serialize(response), null));
+                    selector.wakeup();
+                });
+        Connection connection = new Connection(nextMatchId++, session, mailbox);
+        matches.put(connection.matchId, key);
+        key.attach(connection);
+    }
+
+    /**
+     * Writes the responses handed back by the session loops.
+     */
+    private void writeResponses() {
+        Response response;
+        while ((response = responses.poll()) != null) {
+            SelectionKey key = response.key;
+            if (!key.isValid()) {
+                // The connection was closed while its message was being handled
+                continue;
+            }
+            Connection connection = (Connection) key.attachment();
+            if (response.frame != null) {
+                connection.enqueueFrame(response.frame);
+            } else if (response.bytes != null) {
+                connection.enqueue(response.bytes);
+            } else {
+                // The watched match ended, the frames still pending are written first
+                connection.closeWhenWritten = true;
+            }
+            try {
+                write(key);
+            } catch (IOException e) {
+                closeConnection(key);
+            }
+        }
+    }
+
+    /**
+     * Serializes a response to a single JSON line.
+     *
+     * @param response The output nodes of a message.
+     * @return The serialized response, without the line terminator.
+     */
+    private static byte[] serialize(final Object response) {
+        try {
+            return OBJECT_WRITER.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the available bytes of a connection and handles every complete message.
+     *
+     * @param key The selection key of the connection.
+     * @throws IOException if the connection fails
+     */
+    private void read(final SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        readBuffer.clear();
+        if (channel.read(readBuffer) < 0) {
+            closeConnection(key);
+            return;
+        }
+        readBuffer.flip();
+        while (readBuffer.hasRemaining()) {
+            byte value = readBuffer.get();
+            if (value != '\n') {
+                connection.append(value);
+                continue;
+            }
+            String message = connection.takeLine();
+            if (message.isBlank()) {
+                continue;
+            }
+            ArrayNode serverResponse = handleServerMessage(key, message);
+            if (serverResponse != null) {
+                connection.enqueue(serialize(serverResponse));
+            } else if (connection.mailbox != null) {
+                connection.mailbox.post(message);
+            } else {
+                connection.enqueue(serialize(connection.session.handle(message)));
+            }
+        }
+        if (connection.lineLength() > MAX_LINE_LENGTH) {
+            closeConnection(key);
+            return;
+        }
+        write(key);
+    }
+
+    /**
+     * Handles the messages answered by the server instead of the match. Only messages
+     * naming one of their fields are parsed here, the others go to the match untouched.
+     *
+     * @param key     The selection key of the connection.
+     * @param message The JSON message.
+     * @return The response, or null if the message is for the match.
+     */
+    private ArrayNode handleServerMessage(final SelectionKey key,
+                                          final String message) {
+        if (!message.contains("\"getMatchId\"") && !message.contains("\"spectate\"")) {
+            return null;
+        }
+        JsonNode messageNode;
+        try {
+            messageNode = OBJECT_MAPPER.readTree(message);
+        } catch (JsonProcessingException e) {
+            // Left to the match, which reports the invalid message
+            return null;
+        }
+        if (messageNode == null || !messageNode.isObject()) {
+            return null;
+        }
+        Connection connection = (Connection) key.attachment();
+        ArrayNode response = OBJECT_MAPPER.createArrayNode();
+        if (messageNode.has("getMatchId")) {
+            response.addObject().put("matchId", connection.matchId);
+        } else if (messageNode.has("spectate")) {
+            JsonNode matchId = messageNode.get("spectate");
+            SelectionKey matchKey = matchId.canConvertToInt()
+                    ? matches.get(matchId.asInt()) : null;
+            if (connection.feed != null) {
+                response.addObject().put("error", "Already spectating.");
+            } else if (matchKey == null || !matchId.isIntegralNumber()) {
+                response.addObject().put("error", "Unknown match.");
+            } else {
+                connection.feed = new SpectatorFeed(key);
+                subscribe((Connection) matchKey.attachment(), connection.feed);
+                response.addObject().put("spectating", matchId.asInt());
+            }
+        } else {
+            return null;
+        }
+        return response;
+    }
+
+    /**
+     * Subscribes a spectator to a match, on the thread handling the messages of the match.
+     *
+     * @param match The connection of the watched match.
+     * @param feed  The spectator.
+     */
+    private static void subscribe(final Connection match,
+                                  final SpectatorFeed feed) {
+        if (match.mailbox != null) {
+            match.mailbox.execute(session -> session.getEventStream().subscribe(feed));
+        } else {
+            match.session.getEventStream().subscribe(feed);
+        }
+    }
+
+    /**
+     * Writes the pending responses of a connection, waiting for the socket to become
+     * writable again if they do not fit.
+     *
+     * @param key The selection key of the connection.
+     * @throws IOException if the connection fails
+     */
+    private void write(final SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        ArrayDeque<ByteBuffer> pending = connection.pending;
+        while (pending != null && !pending.isEmpty()) {
+            ByteBuffer buffer = pending.peek();
+            channel.write(buffer);
+            if (buffer.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return;
+            }
+            pending.poll();
+        }
+        connection.pending = null;
+        if (connection.frameWritten) {
+            connection.frameWritten = false;
+            connection.feed.requestNext();
+        }
+        if (connection.closeWhenWritten) {
+            closeConnection(key);
+            return;
+        }
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
+    /**
+     * Closes a connection and drops its match.
+     *
+     * @param key The selection key of the connection.
+     */
+    private void closeConnection(final SelectionKey key) {
+        if (key.attachment() instanceof Connection connection) {
+            matches.remove(connection.matchId);
+            if (connection.feed != null) {
+                connection.feed.cancel();
+            }
+            // With a mailbox, a session loop may be handling a message of the match
+            if (connection.mailbox != null) {
+                connection.mailbox.close();
+            } else {
+                connection.session.close();
+            }
+        }
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // The connection is dropped either way
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (SelectionKey key : selector.keys()) {
+            if (key.channel() != serverChannel) {
+                closeConnection(key);
+            }
+        }
+        serverChannel.close();
+        selector.close();
+    }
+
+    /**
+     * A response handed back to the selector thread by a session loop, or a frame handed
+     * to a spectator. Without either, the spectated match has ended.
+     */
+    private static final class Response {
+        private final SelectionKey key;
+        private final byte[] bytes;
+        private final GameFrame frame;
+
+        private Response(final SelectionKey key,
+                         final byte[] bytes,
+                         final GameFrame frame) {
+            this.key = key;
+            this.bytes = bytes;
+            this.frame = frame;
+        }
+    }
+
+    /**
+     * Hands the frames of a watched match to the selector thread, one at a time.
+     */
+    private final class SpectatorFeed implements Flow.Subscriber<GameFrame> {
+        private final SelectionKey key;
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+
+        private SpectatorFeed(final SelectionKey key) {
+            this.key = key;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription newSubscription) {
+            subscription = newSubscription;
+            if (cancelled) {
+                // The spectator left before the match thread got to subscribe it
+                newSubscription.cancel();
+                return;
+            }
+            newSubscription.request(1);
+        }
+
+        @Override
+        public void onNext(final GameFrame frame) {
+            responses.add(new Response(key, null, frame));
+            selector.wakeup();
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            onComplete();
+        }
+
+        @Override
+        public void onComplete() {
+            responses.add(new Response(key, null, null));
+            selector.wakeup();
+        }
+
+        /**
+         * Asks for the next frame, once the previous one was written to the socket.
+         */
+        private void requestNext() {
+            subscription.request(1);
+        }
+
+        /**
+         * Stops the frames when the spectator disconnects.
+         */
+        private void cancel() {
+            cancelled = true;
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+
+    /**
+     * The per connection state: the match, the partial message and the pending responses.
+     * Only used by the selector thread.
+     */
+    private static final class Connection {
+        private final int matchId;
+        private final MatchSession session;
+        private final SessionMailbox mailbox;
+        private ByteArrayOutputStream line;
+        private ArrayDeque<ByteBuffer> pending;
+        // Set once the connection spectates a match
+        private SpectatorFeed feed;
+        private boolean frameWritten;
+        private boolean closeWhenWritten;
+
+        private Connection(final int matchId,
+                           final MatchSession session,
+                           final SessionMailbox mailbox) {
+            this.matchId = matchId;
+            this.session = session;
+            this.mailbox = mailbox;
+        }
+
+        private void append(final byte value) {
+            if (line == null) {
+                line = new ByteArrayOutputStream();
+            }
+            line.write(value);
+        }
+
+        private int lineLength() {
+            return line == null ? 0 : line.size();
+        }
+
+        private String takeLine() {
+            if (line == null) {
+                return "";
+            }
+            String message = line.toString(StandardCharsets.UTF_8);
+            line = null;
+            return message;
+        }
+
+        private void enqueue(final byte[] response) {
+            if (pending == null) {
+                pending = new ArrayDeque<>();
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(response.length + 1);
+            buffer.put(response).put((byte) '\n').flip();
+            pending.add(buffer);
+        }
+
+        private void enqueueFrame(final GameFrame frame) {
+            if (pending == null) {
+                pending = new ArrayDeque<>();
+            }
+            // The frame bytes are shared with the other spectators, so they are not copied
+            pending.add(frame.getBytes());
+            pending.add(ByteBuffer.wrap(LINE_END));
+            frameWritten = true;
+        }
+    }
+}
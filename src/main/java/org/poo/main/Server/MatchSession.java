@@ -0,0 +1,159 @@
+package org.poo.main.Server;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.StartGameInput;
+import org.poo.main.CardHandler.Deck;
+import org.poo.main.EngineContext;
+import org.poo.main.GameSession;
+import org.poo.main.Spectator.GameFrame;
+import org.poo.main.Spectator.MatchBroadcaster;
+import org.poo.main.Utils;
+
+import java.util.LinkedList;
+import java.util.concurrent.Flow;
+
+/**
+ * The state of one live match: the current game session and the statistics of the
+ * games played so far. A session is not thread safe, all its messages have to be
+ * handled by one thread at a time.
+ * <p>
+ * Each message is a JSON object. {@code {"startGame": {...}}} starts a new game using
+ * the shared deck pool, any other message is executed as an {@link ActionsInput}
+ * command. The response of a message is the array of output nodes it produced.
+ */
+public final class MatchSession {
+    private static final ObjectMapper OBJECT_MAPPER = EngineContext.get().getObjectMapper();
+
+    private final LinkedList<LinkedList<Deck>> playerOne;
+    private final LinkedList<LinkedList<Deck>> playerTwo;
+    private final Utils utils = new Utils();
+    private GameSession game;
+    private int gamesStarted;
+    // Created by the first spectator, so unwatched matches publish nothing
+    private MatchBroadcaster broadcaster;
+
+    /**
+     * Creates an idle session playing with the given deck pool. The decks are only
+     * read, so the same pool can be shared by all the sessions.
+     *
+     * @param playerOne Player one's deck list.
+     * @param playerTwo Player two's deck list.
+     */
+    public MatchSession(final LinkedList<LinkedList<Deck>> playerOne,
+                        final LinkedList<LinkedList<Deck>> playerTwo) {
+        this.playerOne = playerOne;
+        this.playerTwo = playerTwo;
+    }
+
+    /**
+     * Handles one message of the client.
+     *
+     * @param message The JSON message.
+     * @return The output nodes produced by the message.
+     */
+    public ArrayNode handle(final String message) {
+        ArrayNode output = OBJECT_MAPPER.createArrayNode();
+        JsonNode messageNode;
+        try {
+            messageNode = OBJECT_MAPPER.readTree(message);
+        } catch (JsonProcessingException e) {
+            addError(output, "Invalid JSON message.");
+            return output;
+        }
+        if (messageNode == null || !messageNode.isObject()) {
+            addError(output, "Invalid JSON message.");
+            return output;
+        }
+
+        try {
+            if (messageNode.has("startGame")) {
+                startGame(OBJECT_MAPPER.treeToValue(messageNode.get("startGame"),
+                        StartGameInput.class), output);
+            } else if (game == null) {
+                addError(output, "No game started.");
+            } else {
+                game.execute(OBJECT_MAPPER.treeToValue(messageNode, ActionsInput.class), output);
+            }
+        } catch (JsonProcessingException e) {
+            addError(output, "Invalid command.");
+        } catch (RuntimeException e) {
+            // Commands the engine cannot handle must not bring down the whole server
+            output.removeAll();
+            addError(output, "Command failed.");
+        }
+        return output;
+    }
+
+    /**
+     * Starts a new game, keeping the statistics of the previous games.
+     *
+     * @param newGame The StartGameInput object containing the game settings.
+     * @param output  The output ArrayNode to store errors.
+     */
+    private void startGame(final StartGameInput newGame,
+                           final ArrayNode output) {
+        if (newGame.getPlayerOneHero() == null || newGame.getPlayerTwoHero() == null
+                || newGame.getPlayerOneDeckIdx() < 0
+                || newGame.getPlayerOneDeckIdx() >= playerOne.size()
+                || newGame.getPlayerTwoDeckIdx() < 0
+                || newGame.getPlayerTwoDeckIdx() >= playerTwo.size()) {
+            addError(output, "Invalid game settings.");
+            return;
+        }
+        game = new GameSession(newGame, gamesStarted, playerOne, playerTwo, utils);
+        gamesStarted++;
+        if (broadcaster != null) {
+            game.setEventListener(broadcaster);
+            broadcaster.gameStarted(game);
+        }
+    }
+
+    /**
+     * Gets the event stream of this match, which spectators can subscribe to.
+     * It has to be called by the thread handling the messages of the session.
+     *
+     * @return The publisher of the match events.
+     */
+    public Flow.Publisher<GameFrame> getEventStream() {
+        if (broadcaster == null) {
+            broadcaster = new MatchBroadcaster();
+            if (game != null) {
+                game.setEventListener(broadcaster);
+            }
+        }
+        return broadcaster;
+    }
+
+    /**
+     * Ends the event stream of the match, if any spectator asked for it.
+     */
+    public void close() {
+        if (broadcaster != null) {
+            broadcaster.close();
+        }
+    }
+
+    /**
+     * Gets the current game session.
+     *
+     * @return The current game, or null if no game was started.
+     */
+    public GameSession getGame() {
+        return game;
+    }
+
+    /**
+     * Adds a protocol error to the output.
+     *
+     * @param output The output ArrayNode.
+     * @param error  The error message.
+     */
+    private static void addError(final ArrayNode output,
+                                 final String error) {
+        output.addObject().put("error", error);
+    }
+}
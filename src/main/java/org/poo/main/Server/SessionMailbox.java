@@ -0,0 +1,126 @@
+package org.poo.main.Server;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Serializes the messages of one match session without locks. Messages are queued and
+ * a single command loop is scheduled on the {@link EngineExecutor} whenever the mailbox
+ * goes from empty to non-empty, so at most one thread touches the session at a time
+ * and idle sessions do not hold a thread at all.
+ * <p>
+ * Closing goes through the loop as well: messages still queued are dropped and the
+ * session is closed by the loop thread, never while one of its messages is handled.
+ * Other work on the session, such as subscribing a spectator, is run by the loop too,
+ * between two messages.
+ */
+public final class SessionMailbox {
+    // Messages handled before the loop yields its thread to other sessions
+    private static final int MAX_BATCH = 64;
+
+    private final MatchSession session;
+    private final EngineExecutor executor;
+    private final Consumer<ArrayNode> responder;
+    private final ConcurrentLinkedQueue<String> messages = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Consumer<MatchSession>> tasks =
+            new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean closing;
+    // Only read and written by the command loop
+    private boolean closed;
+
+    /**
+     * Creates the mailbox of a session.
+     *
+     * @param session   The match session the messages are handled by.
+     * @param executor  The executor running the command loop.
+     * @param responder Receives the response of every message, in order.
+     */
+    public SessionMailbox(final MatchSession session,
+                          final EngineExecutor executor,
+                          final Consumer<ArrayNode> responder) {
+        this.session = session;
+        this.executor = executor;
+        this.responder = responder;
+    }
+
+    /**
+     * Queues a message and schedules the command loop if it is not running.
+     *
+     * @param message The JSON message.
+     */
+    public void post(final String message) {
+        if (closing) {
+            return;
+        }
+        messages.add(message);
+        schedule();
+    }
+
+    /**
+     * Runs a task on the session from the command loop, before the next message.
+     *
+     * @param task The task, given the session.
+     */
+    public void execute(final Consumer<MatchSession> task) {
+        if (closing) {
+            return;
+        }
+        tasks.add(task);
+        schedule();
+    }
+
+    /**
+     * Asks the command loop to drop the queued messages and close the session.
+     */
+    public void close() {
+        closing = true;
+        schedule();
+    }
+
+    /**
+     * Schedules the command loop, unless it is already scheduled or running.
+     */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * The command loop: handles a batch of messages, then either yields or stops.
+     */
+    private void drain() {
+        for (int handled = 0; handled < MAX_BATCH; handled++) {
+            if (closing) {
+                messages.clear();
+                tasks.clear();
+                if (!closed) {
+                    closed = true;
+                    // Spectators of the match get onComplete
+                    session.close();
+                }
+                break;
+            }
+            Consumer<MatchSession> task = tasks.poll();
+            if (task != null) {
+                task.accept(session);
+                continue;
+            }
+            String message = messages.poll();
+            if (message == null) {
+                break;
+            }
+            ArrayNode response = executor.withEngineSlot(() -> session.handle(message));
+            responder.accept(response);
+        }
+        scheduled.set(false);
+        // A message or the close may have been posted after the last poll
+        if (!messages.isEmpty() || !tasks.isEmpty() || closing && !closed) {
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package org.poo.main.Simulation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.Input;
+import org.poo.main.EngineContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs input files through a reference and a candidate {@link GameEngine} side by side,
+ * comparing the output of every command. For each file, the first divergent command is
+ * reported together with the state of both engines right after it.
+ * <p>
+ * Games are checked in parallel, each on fresh matches of both engines, so a single large
+ * file keeps every worker thread busy. Games only depend on the previous ones through
+ * the win queries: each game counts its wins from zero, and the wins of the previous
+ * games are added to the win queries of a divergence report, as {@code RecordedGame}
+ * rebuilds them, so it shows the values of a sequential run.
+ */
+public final class DifferentialTester {
+    private static final ObjectMapper OBJECT_MAPPER = EngineContext.get().getObjectMapper();
+
+    private final GameEngine reference;
+    private final GameEngine candidate;
+
+    /**
+     * Creates a tester comparing the given engines.
+     *
+     * @param reference The engine considered correct.
+     * @param candidate The engine under test.
+     */
+    public DifferentialTester(final GameEngine reference,
+                              final GameEngine candidate) {
+        this.reference = reference;
+        this.candidate = candidate;
+    }
+
+    /**
+     * Compares two engines on the given input files from the command line.
+     * Usage: {@code [--reference <class>] --candidate <class> [--threads N] <files or dirs>}
+     * The process exits with status 1 if any divergence was found.
+     *
+     * @param args from command line
+     * @throws Exception in case the engines cannot be loaded or the check is interrupted
+     */
+    public static void main(final String[] args) throws Exception {
+        EngineContext.get().warmUp();
+        String referenceClass = ReferenceEngine.class.getName();
+        String candidateClass = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--reference" -> referenceClass = args[++i];
+                case "--candidate" -> candidateClass = args[++i];
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                default -> addInputFiles(new File(args[i]), files);
+            }
+        }
+        if (candidateClass == null || files.isEmpty()) {
+            System.out.println("Usage: DifferentialTester [--reference <class>]"
+                    + " --candidate <class> [--threads N] <files or dirs>");
+            return;
+        }
+
+        DifferentialTester tester = new DifferentialTester(loadEngine(referenceClass),
+                loadEngine(candidateClass));
+        List<FileResult> results = tester.check(files, threads);
+
+        long actions = 0;
+        int divergences = 0;
+        for (FileResult result : results) {
+            actions += result.actions;
+            if (result.divergence != null) {
+                divergences++;
+                System.out.println(EngineContext.get().getPrettyWriter()
+                        .writeValueAsString(result.divergence));
+            }
+        }
+        System.out.println("Checked " + results.size() + " files, " + actions
+                + " actions, " + divergences + " divergent files.");
+        if (divergences != 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Checks the given files, splitting them into games checked in parallel.
+     *
+     * @param files   The input files.
+     * @param threads The number of worker threads.
+     * @return The result of each file, in the order of the files.
+     * @throws InterruptedException if the check is interrupted
+     * @throws IOException if an input file cannot be read
+     */
+    public List<FileResult> check(final List<File> files,
+                                  final int threads)
+            throws InterruptedException, IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Input>> inputs = new ArrayList<>(files.size());
+            for (File file : files) {
+                inputs.add(executor.submit(() -> read(file)));
+            }
+            List<List<Future<GameResult>>> futures = new ArrayList<>(files.size());
+            for (int f = 0; f < files.size(); f++) {
+                File file = files.get(f);
+                Input inputData = get(inputs.get(f));
+                // Games after the first divergence of the file are not needed
+                AtomicInteger firstDivergentGame = new AtomicInteger(Integer.MAX_VALUE);
+                List<Future<GameResult>> games = new ArrayList<>(inputData.getGames().size());
+                for (int i = 0; i < inputData.getGames().size(); i++) {
+                    int gameIndex = i;
+                    games.add(executor.submit(() ->
+                            checkGame(file, inputData, gameIndex, firstDivergentGame)));
+                }
+                futures.add(games);
+            }
+            List<FileResult> results = new ArrayList<>(files.size());
+            for (int f = 0; f < files.size(); f++) {
+                List<GameResult> games = new ArrayList<>(futures.get(f).size());
+                for (Future<GameResult> future : futures.get(f)) {
+                    games.add(get(future));
+                }
+                results.add(combine(files.get(f), games));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs one input file through both engines, stopping at the first divergence.
+     *
+     * @param file The input file.
+     * @return The number of compared actions and the first divergence, if any.
+     * @throws IOException if the input file cannot be read
+     */
+    public FileResult check(final File file) throws IOException {
+        Input inputData = read(file);
+        List<GameResult> games = new ArrayList<>(inputData.getGames().size());
+        for (int i = 0; i < inputData.getGames().size(); i++) {
+            GameResult game = checkGame(file, inputData, i, null);
+            games.add(game);
+            if (game.divergence != null) {
+                break;
+            }
+        }
+        return combine(file, games);
+    }
+
+    /**
+     * Runs one game through both engines on fresh matches, stopping at the first
+     * divergence.
+     *
+     * @param file               The input file.
+     * @param inputData          The input of the file.
+     * @param gameIndex          The index of the game.
+     * @param firstDivergentGame The first divergent game of the file found so far, or
+     *                           null when the games are checked in order.
+     * @return The result of the game, or null if an earlier game already diverged.
+     */
+    private GameResult checkGame(final File file,
+                                 final Input inputData,
+                                 final int gameIndex,
+                                 final AtomicInteger firstDivergentGame) {
+        if (firstDivergentGame != null && gameIndex > firstDivergentGame.get()) {
+            return null;
+        }
+        EngineMatch referenceMatch = reference.createMatch(inputData);
+        EngineMatch candidateMatch = candidate.createMatch(inputData);
+        referenceMatch.startGame(gameIndex);
+        candidateMatch.startGame(gameIndex);
+        GameResult result = new GameResult();
+        ArrayList<ActionsInput> commandList = inputData.getGames().get(gameIndex).getActions();
+        for (int j = 0; j < commandList.size(); j++) {
+            ActionsInput command = commandList.get(j);
+            JsonNode referenceOutput = execute(referenceMatch, command);
+            JsonNode candidateOutput = execute(candidateMatch, command);
+            result.actions++;
+            if (!referenceOutput.equals(candidateOutput)) {
+                ObjectNode divergence = OBJECT_MAPPER.createObjectNode();
+                divergence.put("file", file.getPath());
+                divergence.put("game", gameIndex);
+                divergence.put("action", j);
+                divergence.set("command", OBJECT_MAPPER.valueToTree(command));
+                divergence.set(reference.getName(),
+                        describe(referenceMatch, referenceOutput));
+                divergence.set(candidate.getName(),
+                        describe(candidateMatch, candidateOutput));
+                result.divergence = divergence;
+                if (firstDivergentGame != null) {
+                    firstDivergentGame.accumulateAndGet(gameIndex, Math::min);
+                }
+                return result;
+            }
+            for (JsonNode entry : referenceOutput) {
+                JsonNode gameEnded = entry.get("gameEnded");
+                if (gameEnded == null) {
+                    continue;
+                }
+                if (gameEnded.asText().startsWith("Player one")) {
+                    result.playerOneWins++;
+                } else {
+                    result.playerTwoWins++;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Combines the results of the games of a file, up to its first divergence.
+     *
+     * @param file  The input file.
+     * @param games The results of the games, in order.
+     * @return The result of the file.
+     */
+    private FileResult combine(final File file,
+                               final List<GameResult> games) {
+        long actions = 0;
+        int playerOneWins = 0;
+        int playerTwoWins = 0;
+        for (GameResult game : games) {
+            actions += game.actions;
+            if (game.divergence != null) {
+                addWins(game.divergence.path(reference.getName()).path("output"),
+                        playerOneWins, playerTwoWins);
+                addWins(game.divergence.path(candidate.getName()).path("output"),
+                        playerOneWins, playerTwoWins);
+                return new FileResult(file, actions, game.divergence);
+            }
+            playerOneWins += game.playerOneWins;
+            playerTwoWins += game.playerTwoWins;
+        }
+        return new FileResult(file, actions, null);
+    }
+
+    /**
+     * Adds the wins of the previous games to the win queries of a command output.
+     *
+     * @param output        The output of the command.
+     * @param playerOneWins The wins of player one in the previous games.
+     * @param playerTwoWins The wins of player two in the previous games.
+     */
+    private static void addWins(final JsonNode output,
+                                final int playerOneWins,
+                                final int playerTwoWins) {
+        for (JsonNode entry : output) {
+            JsonNode wins = entry.get("output");
+            if (!(entry instanceof ObjectNode node) || wins == null || !wins.isInt()) {
+                continue;
+            }
+            switch (node.path("command").asText()) {
+                case "getPlayerOneWins" -> node.put("output", wins.asInt() + playerOneWins);
+                case "getPlayerTwoWins" -> node.put("output", wins.asInt() + playerTwoWins);
+                default -> {
+                    // Only the win queries depend on the previous games
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads an input file.
+     *
+     * @param file The input file.
+     * @return The input.
+     * @throws IOException if the input file cannot be read
+     */
+    private static Input read(final File file) throws IOException {
+        return EngineContext.get().getInputReader().readValue(file);
+    }
+
+    /**
+     * Waits for the result of a task.
+     *
+     * @param future The task.
+     * @param <T>    The type of the result.
+     * @return The result.
+     * @throws InterruptedException if the wait is interrupted
+     * @throws IOException if the task failed to read an input file
+     */
+    private static <T> T get(final Future<T> future)
+            throws InterruptedException, IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Executes a command and normalizes its output to a plain JSON tree. An exception
+     * thrown by the engine is recorded as part of the output, so crashes are compared too.
+     *
+     * @param match   The match to execute the command on.
+     * @param command The command to execute.
+     * @return The output of the command.
+     */
+    private static JsonNode execute(final EngineMatch match,
+                                    final ActionsInput command) {
+        ArrayNode output = OBJECT_MAPPER.createArrayNode();
+        try {
+            match.execute(command, output);
+        } catch (RuntimeException e) {
+            output.addObject().put("exception", e.getClass().getName());
+        }
+        return OBJECT_MAPPER.valueToTree(output);
+    }
+
+    /**
+     * Describes one side of a divergence.
+     *
+     * @param match  The match that diverged.
+     * @param output The output of the divergent command.
+     * @return The output and the state of the match.
+     */
+    private static ObjectNode describe(final EngineMatch match,
+                                       final JsonNode output) {
+        ObjectNode description = OBJECT_MAPPER.createObjectNode();
+        description.set("output", output);
+        try {
+            description.set("state", match.describeState());
+        } catch (RuntimeException e) {
+            description.put("state", "unavailable: " + e);
+        }
+        return description;
+    }
+
+    /**
+     * Loads an engine by class name.
+     *
+     * @param className The fully qualified class name of the engine.
+     * @return A new instance of the engine.
+     * @throws ReflectiveOperationException if the engine cannot be instantiated
+     */
+    private static GameEngine loadEngine(final String className)
+            throws ReflectiveOperationException {
+        return (GameEngine) Class.forName(className).getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * Adds a file, or all the JSON files of a directory, to the list of inputs.
+     *
+     * @param file  The file or directory.
+     * @param files The list of input files.
+     */
+    private static void addInputFiles(final File file,
+                                      final List<File> files) {
+        File[] children = file.listFiles((dir, name) -> name.endsWith(".json"));
+        if (children == null) {
+            files.add(file);
+            return;
+        }
+        Arrays.sort(children);
+        files.addAll(Arrays.asList(children));
+    }
+
+    /**
+     * The result of checking one game.
+     */
+    private static final class GameResult {
+        private long actions;
+        private int playerOneWins;
+        private int playerTwoWins;
+        private ObjectNode divergence;
+    }
+
+    /**
+     * The result of checking one input file.
+     */
+    public static final class FileResult {
+        private final File file;
+        private final long actions;
+        private final ObjectNode divergence;
+
+        private FileResult(final File file,
+                           final long actions,
+                           final ObjectNode divergence) {
+            this.file = file;
+            this.actions = actions;
+            this.divergence = divergence;
+        }
+
+        /**
+         * Gets the checked input file.
+         *
+         * @return The input file.
+         */
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * Gets the number of compared actions.
+         *
+         * @return The number of actions.
+         */
+        public long getActions() {
+            return actions;
+        }
+
+        /**
+         * Gets the first divergence of the file.
+         *
+         * @return The divergence report, or null if both engines agreed.
+         */
+        public ObjectNode getDivergence() {
+            return divergence;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.poo.main.Simulation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.poo.fileio.ActionsInput;
+
+/**
+ * Runs the games of one input file, one command at a time.
+ */
+public interface EngineMatch {
+
+    /**
+     * Initializes the game with the given index. Games are started in order, but a
+     * match may be given only some of the games of its input, e.g. a single one.
+     *
+     * @param gameIndex The index of the game in the input file.
+     */
+    void startGame(int gameIndex);
+
+    /**
+     * Executes a command of the current game.
+     *
+     * @param command The command to execute.
+     * @param output  The output ArrayNode to store the result of the command.
+     */
+    void execute(ActionsInput command, ArrayNode output);
+
+    /**
+     * Describes the complete state of the current game (decks, hands, playing table,
+     * heroes, mana, turn and statistics) for divergence reports.
+     *
+     * @return The state as a JSON tree.
+     */
+    JsonNode describeState();
+}
@@ -0,0 +1,27 @@
+package org.poo.main.Simulation;
+
+import org.poo.fileio.Input;
+
+/**
+ * A game engine implementation that can be compared against the reference engine
+ * by the {@link DifferentialTester}. Implementations need a public no-argument
+ * constructor so they can be loaded by class name.
+ */
+public interface GameEngine {
+
+    /**
+     * Gets a short name used in divergence reports.
+     *
+     * @return The name of the engine.
+     */
+    String getName();
+
+    /**
+     * Creates a match runner for an input file. The runner keeps the statistics
+     * shared by the games of the file (e.g. the number of wins of each player).
+     *
+     * @param inputData Input data containing the decks and games.
+     * @return A new match runner.
+     */
+    EngineMatch createMatch(Input inputData);
+}
@@ -0,0 +1,112 @@
+package org.poo.main.Simulation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.Input;
+import org.poo.main.CardHandler.Deck;
+import org.poo.main.CardHandler.Minion;
+import org.poo.main.EngineContext;
+import org.poo.main.GameSession;
+import org.poo.main.Utils;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * The reference game engine, backed by {@link GameSession} and the handler classes.
+ */
+public final class ReferenceEngine implements GameEngine {
+    private static final ObjectMapper OBJECT_MAPPER = EngineContext.get().getObjectMapper();
+
+    @Override
+    public String getName() {
+        return "reference";
+    }
+
+    @Override
+    public EngineMatch createMatch(final Input inputData) {
+        return new Match(inputData);
+    }
+
+    /**
+     * Runs the games of an input file on GameSession objects sharing one Utils object.
+     */
+    private static final class Match implements EngineMatch {
+        private final Input inputData;
+        private final LinkedList<LinkedList<Deck>> playerOne;
+        private final LinkedList<LinkedList<Deck>> playerTwo;
+        private final Utils utils = new Utils();
+        private GameSession session;
+
+        private Match(final Input inputData) {
+            this.inputData = inputData;
+            this.playerOne = Deck.setCardType(inputData.getPlayerOneDecks());
+            this.playerTwo = Deck.setCardType(inputData.getPlayerTwoDecks());
+        }
+
+        @Override
+        public void startGame(final int gameIndex) {
+            session = new GameSession(inputData.getGames().get(gameIndex).getStartGame(),
+                    gameIndex, playerOne, playerTwo, utils);
+        }
+
+        @Override
+        public void execute(final ActionsInput command,
+                            final ArrayNode output) {
+            session.execute(command, output);
+        }
+
+        @Override
+        public JsonNode describeState() {
+            ObjectNode state = OBJECT_MAPPER.createObjectNode();
+            state.put("turn", utils.getTurn());
+            state.put("numberOfRounds", utils.getNumberOfRounds());
+            state.put("playerOneMana", utils.getPlayerOneMana());
+            state.put("playerTwoMana", utils.getPlayerTwoMana());
+            state.put("playerOneWins", utils.getPlayerOneWins());
+            state.put("playerTwoWins", utils.getPlayerTwoWins());
+            ArrayNode playingTable = state.putArray("playingTable");
+            for (LinkedList<Minion> row : session.getPlayingTable()) {
+                playingTable.add(describeCards(row));
+            }
+            for (int playerIdx = 1; playerIdx <= 2; playerIdx++) {
+                String player = playerIdx == 1 ? "playerOne" : "playerTwo";
+                state.set(player + "Hero", describeCard(session.getPlayerHero(playerIdx)));
+                state.set(player + "Hand", describeCards(session.getPlayerHand(playerIdx)));
+                state.set(player + "Deck", describeCards(session.getPlayerDeck(playerIdx)));
+            }
+            return state;
+        }
+
+        /**
+         * Describes a list of cards.
+         *
+         * @param cards The cards to describe.
+         * @return The cards as a JSON array.
+         */
+        private static ArrayNode describeCards(final List<? extends Deck> cards) {
+            ArrayNode description = OBJECT_MAPPER.createArrayNode();
+            for (Deck card : cards) {
+                description.add(describeCard(card));
+            }
+            return description;
+        }
+
+        /**
+         * Describes a card, including the frozen and attack flags that are
+         * not part of the regular output.
+         *
+         * @param card The card to describe.
+         * @return The card as a JSON object.
+         */
+        private static ObjectNode describeCard(final Deck card) {
+            ObjectNode description = OBJECT_MAPPER.valueToTree(card);
+            description.put("isFrozen", card.getIsFrozen());
+            description.put("attackUsed", card.getAttackUsed());
+            return description;
+        }
+    }
+}
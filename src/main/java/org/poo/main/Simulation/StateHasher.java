@@ -0,0 +1,99 @@
+package org.poo.main.Simulation;
+
+import org.poo.main.CardHandler.Deck;
+import org.poo.main.CardHandler.Hero;
+import org.poo.main.CardHandler.Minion;
+import org.poo.main.GameSession;
+import org.poo.main.Utils;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Computes a 64-bit hash of the complete state of a game session: playing table, hands,
+ * decks, heroes and the fields of {@link Utils}. The hash only depends on the game state
+ * (FNV-1a over the field values), so it is stable across JVM versions and engine builds.
+ */
+public final class StateHasher {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    // Separates lists, so that moving a card between rows changes the hash
+    private static final int LIST_SEPARATOR = -1;
+
+    private long hash = FNV_OFFSET_BASIS;
+
+    private StateHasher() {
+    }
+
+    /**
+     * Hashes the state of a game session.
+     *
+     * @param session The game session.
+     * @return The state hash.
+     */
+    public static long hash(final GameSession session) {
+        StateHasher hasher = new StateHasher();
+        Utils utils = session.getUtils();
+        hasher.mix(utils.getTurn());
+        hasher.mix(utils.getNumberOfRounds());
+        hasher.mix(utils.getPlayerOneMana());
+        hasher.mix(utils.getPlayerTwoMana());
+        hasher.mix(utils.getPlayerOneWins());
+        hasher.mix(utils.getPlayerTwoWins());
+
+        for (LinkedList<Minion> row : session.getPlayingTable()) {
+            hasher.mixCards(row);
+        }
+        for (int playerIdx = 1; playerIdx <= 2; playerIdx++) {
+            Hero hero = session.getPlayerHero(playerIdx);
+            hasher.mixCard(hero);
+            hasher.mix(hero.getHealth());
+            hasher.mixCards(session.getPlayerHand(playerIdx));
+            hasher.mixCards(session.getPlayerDeck(playerIdx));
+        }
+        return hasher.hash;
+    }
+
+    /**
+     * Mixes a list of cards into the hash.
+     *
+     * @param cards The cards to mix.
+     */
+    private void mixCards(final List<? extends Deck> cards) {
+        for (Deck card : cards) {
+            mixCard(card);
+        }
+        mix(LIST_SEPARATOR);
+    }
+
+    /**
+     * Mixes the fields of a card that can change during a game, plus its name.
+     *
+     * @param card The card to mix.
+     */
+    private void mixCard(final Deck card) {
+        String name = card.getName();
+        for (int i = 0; i < name.length(); i++) {
+            mix(name.charAt(i));
+        }
+        mix(card.getMana());
+        mix(card.getIsFrozen());
+        mix(card.getAttackUsed());
+        if (card instanceof Minion minion) {
+            mix(minion.getHealth());
+            mix(minion.getAttackDamage());
+        }
+    }
+
+    /**
+     * Mixes the four bytes of an integer into the hash.
+     *
+     * @param value The value to mix.
+     */
+    private void mix(final int value) {
+        for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+            hash ^= (value >>> shift) & 0xff;
+            hash *= FNV_PRIME;
+        }
+    }
+}
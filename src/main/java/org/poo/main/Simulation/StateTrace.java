@@ -0,0 +1,127 @@
+package org.poo.main.Simulation;
+
+import org.poo.main.GameSession;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Records or verifies the state hash of every game after every command.
+ * <p>
+ * With {@code -Dgwent.trace.record=<dir>} a trace file {@code <input name>.trace} is written
+ * next to the regular output, with one line per command:
+ * {@code <game> <action> <command> <hash>}. With {@code -Dgwent.trace.verify=<dir>} the
+ * replay is checked against a previously recorded trace and the first divergent action
+ * is reported on the standard error; {@code Main.action} then fails once the output is
+ * written.
+ */
+public final class StateTrace implements Closeable {
+    public static final String RECORD_PROPERTY = "gwent.trace.record";
+    public static final String VERIFY_PROPERTY = "gwent.trace.verify";
+    private static final String EXTENSION = ".trace";
+
+    private final String inputName;
+    private final BufferedWriter writer;
+    private final BufferedReader reader;
+    private boolean diverged;
+
+    private StateTrace(final String inputName,
+                       final BufferedWriter writer,
+                       final BufferedReader reader) {
+        this.inputName = inputName;
+        this.writer = writer;
+        this.reader = reader;
+    }
+
+    /**
+     * Opens the trace of an input file, if tracing is enabled.
+     *
+     * @param inputName The name of the input file.
+     * @return The trace, or null if neither recording nor verifying is enabled.
+     * @throws IOException if the trace file cannot be opened
+     */
+    public static StateTrace open(final String inputName) throws IOException {
+        String recordDir = System.getProperty(RECORD_PROPERTY);
+        if (recordDir != null) {
+            File traceFile = new File(recordDir, inputName + EXTENSION);
+            Files.createDirectories(traceFile.getParentFile().toPath());
+            return new StateTrace(inputName, Files.newBufferedWriter(traceFile.toPath(),
+                    StandardCharsets.UTF_8), null);
+        }
+        String verifyDir = System.getProperty(VERIFY_PROPERTY);
+        if (verifyDir != null) {
+            File traceFile = new File(verifyDir, inputName + EXTENSION);
+            return new StateTrace(inputName, null, Files.newBufferedReader(traceFile.toPath(),
+                    StandardCharsets.UTF_8));
+        }
+        return null;
+    }
+
+    /**
+     * Records or verifies the state of a session after a command.
+     *
+     * @param session     The game session.
+     * @param actionIndex The index of the command in the game's command list.
+     * @param command     The name of the executed command.
+     */
+    public void afterCommand(final GameSession session,
+                             final int actionIndex,
+                             final String command) {
+        String line = session.getGameIndex() + " " + actionIndex + " " + command + " "
+                + Long.toHexString(StateHasher.hash(session));
+        try {
+            if (writer != null) {
+                writer.write(line);
+                writer.newLine();
+            } else if (!diverged) {
+                verify(reader.readLine(), line);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Compares a line of the replay with the stored trace and reports the first divergence.
+     *
+     * @param expected The stored line, or null if the stored trace ended.
+     * @param actual   The line of the replay.
+     */
+    private void verify(final String expected,
+                        final String actual) {
+        if (!actual.equals(expected)) {
+            diverged = true;
+            System.err.println("State trace divergence in " + inputName + ": expected "
+                    + (expected == null ? "end of trace" : "'" + expected + "'")
+                    + ", got '" + actual + "'");
+        }
+    }
+
+    /**
+     * Tells whether the replay diverged from the stored trace.
+     *
+     * @return True if a divergence was found.
+     */
+    public boolean hasDiverged() {
+        return diverged;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            return;
+        }
+        String remaining = reader.readLine();
+        if (!diverged && remaining != null) {
+            verify(remaining, "end of replay");
+        }
+        reader.close();
+    }
+}
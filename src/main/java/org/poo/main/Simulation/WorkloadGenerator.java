@@ -0,0 +1,495 @@
+package org.poo.main.Simulation;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.CardInput;
+import org.poo.fileio.Coordinates;
+import org.poo.fileio.DecksInput;
+import org.poo.fileio.StartGameInput;
+import org.poo.main.CardHandler.Deck;
+import org.poo.main.CardHandler.Minion;
+import org.poo.main.CardHandler.PlayerHand;
+import org.poo.main.EngineContext;
+import org.poo.main.GameSession;
+import org.poo.main.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates large, valid GwentStone input files for load testing.
+ * <p>
+ * Every game is simulated on a {@link GameSession} while its actions are generated, so
+ * mutating commands are checked against the engine's own rules: a candidate action is
+ * executed on the session and kept only if the engine produced the expected outcome
+ * (no error for legal actions, an error for invalid ones). Error producing commands
+ * never change the game state, so rejected candidates leave the session untouched.
+ * The mix of legal, invalid and query commands is approximate, since a candidate
+ * meant to be invalid that turns out to be legal is kept as a legal action.
+ * <p>
+ * The output is fully determined by the seed and is streamed to disk, so the
+ * generated files can hold millions of actions.
+ */
+public final class WorkloadGenerator {
+    private static final String[] MINIONS = {"Sentinel", "Berserker", "Goliath", "Warden",
+        "The Ripper", "Miraj", "The Cursed One", "Disciple"};
+    private static final String[] ABILITY_MINIONS = {"The Ripper", "Miraj",
+        "The Cursed One", "Disciple"};
+    private static final String[] ENVIRONMENTS = {"Firestorm", "Winterfell", "Heart Hound"};
+    private static final String[] HEROES = {"Lord Royce", "Empress Thorina",
+        "King Mudface", "General Kocioraw"};
+    private static final String[] COLORS = {"Red", "Blue", "Green", "Yellow",
+        "White", "Black", "Purple", "Brown"};
+    private static final String[] QUERIES = {"getCardsInHand", "getPlayerDeck",
+        "getCardsOnTable", "getPlayerTurn", "getPlayerHero", "getCardAtPosition",
+        "getPlayerMana", "getEnvironmentCardsInHand", "getFrozenCardsOnTable",
+        "getTotalGamesPlayed", "getPlayerOneWins", "getPlayerTwoWins"};
+
+    private static final int ROWS = 4;
+    private static final int ROW_SIZE = 5;
+    private static final int MAX_ATTEMPTS = 32;
+    private static final int MUTATION_KINDS = 7;
+    private static final int MAX_CARD_MANA = 6;
+    private static final int MAX_HERO_MANA = 4;
+    private static final int MAX_ATTACK = 7;
+    private static final int MAX_HEALTH = 8;
+    private static final int MAX_COLORS = 3;
+    private static final double ENVIRONMENT_RATIO = 0.2;
+
+    private final Random random;
+    private final int nrDecks;
+    private final int nrCardsInDeck;
+    private final int nrGames;
+    private final int actionsPerGame;
+    private final double queryRatio;
+    private final double invalidRatio;
+
+    private final ArrayNode scratchOutput = EngineContext.get().createArrayNode();
+    private GameSession session;
+    private boolean gameEnded;
+
+    /**
+     * Creates a generator with the given workload shape.
+     *
+     * @param seed           The seed all random decisions are derived from.
+     * @param nrDecks        The number of decks of each player.
+     * @param nrCardsInDeck  The number of cards in each deck.
+     * @param nrGames        The number of games.
+     * @param actionsPerGame The number of actions in each game.
+     * @param queryRatio     The share of read-only query commands.
+     * @param invalidRatio   The share of commands that should be rejected by the engine.
+     */
+    public WorkloadGenerator(final long seed,
+                             final int nrDecks,
+                             final int nrCardsInDeck,
+                             final int nrGames,
+                             final int actionsPerGame,
+                             final double queryRatio,
+                             final double invalidRatio) {
+        if (nrDecks < 1 || nrCardsInDeck < 1 || nrGames < 0 || actionsPerGame < 0
+                || queryRatio < 0 || invalidRatio < 0 || queryRatio + invalidRatio > 1) {
+            throw new IllegalArgumentException("Invalid workload settings.");
+        }
+        this.random = new Random(seed);
+        this.nrDecks = nrDecks;
+        this.nrCardsInDeck = nrCardsInDeck;
+        this.nrGames = nrGames;
+        this.actionsPerGame = actionsPerGame;
+        this.queryRatio = queryRatio;
+        this.invalidRatio = invalidRatio;
+    }
+
+    /**
+     * Generates an input file from the command line.
+     * Usage: {@code <output> [--seed N] [--decks N] [--cards N] [--games N]
+     * [--actions N] [--queries R] [--invalid R]}
+     *
+     * @param args from command line
+     * @throws IOException in case of exceptions to writing
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 0 || args.length % 2 == 0) {
+            System.out.println("Usage: WorkloadGenerator <output> [--seed N] [--decks N]"
+                    + " [--cards N] [--games N] [--actions N] [--queries R] [--invalid R]");
+            return;
+        }
+        long seed = 0;
+        int decks = 3;
+        int cards = 15;
+        int games = 10;
+        int actions = 100;
+        double queries = 0.2;
+        double invalid = 0.1;
+        for (int i = 1; i < args.length; i += 2) {
+            switch (args[i]) {
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--decks" -> decks = Integer.parseInt(args[i + 1]);
+                case "--cards" -> cards = Integer.parseInt(args[i + 1]);
+                case "--games" -> games = Integer.parseInt(args[i + 1]);
+                case "--actions" -> actions = Integer.parseInt(args[i + 1]);
+                case "--queries" -> queries = Double.parseDouble(args[i + 1]);
+                case "--invalid" -> invalid = Double.parseDouble(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        new WorkloadGenerator(seed, decks, cards, games, actions, queries, invalid)
+                .generate(new File(args[0]));
+    }
+
+    /**
+     * Generates the input and streams it to the given file.
+     *
+     * @param file The file to write the input to.
+     * @throws IOException in case of exceptions to writing
+     */
+    public void generate(final File file) throws IOException {
+        DecksInput playerOneDecks = createDecks();
+        DecksInput playerTwoDecks = createDecks();
+        LinkedList<LinkedList<Deck>> playerOne = Deck.setCardType(playerOneDecks);
+        LinkedList<LinkedList<Deck>> playerTwo = Deck.setCardType(playerTwoDecks);
+        Utils utils = new Utils();
+
+        ObjectMapper objectMapper = EngineContext.get().getObjectMapper();
+        try (JsonGenerator generator = objectMapper.getFactory()
+                .createGenerator(file, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeFieldName("playerOneDecks");
+            objectMapper.writeValue(generator, playerOneDecks);
+            generator.writeFieldName("playerTwoDecks");
+            objectMapper.writeValue(generator, playerTwoDecks);
+
+            generator.writeArrayFieldStart("games");
+            for (int i = 0; i < nrGames; i++) {
+                StartGameInput newGame = createStartGame();
+                generator.writeStartObject();
+                generator.writeFieldName("startGame");
+                objectMapper.writeValue(generator, newGame);
+                generator.writeArrayFieldStart("actions");
+                session = new GameSession(newGame, i, playerOne, playerTwo, utils);
+                gameEnded = false;
+                for (int j = 0; j < actionsPerGame; j++) {
+                    writeAction(generator, nextAction());
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Creates the decks of one player.
+     *
+     * @return The decks input.
+     */
+    private DecksInput createDecks() {
+        ArrayList<ArrayList<CardInput>> decks = new ArrayList<>(nrDecks);
+        for (int i = 0; i < nrDecks; i++) {
+            ArrayList<CardInput> deck = new ArrayList<>(nrCardsInDeck);
+            for (int j = 0; j < nrCardsInDeck; j++) {
+                deck.add(random.nextDouble() < ENVIRONMENT_RATIO
+                        ? createCard(pick(ENVIRONMENTS), false)
+                        : createCard(pick(MINIONS), true));
+            }
+            decks.add(deck);
+        }
+        DecksInput decksInput = new DecksInput();
+        decksInput.setNrDecks(nrDecks);
+        decksInput.setNrCardsInDeck(nrCardsInDeck);
+        decksInput.setDecks(decks);
+        return decksInput;
+    }
+
+    /**
+     * Creates a card with random stats.
+     *
+     * @param name     The name of the card.
+     * @param isMinion Whether the card needs health and attack damage.
+     * @return The card input.
+     */
+    private CardInput createCard(final String name,
+                                 final boolean isMinion) {
+        CardInput card = new CardInput();
+        card.setName(name);
+        card.setMana(1 + random.nextInt(MAX_CARD_MANA));
+        card.setDescription(name + " card");
+        ArrayList<String> colors = new ArrayList<>();
+        int nrColors = 1 + random.nextInt(MAX_COLORS);
+        for (int i = 0; i < nrColors; i++) {
+            colors.add(pick(COLORS));
+        }
+        card.setColors(colors);
+        if (isMinion) {
+            card.setAttackDamage(random.nextInt(MAX_ATTACK + 1));
+            card.setHealth(1 + random.nextInt(MAX_HEALTH));
+        }
+        return card;
+    }
+
+    /**
+     * Creates the settings of a new game.
+     *
+     * @return The start game input.
+     */
+    private StartGameInput createStartGame() {
+        StartGameInput newGame = new StartGameInput();
+        newGame.setPlayerOneDeckIdx(random.nextInt(nrDecks));
+        newGame.setPlayerTwoDeckIdx(random.nextInt(nrDecks));
+        newGame.setShuffleSeed(random.nextInt());
+        newGame.setStartingPlayer(1 + random.nextInt(2));
+        CardInput playerOneHero = createCard(pick(HEROES), false);
+        CardInput playerTwoHero = createCard(pick(HEROES), false);
+        playerOneHero.setMana(1 + random.nextInt(MAX_HERO_MANA));
+        playerTwoHero.setMana(1 + random.nextInt(MAX_HERO_MANA));
+        newGame.setPlayerOneHero(playerOneHero);
+        newGame.setPlayerTwoHero(playerTwoHero);
+        return newGame;
+    }
+
+    /**
+     * Chooses the next action of the current game. Once a hero was killed,
+     * only queries are generated for the rest of the game.
+     *
+     * @return The next action.
+     */
+    private ActionsInput nextAction() {
+        double roll = random.nextDouble();
+        if (gameEnded || roll < queryRatio) {
+            return createQuery();
+        }
+        ActionsInput action = tryMutation(roll < queryRatio + invalidRatio);
+        return action != null ? action : createQuery();
+    }
+
+    /**
+     * Tries random mutating candidates on the session until one matches the wanted
+     * outcome. Legal candidates change the session and are always kept.
+     *
+     * @param wantError Whether the action should be rejected by the engine.
+     * @return The chosen action, or null if no candidate matched.
+     */
+    private ActionsInput tryMutation(final boolean wantError) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            ActionsInput candidate = createMutation(wantError);
+            if (candidate == null) {
+                continue;
+            }
+            session.execute(candidate, scratchOutput);
+            boolean isError = false;
+            for (JsonNode outputEntry : scratchOutput) {
+                if (Utils.isErrorOutput(outputEntry)) {
+                    isError = true;
+                } else {
+                    gameEnded |= Utils.getOutputNode(outputEntry).has("gameEnded");
+                }
+            }
+            scratchOutput.removeAll();
+            if (!isError || wantError) {
+                return candidate;
+            }
+        }
+        if (wantError) {
+            return null;
+        }
+        ActionsInput endTurn = createAction("endPlayerTurn");
+        session.execute(endTurn, scratchOutput);
+        return endTurn;
+    }
+
+    /**
+     * Creates a random mutating command whose indices are all in range.
+     *
+     * @param wantError Whether the action should be rejected by the engine.
+     * @return The candidate action, or null if the drawn kind has no target.
+     */
+    private ActionsInput createMutation(final boolean wantError) {
+        int turn = session.getUtils().getTurn();
+        PlayerHand hand = session.getPlayerHand(turn);
+        int ownFrontRow = turn == 1 ? 2 : 1;
+        int ownBackRow = turn == 1 ? 3 : 0;
+
+        switch (random.nextInt(MUTATION_KINDS)) {
+            case 0: {
+                if (hand.isEmpty()) {
+                    return null;
+                }
+                ActionsInput action = createAction("placeCard");
+                action.setHandIdx(random.nextInt(hand.size()));
+                return action;
+            }
+            case 1:
+            case 2: {
+                Coordinates attacker = pickMinion(ownFrontRow, ownBackRow, null);
+                Coordinates attacked = pickMinion(0, ROWS - 1, null);
+                if (attacker == null || attacked == null) {
+                    return null;
+                }
+                ActionsInput action = createAction(random.nextBoolean()
+                        ? "cardUsesAttack" : "useAttackHero");
+                action.setCardAttacker(attacker);
+                if (action.getCommand().equals("cardUsesAttack")) {
+                    action.setCardAttacked(attacked);
+                }
+                return action;
+            }
+            case 3: {
+                Coordinates attacker = pickMinion(ownFrontRow, ownBackRow, ABILITY_MINIONS);
+                Coordinates attacked = pickMinion(0, ROWS - 1, null);
+                if (attacker == null || attacked == null) {
+                    return null;
+                }
+                ActionsInput action = createAction("cardUsesAbility");
+                action.setCardAttacker(attacker);
+                action.setCardAttacked(attacked);
+                return action;
+            }
+            case 4: {
+                ActionsInput action = createAction("useHeroAbility");
+                action.setAffectedRow(random.nextInt(ROWS));
+                return action;
+            }
+            case 5: {
+                if (hand.isEmpty()) {
+                    return null;
+                }
+                ActionsInput action = createAction("useEnvironmentCard");
+                action.setHandIdx(random.nextInt(hand.size()));
+                action.setAffectedRow(random.nextInt(ROWS));
+                // Heart Hound cannot steal from an empty row
+                if (hand.get(action.getHandIdx()).getName().equals("Heart Hound")
+                        && session.getPlayingTable().get(action.getAffectedRow()).isEmpty()) {
+                    return null;
+                }
+                return action;
+            }
+            default:
+                return wantError ? null : createAction("endPlayerTurn");
+        }
+    }
+
+    /**
+     * Picks a random minion from the given rows of the playing table.
+     *
+     * @param fromRow The first row to pick from.
+     * @param toRow   The last row to pick from.
+     * @param names   The allowed minion names, or null to allow any minion.
+     * @return The coordinates of the minion, or null if there is none.
+     */
+    private Coordinates pickMinion(final int fromRow,
+                                   final int toRow,
+                                   final String[] names) {
+        List<Coordinates> candidates = new ArrayList<>(ROWS * ROW_SIZE);
+        int firstRow = Math.min(fromRow, toRow);
+        int lastRow = Math.max(fromRow, toRow);
+        for (int x = firstRow; x <= lastRow; x++) {
+            LinkedList<Minion> row = session.getPlayingTable().get(x);
+            for (int y = 0; y < row.size(); y++) {
+                if (names == null || List.of(names).contains(row.get(y).getName())) {
+                    Coordinates coordinates = new Coordinates();
+                    coordinates.setX(x);
+                    coordinates.setY(y);
+                    candidates.add(coordinates);
+                }
+            }
+        }
+        return candidates.isEmpty() ? null : candidates.get(random.nextInt(candidates.size()));
+    }
+
+    /**
+     * Creates a random read-only query.
+     *
+     * @return The query action.
+     */
+    private ActionsInput createQuery() {
+        ActionsInput action = createAction(pick(QUERIES));
+        action.setPlayerIdx(1 + random.nextInt(2));
+        action.setX(random.nextInt(ROWS));
+        action.setY(random.nextInt(ROW_SIZE));
+        return action;
+    }
+
+    /**
+     * Creates an action with the given command name.
+     *
+     * @param command The command name.
+     * @return The action.
+     */
+    private static ActionsInput createAction(final String command) {
+        ActionsInput action = new ActionsInput();
+        action.setCommand(command);
+        return action;
+    }
+
+    /**
+     * Writes an action with only the fields its command reads.
+     *
+     * @param generator The generator to write to.
+     * @param action    The action to write.
+     * @throws IOException in case of exceptions to writing
+     */
+    private static void writeAction(final JsonGenerator generator,
+                                    final ActionsInput action) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("command", action.getCommand());
+        switch (action.getCommand()) {
+            case "getCardsInHand", "getPlayerDeck", "getPlayerHero", "getPlayerMana",
+                    "getEnvironmentCardsInHand" ->
+                    generator.writeNumberField("playerIdx", action.getPlayerIdx());
+            case "getCardAtPosition" -> {
+                generator.writeNumberField("x", action.getX());
+                generator.writeNumberField("y", action.getY());
+            }
+            case "placeCard" -> generator.writeNumberField("handIdx", action.getHandIdx());
+            case "useHeroAbility" ->
+                    generator.writeNumberField("affectedRow", action.getAffectedRow());
+            case "useEnvironmentCard" -> {
+                generator.writeNumberField("handIdx", action.getHandIdx());
+                generator.writeNumberField("affectedRow", action.getAffectedRow());
+            }
+            default -> {
+                writeCoordinates(generator, "cardAttacker", action.getCardAttacker());
+                writeCoordinates(generator, "cardAttacked", action.getCardAttacked());
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes a coordinates field if it is set.
+     *
+     * @param generator   The generator to write to.
+     * @param field       The field name.
+     * @param coordinates The coordinates, or null.
+     * @throws IOException in case of exceptions to writing
+     */
+    private static void writeCoordinates(final JsonGenerator generator,
+                                         final String field,
+                                         final Coordinates coordinates) throws IOException {
+        if (coordinates == null) {
+            return;
+        }
+        generator.writeObjectFieldStart(field);
+        generator.writeNumberField("x", coordinates.getX());
+        generator.writeNumberField("y", coordinates.getY());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Picks a random element of the given array.
+     *
+     * @param values The values to pick from.
+     * @return The picked value.
+     */
+    private String pick(final String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,44 @@
+package org.poo.main.Spectator;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.poo.fileio.ActionsInput;
+import org.poo.main.CardHandler.Minion;
+import org.poo.main.GameSession;
+
+import java.util.List;
+
+/**
+ * Observes the commands executed by a {@link GameSession}.
+ */
+public interface GameEventListener {
+
+    /**
+     * Called right before a command is executed.
+     *
+     * @param session The game session.
+     * @param command The command about to be executed.
+     */
+    void beforeCommand(GameSession session, ActionsInput command);
+
+    /**
+     * Called right after a command was executed.
+     *
+     * @param session    The game session.
+     * @param command    The executed command.
+     * @param output     The output ArrayNode the command wrote to.
+     * @param outputSize The size of the output before the command was executed.
+     */
+    void afterCommand(GameSession session, ActionsInput command,
+                      ArrayNode output, int outputSize);
+
+    /**
+     * Called while a command is executed, once per row it removed dead minions from.
+     *
+     * @param session The game session.
+     * @param row     The row the minions were removed from.
+     * @param minions The dead minions, in their left to right order.
+     */
+    default void minionsDied(final GameSession session, final int row,
+                             final List<Minion> minions) {
+    }
+}
@@ -0,0 +1,54 @@
+package org.poo.main.Spectator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A game event serialized once to JSON and shared by all the spectators of a match.
+ */
+public final class GameFrame {
+    private final String event;
+    private final byte[] bytes;
+    private final boolean droppable;
+
+    /**
+     * Creates a frame. The bytes must not be modified afterwards.
+     *
+     * @param event     The event type.
+     * @param bytes     The serialized event.
+     * @param droppable Whether slow spectators may skip this frame.
+     */
+    GameFrame(final String event,
+              final byte[] bytes,
+              final boolean droppable) {
+        this.event = event;
+        this.bytes = bytes;
+        this.droppable = droppable;
+    }
+
+    /**
+     * Gets the event type (e.g. "cardPlaced" or "gameEnded").
+     *
+     * @return The event type.
+     */
+    public String getEvent() {
+        return event;
+    }
+
+    /**
+     * Gets a read-only view of the serialized event.
+     *
+     * @return The JSON bytes of the event.
+     */
+    public ByteBuffer getBytes() {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Tells whether slow spectators may skip this frame.
+     *
+     * @return False for frames every spectator must receive (e.g. "gameEnded").
+     */
+    public boolean isDroppable() {
+        return droppable;
+    }
+}
@@ -0,0 +1,523 @@
+package org.poo.main.Spectator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.Coordinates;
+import org.poo.main.CardHandler.Deck;
+import org.poo.main.CardHandler.Minion;
+import org.poo.main.CardHandler.PlayerHand;
+import org.poo.main.EngineContext;
+import org.poo.main.GameSession;
+import org.poo.main.Utils;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes the events of one match to its spectators.
+ * <p>
+ * The events are derived from the commands executed by the game session: a card placed
+ * on the table, an attack or ability resolved, an environment card or hero ability used,
+ * a hero damaged, a turn or the game ended. Each event is serialized once into a
+ * {@link GameFrame} and the same frame is handed to every spectator.
+ * <p>
+ * Frames are delivered on the given executor, so a slow spectator never blocks the
+ * engine. Every spectator has a bounded queue: when it is full, the oldest droppable
+ * frame is dropped, so a spectator that falls behind skips intermediate events but
+ * still receives the latest ones and the end of the game. Frames that cannot be
+ * dropped (game start and end) are never evicted: if the queue only holds such frames,
+ * an incoming droppable frame is skipped instead, and a non-droppable one is queued
+ * beyond the capacity.
+ */
+public final class MatchBroadcaster implements GameEventListener, Flow.Publisher<GameFrame> {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final ObjectMapper OBJECT_MAPPER = EngineContext.get().getObjectMapper();
+
+    private final Executor executor;
+    private final int capacity;
+    private final List<SpectatorSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    // What the current command looked like before it was executed
+    private int turnBefore;
+    private int handSizeBefore;
+    private Deck handCardBefore;
+    private Minion attackerBefore;
+    private int attackerUsedBefore;
+    private Minion attackedBefore;
+    private int heroUsedBefore;
+
+    /**
+     * Creates a broadcaster delivering on the common pool with the default queue capacity.
+     */
+    public MatchBroadcaster() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a broadcaster.
+     *
+     * @param executor The executor the frames are delivered on.
+     * @param capacity The number of frames buffered for each spectator.
+     */
+    public MatchBroadcaster(final Executor executor,
+                            final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.executor = executor;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super GameFrame> subscriber) {
+        SpectatorSubscription subscription = new SpectatorSubscription(subscriber);
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+        if (closed) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Gets the number of spectators currently subscribed.
+     *
+     * @return The number of spectators.
+     */
+    public int getSpectatorCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Announces a new game of the match.
+     *
+     * @param session The game session that was started.
+     */
+    public void gameStarted(final GameSession session) {
+        ObjectNode event = createEvent("gameStarted", session);
+        event.put("playerOneHero", session.getPlayerHero(1).getName());
+        event.put("playerTwoHero", session.getPlayerHero(2).getName());
+        event.put("startingPlayer", session.getUtils().getTurn());
+        publish(event, false);
+    }
+
+    /**
+     * Ends the stream: the spectators receive the frames still queued, then onComplete.
+     */
+    public void close() {
+        closed = true;
+        for (SpectatorSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    @Override
+    public void beforeCommand(final GameSession session,
+                              final ActionsInput command) {
+        int turn = session.getUtils().getTurn();
+        PlayerHand hand = session.getPlayerHand(turn);
+        turnBefore = turn;
+        handSizeBefore = hand.size();
+        handCardBefore = command.getHandIdx() >= 0 && command.getHandIdx() < hand.size()
+                ? hand.get(command.getHandIdx()) : null;
+        attackerBefore = getMinion(session, command.getCardAttacker());
+        attackerUsedBefore = attackerBefore != null ? attackerBefore.getAttackUsed() : 0;
+        attackedBefore = getMinion(session, command.getCardAttacked());
+        heroUsedBefore = session.getPlayerHero(turn).getAttackUsed();
+    }
+
+    @Override
+    public void afterCommand(final GameSession session,
+                             final ActionsInput command,
+                             final ArrayNode output,
+                             final int outputSize) {
+        if (closed || subscriptions.isEmpty()) {
+            return;
+        }
+        // Error outputs and silently ignored commands leave the state untouched,
+        // so only the commands whose effect is visible produce an event
+        switch (command.getCommand()) {
+            case "placeCard" -> {
+                if (session.getPlayerHand(turnBefore).size() < handSizeBefore) {
+                    ObjectNode event = createEvent("cardPlaced", session);
+                    event.put("player", turnBefore);
+                    event.set("card", OBJECT_MAPPER.valueToTree(handCardBefore));
+                    event.put("row", findRow(session, handCardBefore));
+                    publish(event, true);
+                }
+            }
+            case "cardUsesAttack", "cardUsesAbility" -> {
+                if (attackerResolved()) {
+                    ObjectNode event = createEvent(command.getCommand().equals("cardUsesAttack")
+                            ? "attackResolved" : "abilityUsed", session);
+                    event.put("player", turnBefore);
+                    event.put("card", attackerBefore.getName());
+                    event.putPOJO("cardAttacker", command.getCardAttacker());
+                    event.putPOJO("cardAttacked", command.getCardAttacked());
+                    putTargetOutcome(event, session);
+                    publish(event, true);
+                }
+            }
+            case "useAttackHero" -> {
+                if (attackerResolved()) {
+                    int attackedPlayer = turnBefore == 1 ? 2 : 1;
+                    ObjectNode event = createEvent("heroDamaged", session);
+                    event.put("player", attackedPlayer);
+                    event.put("card", attackerBefore.getName());
+                    event.putPOJO("cardAttacker", command.getCardAttacker());
+                    event.put("health", Math.max(0,
+                            session.getPlayerHero(attackedPlayer).getHealth()));
+                    publish(event, true);
+                }
+            }
+            case "useHeroAbility" -> {
+                if (heroUsedBefore == 0
+                        && session.getPlayerHero(turnBefore).getAttackUsed() == 1) {
+                    ObjectNode event = createEvent("heroAbilityUsed", session);
+                    event.put("player", turnBefore);
+                    event.put("hero", session.getPlayerHero(turnBefore).getName());
+                    event.put("affectedRow", command.getAffectedRow());
+                    event.set("row", OBJECT_MAPPER.valueToTree(
+                            session.getPlayingTable().get(command.getAffectedRow())));
+                    publish(event, true);
+                }
+            }
+            case "useEnvironmentCard" -> {
+                if (session.getPlayerHand(turnBefore).size() < handSizeBefore) {
+                    ObjectNode event = createEvent("environmentCardUsed", session);
+                    event.put("player", turnBefore);
+                    event.put("card", handCardBefore.getName());
+                    event.put("affectedRow", command.getAffectedRow());
+                    event.set("table", OBJECT_MAPPER.valueToTree(session.getPlayingTable()));
+                    publish(event, true);
+                }
+            }
+            case "endPlayerTurn" -> {
+                ObjectNode event = createEvent("turnEnded", session);
+                event.put("playerTurn", session.getUtils().getTurn());
+                event.put("round", session.getUtils().getNumberOfRounds());
+                publish(event, true);
+            }
+            default -> {
+                // Queries do not change the game
+            }
+        }
+
+        for (int i = outputSize; i < output.size(); i++) {
+            JsonNode outputNode = Utils.getOutputNode(output.get(i));
+            if (outputNode.has("gameEnded")) {
+                ObjectNode event = createEvent("gameEnded", session);
+                event.put("message", outputNode.get("gameEnded").asText());
+                event.put("winner", turnBefore);
+                publish(event, false);
+            }
+        }
+    }
+
+    /**
+     * Tells whether the attacker of the current command was used by it.
+     *
+     * @return True if the attack or ability resolved.
+     */
+    private boolean attackerResolved() {
+        return attackerBefore != null && attackerUsedBefore == 0
+                && attackerBefore.getAttackUsed() == 1;
+    }
+
+    /**
+     * Adds the health of the attacked card to the event, or marks it as killed
+     * if it left the table.
+     *
+     * @param event   The event to complete.
+     * @param session The game session.
+     */
+    private void putTargetOutcome(final ObjectNode event,
+                                  final GameSession session) {
+        if (attackedBefore == null) {
+            return;
+        }
+        if (findRow(session, attackedBefore) == -1) {
+            event.put("killed", true);
+        } else {
+            event.put("killed", false);
+            event.put("health", attackedBefore.getHealth());
+        }
+    }
+
+    /**
+     * Creates an event node with the fields shared by all the events.
+     *
+     * @param type    The event type.
+     * @param session The game session.
+     * @return The event node.
+     */
+    private static ObjectNode createEvent(final String type,
+                                          final GameSession session) {
+        ObjectNode event = OBJECT_MAPPER.createObjectNode();
+        event.put("event", type);
+        event.put("game", session.getGameIndex());
+        return event;
+    }
+
+    /**
+     * Gets the minion at the given coordinates, if any.
+     *
+     * @param session     The game session.
+     * @param coordinates The coordinates, possibly null.
+     * @return The minion, or null if there is none.
+     */
+    private static Minion getMinion(final GameSession session,
+                                    final Coordinates coordinates) {
+        if (coordinates == null || coordinates.getX() < 0
+                || coordinates.getX() >= GameSession.INITIAL_CAPACITY) {
+            return null;
+        }
+        LinkedList<Minion> row = session.getPlayingTable().get(coordinates.getX());
+        return coordinates.getY() >= 0 && coordinates.getY() < row.size()
+                ? row.get(coordinates.getY()) : null;
+    }
+
+    /**
+     * Finds the row holding the given card.
+     *
+     * @param session The game session.
+     * @param card    The card to look for.
+     * @return The row index, or -1 if the card is not on the table.
+     */
+    private static int findRow(final GameSession session,
+                               final Deck card) {
+        for (int row = 0; row < GameSession.INITIAL_CAPACITY; row++) {
+            for (Minion minion : session.getPlayingTable().get(row)) {
+                if (minion == card) {
+                    return row;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Serializes an event once and queues the frame for every spectator.
+     *
+     * @param event     The event to publish.
+     * @param droppable Whether slow spectators may skip it.
+     */
+    private void publish(final ObjectNode event,
+                         final boolean droppable) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        byte[] bytes;
+        try {
+            bytes = OBJECT_MAPPER.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            // A spectator event must never break the game
+            return;
+        }
+        GameFrame frame = new GameFrame(event.get("event").asText(), bytes, droppable);
+        for (SpectatorSubscription subscription : subscriptions) {
+            subscription.offer(frame);
+        }
+    }
+
+    /**
+     * The subscription of one spectator: a bounded frame queue drained on the executor.
+     */
+    private final class SpectatorSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super GameFrame> subscriber;
+        private final ArrayDeque<GameFrame> queue = new ArrayDeque<>();
+        // Number of drain requests, the subscriber is only called by one drain at a time
+        private final AtomicInteger pending = new AtomicInteger();
+        private long demand;
+        private long droppedFrames;
+        private boolean completed;
+        private boolean cancelled;
+        private boolean terminated;
+        // A protocol violation of the spectator, signalled by the drain loop
+        private Throwable error;
+
+        /**
+         * Creates the subscription of a spectator.
+         *
+         * @param subscriber The spectator.
+         */
+        private SpectatorSubscription(final Flow.Subscriber<? super GameFrame> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Queues a frame, dropping the oldest droppable one if the queue is full.
+         *
+         * @param frame The frame to deliver.
+         */
+        private void offer(final GameFrame frame) {
+            synchronized (this) {
+                if (cancelled || completed || error != null) {
+                    return;
+                }
+                if (queue.size() >= capacity && !dropOldest()) {
+                    if (frame.isDroppable()) {
+                        // Only game starts and ends are queued, they are worth more
+                        droppedFrames++;
+                        return;
+                    }
+                }
+                queue.addLast(frame);
+            }
+            signal();
+        }
+
+        /**
+         * Drops the oldest droppable frame of the queue.
+         *
+         * @return False if the queue only holds frames that cannot be dropped.
+         */
+        private boolean dropOldest() {
+            Iterator<GameFrame> frames = queue.iterator();
+            while (frames.hasNext()) {
+                if (frames.next().isDroppable()) {
+                    frames.remove();
+                    droppedFrames++;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Marks the stream as complete once the queued frames are delivered.
+         */
+        private void complete() {
+            synchronized (this) {
+                completed = true;
+            }
+            signal();
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                synchronized (this) {
+                    if (error == null) {
+                        error = new IllegalArgumentException(
+                                "The number of requested frames must be positive.");
+                    }
+                    queue.clear();
+                }
+                subscriptions.remove(this);
+                // onError is called by the drain loop, never next to an onNext
+                signal();
+                return;
+            }
+            synchronized (this) {
+                // Saturate instead of overflowing, Long.MAX_VALUE means unbounded
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                queue.clear();
+            }
+            subscriptions.remove(this);
+        }
+
+        /**
+         * Schedules a drain unless one is already running.
+         */
+        private void signal() {
+            if (pending.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Delivers the queued frames the spectator asked for.
+         */
+        private void drain() {
+            while (true) {
+                GameFrame frame;
+                Throwable failure = null;
+                synchronized (this) {
+                    if (cancelled || terminated) {
+                        return;
+                    }
+                    if (error != null) {
+                        terminated = true;
+                        failure = error;
+                        frame = null;
+                    } else if (queue.isEmpty()) {
+                        if (!completed) {
+                            return;
+                        }
+                        terminated = true;
+                        frame = null;
+                    } else if (demand == 0) {
+                        return;
+                    } else {
+                        frame = queue.pollFirst();
+                        if (demand != Long.MAX_VALUE) {
+                            demand--;
+                        }
+                    }
+                }
+                if (failure != null) {
+                    subscriber.onError(failure);
+                    return;
+                }
+                if (frame == null) {
+                    subscriptions.remove(this);
+                    subscriber.onComplete();
+                    return;
+                }
+                subscriber.onNext(frame);
+            }
+        }
+
+        /**
+         * Gets the number of frames this spectator skipped because it fell behind.
+         *
+         * @return The number of dropped frames.
+         */
+        private synchronized long getDroppedFrames() {
+            return droppedFrames;
+        }
+    }
+
+    /**
+     * Gets the total number of frames skipped by the spectators still subscribed.
+     *
+     * @return The number of dropped frames.
+     */
+    public long getDroppedFrames() {
+        long dropped = 0;
+        for (SpectatorSubscription subscription : subscriptions) {
+            dropped += subscription.getDroppedFrames();
+        }
+        return dropped;
+    }
+}
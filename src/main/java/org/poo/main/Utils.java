@@ -1,6 +1,9 @@
 package org.poo.main;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.POJONode;
 import org.poo.main.CardHandler.Minion;
+import org.poo.main.GameHandler.ErrorOutput;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
@@ -125,7 +128,7 @@ public final class    Utils {
 
     /**
      * Checks if there are any 'Tanks' on the specified player's side of the table.
-     * A 'Tank' is represented by a minion with the name 'Goliath' or 'Warden'.
+     * A 'Tank' is a minion whose card rules mark it as a tank, like 'Goliath' or 'Warden'.
      *
      * @param playingTable the playing table represented by an ArrayList of LinkedLists of minions
      * @param turn the player's side of the table to check (0 for player one, 1 for player two)
@@ -133,10 +136,46 @@ public final class    Utils {
      */
     public static int isTank(final ArrayList<LinkedList<Minion>> playingTable, final int turn) {
         for (Minion minion : playingTable.get(turn)) {
-            if (minion.getName().equals("Goliath") || minion.getName().equals("Warden")) {
+            if (minion.getRule().isTank()) {
                 return 1; // Tank found
             }
         }
         return 0; // No Tank found
     }
+
+    /**
+     * Gets the JSON node of an output entry. The handlers add their result nodes with
+     * {@code addPOJO}, which wraps them in a POJONode, so the wrapped node is returned
+     * to allow inspecting its fields. Error entries are converted to a node. Game
+     * snapshots are written as token buffers and returned as they are, since they
+     * report neither errors nor the end of a game.
+     *
+     * @param outputEntry an entry of the output ArrayNode
+     * @return the wrapped node, or the entry itself if it is not wrapped
+     */
+    public static JsonNode getOutputNode(final JsonNode outputEntry) {
+        if (outputEntry instanceof POJONode pojoNode) {
+            if (pojoNode.getPojo() instanceof JsonNode wrappedNode) {
+                return wrappedNode;
+            }
+            if (pojoNode.getPojo() instanceof ErrorOutput errorOutput) {
+                return errorOutput.toJsonNode();
+            }
+        }
+        return outputEntry;
+    }
+
+    /**
+     * Tells whether an output entry reports an error, without converting it to a node.
+     *
+     * @param outputEntry an entry of the output ArrayNode
+     * @return true if the entry has an "error" field
+     */
+    public static boolean isErrorOutput(final JsonNode outputEntry) {
+        if (outputEntry instanceof POJONode pojoNode
+                && pojoNode.getPojo() instanceof ErrorOutput) {
+            return true;
+        }
+        return getOutputNode(outputEntry).has("error");
+    }
 }
@@ -0,0 +1,151 @@
+package org.poo.main.CardHandler;
+
+import org.junit.jupiter.api.Test;
+import org.poo.fileio.CardInput;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks that shuffling with cached permutations orders a deck exactly like
+ * {@code Collections.shuffle} with a seeded {@link Random}.
+ */
+public final class ShufflePermutationsTest {
+    private static final int MAX_SIZE = 40;
+    private static final int[] SEEDS = {0, 1, 2, 7, 42, 1000, 123456789, -1, -987654321,
+            Integer.MAX_VALUE, Integer.MIN_VALUE};
+    private static final int EVICTED_SEED = 424242;
+    private static final int KEPT_SEED = 434343;
+    private static final int FILL_SEED = 1 << 24;
+    private static final int SIZE = 12;
+
+    /**
+     * Every seed and size gives the order of {@code Collections.shuffle}, both when the
+     * permutation is computed and when it comes from the cache, and after a draw.
+     */
+    @Test
+    public void shuffleMatchesCollectionsShuffle() {
+        for (int seed : SEEDS) {
+            for (int size = 0; size <= MAX_SIZE; size++) {
+                List<String> names = createNames(size);
+                // The first shuffle may compute the permutation, the second one reuses it
+                assertShuffleMatches(names, seed);
+                assertShuffleMatches(names, seed);
+                assertSame(ShufflePermutations.get(seed, size),
+                        ShufflePermutations.get(seed, size));
+            }
+        }
+
+        PlayerDeck deck = new PlayerDeck(createCards(createNames(SIZE)));
+        deck.draw();
+        List<String> remaining = getNames(deck);
+        deck.shuffle(SEEDS[4]);
+        Collections.shuffle(remaining, new Random(SEEDS[4]));
+        assertEquals(remaining, getNames(deck));
+    }
+
+    /**
+     * The least recently used permutations are evicted, a recently used one is kept, and
+     * an evicted permutation is computed again, cached, and still gives the same order.
+     */
+    @Test
+    public void evictedPermutationsAreRecomputed() {
+        List<String> names = createNames(SIZE);
+        int[] kept = ShufflePermutations.get(KEPT_SEED, SIZE);
+        int[] evicted = ShufflePermutations.get(EVICTED_SEED, SIZE);
+        fill(0, ShufflePermutations.MAX_ENTRIES / 2);
+        // Using the older permutation makes it the most recently used one
+        assertSame(kept, ShufflePermutations.get(KEPT_SEED, SIZE));
+        fill(ShufflePermutations.MAX_ENTRIES / 2, ShufflePermutations.MAX_ENTRIES);
+
+        assertSame(kept, ShufflePermutations.get(KEPT_SEED, SIZE));
+        int[] recomputed = ShufflePermutations.get(EVICTED_SEED, SIZE);
+        assertNotSame(evicted, recomputed);
+        assertSame(recomputed, ShufflePermutations.get(EVICTED_SEED, SIZE));
+        assertShuffleMatches(names, EVICTED_SEED);
+        assertShuffleMatches(names, KEPT_SEED);
+    }
+
+    /**
+     * Caches the permutations of new seeds.
+     *
+     * @param from The first seed offset, inclusive.
+     * @param to   The last seed offset, exclusive.
+     */
+    private static void fill(final int from,
+                             final int to) {
+        for (int i = from; i < to; i++) {
+            ShufflePermutations.get(FILL_SEED + i, SIZE);
+        }
+    }
+
+    /**
+     * Shuffles a deck of the given cards and compares it with {@code Collections.shuffle}.
+     *
+     * @param names The names of the cards, in input order.
+     * @param seed  The shuffle seed.
+     */
+    private static void assertShuffleMatches(final List<String> names,
+                                             final int seed) {
+        PlayerDeck deck = new PlayerDeck(createCards(names));
+        deck.shuffle(seed);
+        List<String> expected = new ArrayList<>(names);
+        Collections.shuffle(expected, new Random(seed));
+        assertEquals(expected, getNames(deck), "seed " + seed + ", size " + names.size());
+    }
+
+    /**
+     * Creates distinct card names.
+     *
+     * @param size The number of cards.
+     * @return The names.
+     */
+    private static List<String> createNames(final int size) {
+        List<String> names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add("Card " + i);
+        }
+        return names;
+    }
+
+    /**
+     * Creates a minion for every name.
+     *
+     * @param names The names of the cards.
+     * @return The cards.
+     */
+    private static List<Deck> createCards(final List<String> names) {
+        List<Deck> cards = new ArrayList<>(names.size());
+        for (String name : names) {
+            CardInput card = new CardInput();
+            card.setMana(1);
+            card.setHealth(1);
+            card.setAttackDamage(1);
+            card.setDescription("Sentinel card");
+            card.setColors(new ArrayList<>(List.of("Red")));
+            card.setName(name);
+            cards.add(new Minion(card));
+        }
+        return cards;
+    }
+
+    /**
+     * Gets the names of the remaining cards of a deck, in draw order.
+     *
+     * @param deck The deck.
+     * @return The names.
+     */
+    private static List<String> getNames(final PlayerDeck deck) {
+        List<String> names = new ArrayList<>(deck.size());
+        for (Deck card : deck) {
+            names.add(card.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,121 @@
+package org.poo.main.Encoding;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.poo.main.EngineContext;
+import org.poo.main.TestInputs;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that CBOR output holds the same logical content as the JSON output.
+ */
+public final class CborRoundTripTest {
+    private static final long SEED = 40;
+    private static final int GAMES = 4;
+    private static final int ACTIONS = 120;
+    private static final double HALF_SUBNORMAL = 0x1p-24;
+
+    /**
+     * A game output written as CBOR and converted back gives the same JSON file, and
+     * converting that file to CBOR again gives the same CBOR file.
+     *
+     * @throws IOException If a temporary file cannot be written.
+     */
+    @Test
+    public void gameOutputConvertsBackToSameJson() throws IOException {
+        ArrayNode output = TestInputs.run(TestInputs.generate(SEED, GAMES, ACTIONS));
+        Path directory = Files.createTempDirectory("gwent-cbor");
+        File json = directory.resolve("out.json").toFile();
+        File cbor = directory.resolve("out.cbor").toFile();
+        File converted = directory.resolve("converted.json").toFile();
+        File reencoded = directory.resolve("reencoded.cbor").toFile();
+        try {
+            OutputFormat.JSON.write(json, output);
+            OutputFormat.CBOR.write(cbor, output);
+
+            CborConverter.toJson(cbor, converted);
+            assertArrayEquals(Files.readAllBytes(json.toPath()),
+                    Files.readAllBytes(converted.toPath()));
+            CborConverter.toCbor(json, reencoded);
+            assertArrayEquals(Files.readAllBytes(cbor.toPath()),
+                    Files.readAllBytes(reencoded.toPath()));
+        } finally {
+            for (File file : new File[] {json, cbor, converted, reencoded}) {
+                Files.deleteIfExists(file.toPath());
+            }
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * Scalars at the limits of their encodings and empty containers survive a round trip.
+     *
+     * @throws IOException If encoding fails.
+     */
+    @Test
+    public void valuesSurviveRoundTrip() throws IOException {
+        ObjectNode node = EngineContext.get().createObjectNode();
+        node.put("zero", 0);
+        node.put("inline", 23);
+        node.put("oneByte", 255);
+        node.put("twoBytes", 65535);
+        node.put("fourBytes", 4294967295L);
+        node.put("max", Long.MAX_VALUE);
+        node.put("minusOne", -1);
+        node.put("min", Long.MIN_VALUE);
+        node.put("double", -2.5);
+        node.put("text", "Empress Thorina \u2744 \uD83C\uDCCF");
+        node.put("empty", "");
+        node.put("true", true);
+        node.put("false", false);
+        node.putNull("null");
+        node.putArray("emptyArray");
+        node.putObject("emptyObject");
+        node.putArray("nested").addArray().addObject().put("x", 1);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OutputFormat.writeCbor(out, node);
+        JsonNode decoded = CborDecoder.readTree(new ByteArrayInputStream(out.toByteArray()));
+        // Integers are decoded as longs, so the trees are compared as JSON text
+        assertEquals(TestInputs.toJson(node), TestInputs.toJson(decoded));
+    }
+
+    /**
+     * Half precision numbers written by other encoders are decoded exactly.
+     *
+     * @throws IOException If decoding fails.
+     */
+    @Test
+    public void halfPrecisionNumbersAreDecoded() throws IOException {
+        assertEquals(1.0, decodeHalf(0x3C00), 0);
+        assertEquals(-4.0, decodeHalf(0xC400), 0);
+        assertEquals(65504.0, decodeHalf(0x7BFF), 0);
+        assertEquals(HALF_SUBNORMAL, decodeHalf(0x0001), 0);
+        assertEquals(Double.POSITIVE_INFINITY, decodeHalf(0x7C00), 0);
+        assertEquals(Double.NEGATIVE_INFINITY, decodeHalf(0xFC00), 0);
+        assertEquals(Double.NaN, decodeHalf(0x7E00), 0);
+    }
+
+    /**
+     * Decodes a CBOR half precision number.
+     *
+     * @param half The 16 bits of the number.
+     * @return The decoded number.
+     * @throws IOException If decoding fails.
+     */
+    private static double decodeHalf(final int half) throws IOException {
+        byte[] bytes = {(byte) 0xF9, (byte) (half >>> Byte.SIZE), (byte) half};
+        return CborDecoder.readTree(new ByteArrayInputStream(bytes)).doubleValue();
+    }
+}
@@ -0,0 +1,145 @@
+package org.poo.main.GameAction;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.Input;
+import org.poo.main.EngineContext;
+import org.poo.main.GameSession;
+import org.poo.main.TestInputs;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the deltas of a game, applied in order to its first keyframe, rebuild the
+ * keyframe of every later version.
+ */
+public final class StateDiffEncoderTest {
+    private static final long SEED = 34;
+    private static final int GAMES = 3;
+    private static final int ACTIONS = 150;
+    private static final int KEYFRAME_INTERVAL = 8;
+
+    /**
+     * Only the first version is a keyframe, all the others are rebuilt from deltas.
+     */
+    @Test
+    public void deltasRebuildSnapshot() {
+        checkGames(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Keyframes emitted again in the middle of a game replace the rebuilt state.
+     */
+    @Test
+    public void periodicKeyframesRebuildSnapshot() {
+        checkGames(KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Plays every game of a generated input and compares the rebuilt state with a fresh
+     * keyframe after each action.
+     *
+     * @param keyframeInterval The keyframe interval of the encoder under test.
+     */
+    private static void checkGames(final int keyframeInterval) {
+        Input inputData = TestInputs.generate(SEED, GAMES, ACTIONS);
+        int deltas = 0;
+        for (int gameIndex = 0; gameIndex < GAMES; gameIndex++) {
+            GameSession session = TestInputs.newSession(inputData, gameIndex);
+            StateDiffEncoder encoder = new StateDiffEncoder(keyframeInterval);
+            ObjectNode state = encoder.encode(session);
+            assertTrue(state.path("keyframe").asBoolean());
+
+            ArrayNode scratch = EngineContext.get().createArrayNode();
+            int version = 1;
+            for (ActionsInput action : inputData.getGames().get(gameIndex).getActions()) {
+                session.execute(action, scratch);
+                scratch.removeAll();
+                ObjectNode next = encoder.encode(session);
+                version++;
+                assertEquals(version, next.get("version").asInt());
+                if (next.path("keyframe").asBoolean()) {
+                    state = next;
+                } else {
+                    assertEquals(version - 1, next.get("base").asInt());
+                    apply(state, next);
+                    deltas++;
+                }
+                assertEquals(snapshot(session), withoutVersion(state),
+                        "game " + gameIndex + ", version " + version);
+            }
+        }
+        assertTrue(deltas > 0);
+    }
+
+    /**
+     * Encodes the current state of a session as a keyframe of a new encoder.
+     *
+     * @param session The session.
+     * @return The keyframe, without its version.
+     */
+    private static ObjectNode snapshot(final GameSession session) {
+        return withoutVersion(new StateDiffEncoder().encode(session));
+    }
+
+    /**
+     * Copies a keyframe without its version number.
+     *
+     * @param keyframe The keyframe.
+     * @return The copy.
+     */
+    private static ObjectNode withoutVersion(final ObjectNode keyframe) {
+        ObjectNode copy = keyframe.deepCopy();
+        copy.remove("version");
+        return copy;
+    }
+
+    /**
+     * Applies a delta to a rebuilt keyframe.
+     *
+     * @param state The rebuilt keyframe, updated in place.
+     * @param delta The delta.
+     */
+    private static void apply(final ObjectNode state,
+                              final ObjectNode delta) {
+        for (JsonNode change : delta.get("changes")) {
+            String[] slot = change.get("slot").asText().split("/");
+            int player = Integer.parseInt(slot[1]);
+            if (slot[0].equals("hero")) {
+                assertEquals("update", change.get("op").asText());
+                ((ArrayNode) state.get("heroes")).set(player - 1, change.get("card"));
+                continue;
+            }
+            ArrayNode list = switch (slot[0]) {
+                case "table" -> (ArrayNode) state.get("table").get(player);
+                case "hand" -> (ArrayNode) state.get("hands").get(player - 1);
+                default -> (ArrayNode) state.get("decks").get(player - 1);
+            };
+            int index = Integer.parseInt(slot[2]);
+            switch (change.get("op").asText()) {
+                case "update" -> list.set(index, change.get("card"));
+                case "insert" -> list.insert(index, change.get("card"));
+                default -> {
+                    for (int i = 0; i < change.get("count").asInt(); i++) {
+                        list.remove(index);
+                    }
+                }
+            }
+        }
+        // The scalars of a delta are the ones that changed
+        Iterator<Map.Entry<String, JsonNode>> fields = delta.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!field.getKey().equals("changes") && !field.getKey().equals("base")) {
+                state.set(field.getKey(), field.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.poo.main;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.Test;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.GameInput;
+import org.poo.fileio.Input;
+import org.poo.main.CardHandler.Deck;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that running games as a trie gives the output of playing them one by one.
+ */
+public final class GamePrefixTrieTest {
+    private static final long SEED = 44;
+    private static final int GAMES = 3;
+    private static final int ACTIONS = 120;
+    private static final int SHORT_PREFIX = 30;
+    private static final int LONG_PREFIX = 70;
+
+    /**
+     * Games sharing prefixes of different lengths, a duplicate and a game that is a prefix
+     * of another give the same output as a plain run.
+     */
+    @Test
+    public void sharedPrefixesMatchPlainRun() {
+        Input inputData = createInput();
+        String plain = TestInputs.toJson(
+                TestInputs.runWith(inputData, GameResultCache.ENABLED_PROPERTY, "false"));
+        String trie = TestInputs.toJson(
+                TestInputs.runWith(inputData, GamePrefixTrie.ENABLED_PROPERTY, "true"));
+        assertEquals(plain, trie);
+    }
+
+    /**
+     * The shared actions are only executed once.
+     */
+    @Test
+    public void sharedActionsExecuteOnce() {
+        Input inputData = createInput();
+        GamePrefixTrie trie = new GamePrefixTrie(inputData,
+                Deck.setCardType(inputData.getPlayerOneDecks()),
+                Deck.setCardType(inputData.getPlayerTwoDecks()));
+        ArrayNode output = EngineContext.get().createArrayNode();
+        trie.run(output, new Utils());
+
+        long shared = ACTIONS + LONG_PREFIX + SHORT_PREFIX;
+        assertEquals(trie.getTotalActions() - shared, trie.getExecutedActions());
+        assertTrue(output.size() > 0);
+    }
+
+    /**
+     * Generates games and adds games branching from the first one.
+     *
+     * @return The input.
+     */
+    private static Input createInput() {
+        Input inputData = TestInputs.generate(SEED, GAMES, ACTIONS);
+        ArrayList<GameInput> games = inputData.getGames();
+        GameInput first = games.get(0);
+        // Same start as the first game, then the turn ends and queries of the second one,
+        // which are valid in any state
+        List<ActionsInput> other = games.get(1).getActions().stream()
+                .filter(action -> QueryCache.isCacheable(action)
+                        || action.getCommand().equals("endPlayerTurn"))
+                .toList();
+        games.add(branch(first, LONG_PREFIX, other));
+        // A duplicate of the first game
+        games.add(first);
+        // A prefix of the first game
+        games.add(branch(first, SHORT_PREFIX, List.of()));
+        return inputData;
+    }
+
+    /**
+     * Creates a game starting like another one and continuing with other actions.
+     *
+     * @param game   The game to branch from.
+     * @param length The number of actions taken from it.
+     * @param rest   The actions played after them.
+     * @return The new game.
+     */
+    private static GameInput branch(final GameInput game,
+                                    final int length,
+                                    final List<ActionsInput> rest) {
+        ArrayList<ActionsInput> actions = new ArrayList<>(game.getActions().subList(0, length));
+        actions.addAll(rest);
+        GameInput branch = new GameInput();
+        branch.setStartGame(game.getStartGame());
+        branch.setActions(actions);
+        return branch;
+    }
+}
@@ -0,0 +1,62 @@
+package org.poo.main;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.Test;
+import org.poo.fileio.GameInput;
+import org.poo.fileio.Input;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that replaying duplicate games gives the output of playing them.
+ */
+public final class GameResultCacheTest {
+    private static final long SEED = 43;
+    private static final int GAMES = 4;
+    private static final int ACTIONS = 100;
+
+    /**
+     * Duplicates replayed from the cache, including their statistics queries, give the
+     * same output as a run without memoization.
+     */
+    @Test
+    public void duplicateGamesMatchPlainRun() {
+        Input inputData = TestInputs.generate(SEED, GAMES, ACTIONS);
+        ArrayList<GameInput> games = inputData.getGames();
+        games.add(games.get(0));
+        games.add(games.get(2));
+        games.add(games.get(0));
+
+        String plain = TestInputs.toJson(
+                TestInputs.runWith(inputData, GameResultCache.ENABLED_PROPERTY, "false"));
+        String memoized = TestInputs.toJson(
+                TestInputs.runWith(inputData, GameResultCache.ENABLED_PROPERTY, "true"));
+        assertEquals(plain, memoized);
+    }
+
+    /**
+     * Only identical games share a key and are replayed.
+     */
+    @Test
+    public void onlyIdenticalGamesAreReplayed() {
+        Input inputData = TestInputs.generate(SEED, GAMES, ACTIONS);
+        ArrayList<GameInput> games = inputData.getGames();
+        games.add(games.get(1));
+
+        GameResultCache cache = new GameResultCache(inputData);
+        Utils utils = new Utils();
+        ArrayNode output = EngineContext.get().createArrayNode();
+        assertEquals(cache.key(1), cache.key(GAMES));
+        assertFalse(cache.key(0) == cache.key(1));
+
+        // A game without output entries is enough to be found again
+        cache.store(cache.key(1), 1, output, 0);
+        assertFalse(cache.replay(cache.key(0), output, 0, utils));
+        assertTrue(cache.replay(cache.key(GAMES), output, GAMES, utils));
+        assertEquals(1, cache.getHits());
+    }
+}
@@ -0,0 +1,188 @@
+package org.poo.main.Persistence;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.Test;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.Input;
+import org.poo.main.Command;
+import org.poo.main.Encoding.OutputFormat;
+import org.poo.main.EngineContext;
+import org.poo.main.TestInputs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that resuming a growing input from its checkpoint gives the output of a full
+ * run, and that a checkpoint is not used once the input or output it was saved for
+ * changed.
+ */
+public final class CheckpointStoreTest {
+    private static final String INPUT_NAME = "live.json";
+    private static final String FINGERPRINT = "test";
+    private static final long SEED = 46;
+    private static final int GAMES = 3;
+    private static final int ACTIONS = 120;
+    private static final int[] STEPS = {40, 90, ACTIONS};
+    private static final int EDITED_ACTION = 10;
+
+    /**
+     * Actions appended in several steps are resumed from the checkpoint, and the output
+     * file is the one written by a full run, in both output formats.
+     *
+     * @throws IOException If a temporary file cannot be written.
+     */
+    @Test
+    public void resumeMatchesFullRun() throws IOException {
+        for (OutputFormat format : OutputFormat.values()) {
+            Path directory = Files.createTempDirectory("gwent-checkpoint");
+            try {
+                CheckpointStore store = new CheckpointStore(directory, FINGERPRINT);
+                File output = directory.resolve("live.out").toFile();
+                assertFalse(play(store, prefix(STEPS[0]), output, format));
+                for (int i = 1; i < STEPS.length; i++) {
+                    assertTrue(play(store, prefix(STEPS[i]), output, format),
+                            format + " step " + i);
+                }
+                assertArrayEquals(fullRun(prefix(ACTIONS), directory, format),
+                        Files.readAllBytes(output.toPath()));
+            } finally {
+                delete(directory);
+            }
+        }
+    }
+
+    /**
+     * An edit of the actions already executed, or of the output file, makes the next run
+     * start over, and its output is still the one of a full run.
+     *
+     * @throws IOException If a temporary file cannot be written.
+     */
+    @Test
+    public void changedPrefixIsRejected() throws IOException {
+        Path directory = Files.createTempDirectory("gwent-checkpoint");
+        try {
+            CheckpointStore store = new CheckpointStore(directory, FINGERPRINT);
+            File output = directory.resolve("live.out").toFile();
+            OutputFormat format = OutputFormat.JSON;
+
+            play(store, prefix(STEPS[0]), output, format);
+            Input edited = edit(prefix(ACTIONS));
+            assertFalse(play(store, edited, output, format));
+            assertArrayEquals(fullRun(edited, directory, format),
+                    Files.readAllBytes(output.toPath()));
+
+            // Same size, different content
+            try (RandomAccessFile file = new RandomAccessFile(output, "rw")) {
+                file.seek(file.length() / 2);
+                int value = file.read();
+                file.seek(file.length() / 2);
+                file.write(value == ' ' ? '\t' : ' ');
+            }
+            Input longer = edit(prefix(ACTIONS));
+            ArrayList<ActionsInput> lastGame = longer.getGames().get(GAMES - 1).getActions();
+            lastGame.add(lastGame.get(0));
+            assertFalse(play(store, longer, output, format));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Runs an input as {@code Main.action} does with checkpoints enabled.
+     *
+     * @param store     The checkpoint store.
+     * @param inputData The input.
+     * @param output    The output file.
+     * @param format    The output format.
+     * @return True if the run resumed from a checkpoint.
+     * @throws IOException If a file cannot be read or written.
+     */
+    private static boolean play(final CheckpointStore store,
+                                final Input inputData,
+                                final File output,
+                                final OutputFormat format) throws IOException {
+        ArrayNode entries = EngineContext.get().createArrayNode();
+        Command command = TestInputs.newCommand(inputData, entries);
+        CheckpointStore.Checkpoint checkpoint = store.load(INPUT_NAME, inputData, output,
+                format);
+        if (checkpoint != null) {
+            command.resume(checkpoint.getSession(), checkpoint.getActions());
+            format.append(output, entries);
+        } else {
+            command.setKeepLastSession(true);
+            command.run();
+            format.write(output, entries);
+        }
+        store.save(INPUT_NAME, inputData, command.getLastSession(), output, format);
+        return checkpoint != null;
+    }
+
+    /**
+     * Writes the output of a full run.
+     *
+     * @param inputData The input.
+     * @param directory The directory of the temporary output file.
+     * @param format    The output format.
+     * @return The bytes of the output file.
+     * @throws IOException If the file cannot be written.
+     */
+    private static byte[] fullRun(final Input inputData,
+                                  final Path directory,
+                                  final OutputFormat format) throws IOException {
+        File file = directory.resolve("full.out").toFile();
+        format.write(file, TestInputs.run(inputData));
+        return Files.readAllBytes(file.toPath());
+    }
+
+    /**
+     * Generates the input with only the first actions of its last game.
+     *
+     * @param actions The number of actions of the last game.
+     * @return The input.
+     */
+    private static Input prefix(final int actions) {
+        Input inputData = TestInputs.generate(SEED, GAMES, ACTIONS);
+        ArrayList<ActionsInput> lastGame = inputData.getGames().get(GAMES - 1).getActions();
+        lastGame.subList(actions, lastGame.size()).clear();
+        return inputData;
+    }
+
+    /**
+     * Replaces one of the first actions of the last game with another query.
+     *
+     * @param inputData The input, changed in place.
+     * @return The input.
+     */
+    private static Input edit(final Input inputData) {
+        ActionsInput action = inputData.getGames().get(GAMES - 1).getActions()
+                .get(EDITED_ACTION);
+        action.setCommand(action.getCommand().equals("getPlayerTurn")
+                ? "getPlayerOneWins" : "getPlayerTurn");
+        return inputData;
+    }
+
+    /**
+     * Deletes a temporary directory and its files.
+     *
+     * @param directory The directory.
+     * @throws IOException If a file cannot be deleted.
+     */
+    private static void delete(final Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.poo.main.Rules;
+
+import org.junit.jupiter.api.Test;
+import org.poo.fileio.CardInput;
+import org.poo.main.CardHandler.Minion;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the order in which dead minions are removed and notified.
+ */
+public final class MinionDeathsTest {
+    private static final int ROW = 2;
+    private static final int[] HEALTH = {3, 1, 5, 2, 4};
+
+    /**
+     * The marked minions are removed in one notification, in their left to right order,
+     * and the survivors keep theirs.
+     */
+    @Test
+    public void compactionKeepsOrder() {
+        LinkedList<Minion> row = createRow();
+        List<Minion> minions = new ArrayList<>(row);
+        List<List<Minion>> notifications = new ArrayList<>();
+        MinionDeaths.Listener previous = MinionDeaths.setListener((rowIndex, died) -> {
+            assertEquals(ROW, rowIndex);
+            notifications.add(died);
+        });
+        try {
+            long deaths = MinionDeaths.mark(MinionDeaths.mark(0, 3), 0);
+            MinionDeaths.compact(row, ROW, MinionDeaths.mark(deaths, 4));
+        } finally {
+            MinionDeaths.setListener(previous);
+        }
+
+        assertEquals(List.of(minions.get(1), minions.get(2)), row);
+        assertEquals(List.of(List.of(minions.get(0), minions.get(3), minions.get(4))),
+                notifications);
+    }
+
+    /**
+     * Minions killed by a row kernel are removed after all of them were damaged, so the
+     * columns of the later ones do not shift.
+     */
+    @Test
+    public void kernelDeathsKeepOrder() {
+        LinkedList<Minion> row = createRow();
+        List<Minion> minions = new ArrayList<>(row);
+        List<List<Minion>> notifications = new ArrayList<>();
+        MinionDeaths.Listener previous = MinionDeaths.setListener(
+                (rowIndex, died) -> notifications.add(died));
+        try {
+            RowKernels.RowArrays arrays = RowKernels.load(row);
+            arrays.damage(2);
+            RowKernels.store(arrays, row, ROW);
+        } finally {
+            MinionDeaths.setListener(previous);
+        }
+
+        assertEquals(List.of(minions.get(0), minions.get(2), minions.get(4)), row);
+        assertEquals(List.of(1, 3, 2), row.stream().map(Minion::getHealth).toList());
+        assertEquals(List.of(List.of(minions.get(1), minions.get(3))), notifications);
+    }
+
+    /**
+     * A compaction without deaths leaves the row as it is and notifies nothing.
+     */
+    @Test
+    public void noDeathsNoNotification() {
+        LinkedList<Minion> row = createRow();
+        List<Minion> minions = new ArrayList<>(row);
+        List<List<Minion>> notifications = new ArrayList<>();
+        MinionDeaths.Listener previous = MinionDeaths.setListener(
+                (rowIndex, died) -> notifications.add(died));
+        try {
+            MinionDeaths.compact(row, ROW, 0);
+            // A column past the end of the row has no minion to remove
+            MinionDeaths.compact(row, ROW, MinionDeaths.mark(0, HEALTH.length));
+        } finally {
+            MinionDeaths.setListener(previous);
+        }
+
+        assertEquals(minions, row);
+        assertTrue(notifications.isEmpty());
+    }
+
+    /**
+     * Columns outside the mask are rejected.
+     */
+    @Test
+    public void markRejectsColumnOutsideMask() {
+        assertThrows(IndexOutOfBoundsException.class, () -> MinionDeaths.mark(0, -1));
+        assertThrows(IndexOutOfBoundsException.class, () -> MinionDeaths.mark(0, Long.SIZE));
+    }
+
+    /**
+     * Creates a row of minions with the test health values.
+     *
+     * @return The row.
+     */
+    private static LinkedList<Minion> createRow() {
+        LinkedList<Minion> row = new LinkedList<>();
+        for (int health : HEALTH) {
+            CardInput card = new CardInput();
+            card.setMana(1);
+            card.setHealth(health);
+            card.setAttackDamage(1);
+            card.setDescription("Sentinel card");
+            card.setColors(new ArrayList<>(List.of("Red")));
+            card.setName("Sentinel");
+            row.add(new Minion(card));
+        }
+        return row;
+    }
+}
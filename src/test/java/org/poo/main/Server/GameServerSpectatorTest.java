@@ -0,0 +1,193 @@
+package org.poo.main.Server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.poo.fileio.Input;
+import org.poo.main.EngineContext;
+import org.poo.main.TestInputs;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that a connection spectating a match receives its frames over the socket.
+ */
+public final class GameServerSpectatorTest {
+    private static final ObjectMapper OBJECT_MAPPER = EngineContext.get().getObjectMapper();
+    private static final long SEED = 33;
+    private static final int ENGINE_SLOTS = 2;
+    private static final int TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * A spectator receives the start of the game and the end of a turn of the match it
+     * watches, then the end of the stream once the players leave, with and without an
+     * engine executor.
+     *
+     * @throws Exception If the server or a connection fails.
+     */
+    @Test
+    public void spectatorReceivesFrames() throws Exception {
+        Input inputData = TestInputs.generate(SEED, 1, 1);
+        String startGame = OBJECT_MAPPER.createObjectNode()
+                .putPOJO("startGame", inputData.getGames().get(0).getStartGame()).toString();
+        for (int engineSlots : new int[] {0, ENGINE_SLOTS}) {
+            EngineExecutor executor = engineSlots > 0 ? new EngineExecutor(engineSlots) : null;
+            try (RunningServer server = new RunningServer(inputData, executor);
+                 Client player = new Client(server);
+                 Client spectator = new Client(server)) {
+                int matchId = player.send("{\"getMatchId\": true}").get(0)
+                        .get("matchId").asInt();
+                assertEquals(matchId, spectator.send("{\"spectate\": " + matchId + "}")
+                        .get(0).get("spectating").asInt());
+
+                player.send(startGame);
+                player.send("{\"command\": \"endPlayerTurn\"}");
+                assertEquals("gameStarted", spectator.read().get("event").asText());
+                JsonNode turnEnded = spectator.read();
+                assertEquals("turnEnded", turnEnded.get("event").asText());
+                assertEquals(0, turnEnded.get("game").asInt());
+
+                player.disconnect();
+                // The connection is closed once the match ended
+                assertNull(spectator.readLine());
+            } finally {
+                if (executor != null) {
+                    executor.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Unknown matches and a second subscription are reported, and the connection can
+     * still play its own match.
+     *
+     * @throws Exception If the server or a connection fails.
+     */
+    @Test
+    public void invalidSpectateIsReported() throws Exception {
+        Input inputData = TestInputs.generate(SEED, 1, 1);
+        try (RunningServer server = new RunningServer(inputData, null);
+             Client client = new Client(server)) {
+            int matchId = client.send("{\"getMatchId\": true}").get(0).get("matchId").asInt();
+            assertEquals("Unknown match.", client.send("{\"spectate\": " + (matchId + 1) + "}")
+                    .get(0).get("error").asText());
+            assertEquals("Unknown match.", client.send("{\"spectate\": \"" + matchId + "\"}")
+                    .get(0).get("error").asText());
+            client.send("{\"spectate\": " + matchId + "}");
+            assertEquals("Already spectating.", client.send("{\"spectate\": " + matchId + "}")
+                    .get(0).get("error").asText());
+            assertEquals("No game started.", client.send("{\"command\": \"getPlayerTurn\"}")
+                    .get(0).get("error").asText());
+        }
+    }
+
+    /**
+     * A server on a free local port, served by its own thread until closed.
+     */
+    private static final class RunningServer implements AutoCloseable {
+        private final GameServer server;
+        private final Thread thread;
+
+        private RunningServer(final Input inputData,
+                              final EngineExecutor executor) throws IOException {
+            server = new GameServer(inputData,
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), executor);
+            thread = new Thread(() -> {
+                try {
+                    server.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            thread.start();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // The selector is only closed once its thread stopped using it
+            server.stop();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            server.close();
+        }
+    }
+
+    /**
+     * A blocking connection to the server.
+     */
+    private static final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final OutputStream out;
+        private final BufferedReader in;
+
+        private Client(final RunningServer server) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), server.server.getPort());
+            socket.setSoTimeout(TIMEOUT_MILLIS);
+            out = socket.getOutputStream();
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Sends a message and reads its response.
+         *
+         * @param message The JSON message.
+         * @return The response.
+         * @throws IOException If the connection fails.
+         */
+        private JsonNode send(final String message) throws IOException {
+            out.write((message + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            return read();
+        }
+
+        /**
+         * Reads the next line as JSON.
+         *
+         * @return The JSON node.
+         * @throws IOException If the connection fails.
+         */
+        private JsonNode read() throws IOException {
+            return OBJECT_MAPPER.readTree(readLine());
+        }
+
+        /**
+         * Reads the next line.
+         *
+         * @return The line, or null at the end of the stream.
+         * @throws IOException If the connection fails.
+         */
+        private String readLine() throws IOException {
+            return in.readLine();
+        }
+
+        /**
+         * Closes the connection before the end of the test.
+         *
+         * @throws IOException If the socket cannot be closed.
+         */
+        private void disconnect() throws IOException {
+            socket.close();
+        }
+
+        @Override
+        public void close() throws IOException {
+            disconnect();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.poo.main.Simulation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.GameInput;
+import org.poo.fileio.Input;
+import org.poo.main.TestInputs;
+import org.poo.main.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the differential tester finds exactly the first divergent command.
+ */
+public final class DifferentialTesterTest {
+    private static final long SEED = 29;
+    private static final int GAMES = 3;
+    private static final int ACTIONS = 80;
+    private static final int DIVERGENT_GAME = 1;
+    private static final int DIVERGENT_ACTION = 17;
+    private static final int WIN_QUERY_GAME = 2;
+    private static final int THREADS = 4;
+
+    /**
+     * The reference engine never diverges from itself, so every action is compared.
+     *
+     * @throws IOException If the input file cannot be written or read.
+     */
+    @Test
+    public void referenceMatchesItself() throws IOException {
+        DifferentialTester tester = new DifferentialTester(new ReferenceEngine(),
+                new ReferenceEngine());
+        File file = generate();
+        try {
+            DifferentialTester.FileResult result = tester.check(file);
+            assertNull(result.getDivergence());
+            assertEquals(GAMES * ACTIONS, result.getActions());
+        } finally {
+            Files.delete(file.toPath());
+        }
+    }
+
+    /**
+     * A candidate whose output differs at one command is reported at that command.
+     *
+     * @throws IOException If the input file cannot be written or read.
+     */
+    @Test
+    public void firstDivergenceIsReported() throws IOException {
+        DifferentialTester tester = new DifferentialTester(new ReferenceEngine(),
+                new SkewedEngine(DIVERGENT_GAME, DIVERGENT_ACTION));
+        File file = generate();
+        try {
+            DifferentialTester.FileResult result = tester.check(file);
+            ObjectNode divergence = result.getDivergence();
+            assertNotNull(divergence);
+            assertEquals(DIVERGENT_GAME, divergence.get("game").asInt());
+            assertEquals(DIVERGENT_ACTION, divergence.get("action").asInt());
+            assertEquals(DIVERGENT_GAME * ACTIONS + DIVERGENT_ACTION + 1, result.getActions());
+            assertNotNull(divergence.get("skewed").get("state"));
+        } finally {
+            Files.delete(file.toPath());
+        }
+    }
+
+    /**
+     * Checking files split into games on several threads gives the results of checking
+     * each file in order.
+     *
+     * @throws Exception If the input file cannot be written or read, or the check fails.
+     */
+    @Test
+    public void parallelCheckMatchesSequentialCheck() throws Exception {
+        DifferentialTester tester = new DifferentialTester(new ReferenceEngine(),
+                new SkewedEngine(DIVERGENT_GAME, DIVERGENT_ACTION));
+        File file = generate();
+        try {
+            DifferentialTester.FileResult sequential = tester.check(file);
+            List<DifferentialTester.FileResult> results = tester.check(List.of(file, file),
+                    THREADS);
+            assertEquals(2, results.size());
+            for (DifferentialTester.FileResult result : results) {
+                assertEquals(sequential.getActions(), result.getActions());
+                assertEquals(TestInputs.toJson(sequential.getDivergence()),
+                        TestInputs.toJson(result.getDivergence()));
+            }
+        } finally {
+            Files.delete(file.toPath());
+        }
+    }
+
+    /**
+     * A divergent win query is reported with the wins of the previous games, although
+     * its game was played on its own.
+     *
+     * @throws Exception If the input file cannot be written or read, or the check fails.
+     */
+    @Test
+    public void winQueriesCountPreviousGames() throws Exception {
+        File file = generate();
+        try {
+            Input inputData = TestInputs.generate(SEED, GAMES, ACTIONS);
+            ArrayList<ActionsInput> actions = inputData.getGames().get(WIN_QUERY_GAME)
+                    .getActions();
+            int query = 0;
+            while (!actions.get(query).getCommand().equals("getPlayerOneWins")) {
+                query++;
+            }
+
+            // The value of the query when all the games are played in order
+            ArrayList<GameInput> games = inputData.getGames();
+            games.subList(WIN_QUERY_GAME + 1, games.size()).clear();
+            actions.subList(query + 1, actions.size()).clear();
+            ArrayNode output = TestInputs.run(inputData);
+            int expected = Utils.getOutputNode(output.get(output.size() - 1)).get("output")
+                    .asInt();
+            assertTrue(expected > 0);
+
+            DifferentialTester tester = new DifferentialTester(new ReferenceEngine(),
+                    new SkewedEngine(WIN_QUERY_GAME, query));
+            ObjectNode divergence = tester.check(List.of(file), THREADS).get(0)
+                    .getDivergence();
+            assertEquals(query, divergence.get("action").asInt());
+            assertEquals(expected,
+                    divergence.get("reference").get("output").get(0).get("output").asInt());
+            assertEquals(expected,
+                    divergence.get("skewed").get("output").get(0).get("output").asInt());
+        } finally {
+            Files.delete(file.toPath());
+        }
+    }
+
+    /**
+     * Writes a generated input file.
+     *
+     * @return The file.
+     * @throws IOException If the file cannot be written.
+     */
+    private static File generate() throws IOException {
+        File file = Files.createTempFile("gwent-differential", ".json").toFile();
+        new WorkloadGenerator(SEED, TestInputs.DECKS, TestInputs.CARDS_IN_DECK, GAMES, ACTIONS,
+                TestInputs.QUERY_RATIO, TestInputs.INVALID_RATIO).generate(file);
+        return file;
+    }
+
+    /**
+     * The reference engine with one extra output entry at the divergent command.
+     */
+    private static final class SkewedEngine implements GameEngine {
+        private final ReferenceEngine reference = new ReferenceEngine();
+        private final int divergentGame;
+        private final int divergentAction;
+
+        private SkewedEngine(final int divergentGame,
+                             final int divergentAction) {
+            this.divergentGame = divergentGame;
+            this.divergentAction = divergentAction;
+        }
+
+        @Override
+        public String getName() {
+            return "skewed";
+        }
+
+        @Override
+        public EngineMatch createMatch(final Input inputData) {
+            EngineMatch match = reference.createMatch(inputData);
+            return new EngineMatch() {
+                private int game;
+                private int action;
+
+                @Override
+                public void startGame(final int gameIndex) {
+                    game = gameIndex;
+                    action = 0;
+                    match.startGame(gameIndex);
+                }
+
+                @Override
+                public void execute(final ActionsInput command,
+                                    final ArrayNode output) {
+                    match.execute(command, output);
+                    if (game == divergentGame && action == divergentAction) {
+                        output.addObject().put("error", "Skewed.");
+                    }
+                    action++;
+                }
+
+                @Override
+                public JsonNode describeState() {
+                    return match.describeState();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.poo.main.Simulation;
+
+import org.junit.jupiter.api.Test;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.Input;
+import org.poo.main.Command;
+import org.poo.main.EngineContext;
+import org.poo.main.TestInputs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a replay verified against a recorded state trace reports divergences.
+ */
+public final class StateTraceTest {
+    private static final String INPUT_NAME = "traced.json";
+    private static final long SEED = 30;
+    private static final int GAMES = 2;
+    private static final int ACTIONS = 60;
+    private static final int EDITED_ACTION = 20;
+
+    /**
+     * The recorded input verifies, while a changed command or a replay ending before the
+     * trace diverges.
+     *
+     * @throws IOException If the trace cannot be written or read.
+     */
+    @Test
+    public void divergenceIsDetected() throws IOException {
+        Path directory = Files.createTempDirectory("gwent-trace");
+        Path traceFile = directory.resolve(INPUT_NAME + ".trace");
+        try {
+            play(StateTrace.RECORD_PROPERTY, directory,
+                    TestInputs.generate(SEED, GAMES, ACTIONS));
+            assertFalse(play(StateTrace.VERIFY_PROPERTY, directory,
+                    TestInputs.generate(SEED, GAMES, ACTIONS)));
+
+            Input edited = TestInputs.generate(SEED, GAMES, ACTIONS);
+            ActionsInput action = edited.getGames().get(1).getActions().get(EDITED_ACTION);
+            action.setCommand(action.getCommand().equals("endPlayerTurn")
+                    ? "getPlayerTurn" : "endPlayerTurn");
+            assertTrue(play(StateTrace.VERIFY_PROPERTY, directory, edited));
+
+            // The divergence is only found when the trace is closed
+            Input shorter = TestInputs.generate(SEED, GAMES, ACTIONS);
+            ArrayList<ActionsInput> lastGame = shorter.getGames().get(GAMES - 1).getActions();
+            lastGame.remove(lastGame.size() - 1);
+            assertTrue(play(StateTrace.VERIFY_PROPERTY, directory, shorter));
+        } finally {
+            Files.deleteIfExists(traceFile);
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * Plays an input with its state trace, as {@code Main.action} does.
+     *
+     * @param property  The trace property to set, recording or verifying.
+     * @param directory The trace directory.
+     * @param inputData The input.
+     * @return True if the replay diverged from the trace.
+     * @throws IOException If the trace cannot be written or read.
+     */
+    private static boolean play(final String property,
+                                final Path directory,
+                                final Input inputData) throws IOException {
+        System.setProperty(property, directory.toString());
+        StateTrace stateTrace;
+        try {
+            stateTrace = StateTrace.open(INPUT_NAME);
+        } finally {
+            System.clearProperty(property);
+        }
+        try (StateTrace trace = stateTrace) {
+            Command command = TestInputs.newCommand(inputData,
+                    EngineContext.get().createArrayNode());
+            command.setStateTrace(trace);
+            command.run();
+        }
+        return stateTrace.hasDiverged();
+    }
+}
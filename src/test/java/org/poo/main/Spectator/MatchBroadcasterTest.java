@@ -0,0 +1,147 @@
+package org.poo.main.Spectator;
+
+import org.junit.jupiter.api.Test;
+import org.poo.fileio.ActionsInput;
+import org.poo.main.EngineContext;
+import org.poo.main.GameSession;
+import org.poo.main.TestInputs;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks what a spectator that falls behind receives.
+ */
+public final class MatchBroadcasterTest {
+    private static final long SEED = 7;
+
+    private final GameSession session = TestInputs.newSession(TestInputs.generate(SEED, 1, 0), 0);
+
+    /**
+     * A full queue makes room by dropping its oldest droppable frame.
+     */
+    @Test
+    public void fullQueueDropsOldestDroppableFrame() {
+        // Frames are delivered on the publishing thread, so nothing runs concurrently
+        MatchBroadcaster broadcaster = new MatchBroadcaster(Runnable::run, 2);
+        Spectator spectator = new Spectator();
+        broadcaster.subscribe(spectator);
+        session.setEventListener(broadcaster);
+
+        broadcaster.gameStarted(session);
+        endTurn();
+        endTurn();
+        endTurn();
+        assertEquals(2, broadcaster.getDroppedFrames());
+
+        spectator.request(Long.MAX_VALUE);
+        assertEquals(List.of("gameStarted", "turnEnded"), spectator.events);
+        // The newest turn end is kept
+        String lastFrame = spectator.frames.get(1);
+        assertTrue(lastFrame.contains("\"playerTurn\":" + session.getUtils().getTurn()),
+                lastFrame);
+
+        broadcaster.close();
+        assertTrue(spectator.completed);
+    }
+
+    /**
+     * Game starts are never dropped, even when they fill the queue.
+     */
+    @Test
+    public void framesThatCannotBeDroppedAreKept() {
+        MatchBroadcaster broadcaster = new MatchBroadcaster(Runnable::run, 1);
+        Spectator spectator = new Spectator();
+        broadcaster.subscribe(spectator);
+        session.setEventListener(broadcaster);
+
+        broadcaster.gameStarted(session);
+        // Only a game start is queued, so the turn end is skipped
+        endTurn();
+        assertEquals(1, broadcaster.getDroppedFrames());
+        // A game start is queued beyond the capacity
+        broadcaster.gameStarted(session);
+        assertEquals(1, broadcaster.getDroppedFrames());
+
+        spectator.request(Long.MAX_VALUE);
+        assertEquals(List.of("gameStarted", "gameStarted"), spectator.events);
+    }
+
+    /**
+     * A request for no frames ends the subscription with onError.
+     */
+    @Test
+    public void invalidRequestSignalsError() {
+        MatchBroadcaster broadcaster = new MatchBroadcaster(Runnable::run, 2);
+        Spectator spectator = new Spectator();
+        broadcaster.subscribe(spectator);
+        broadcaster.gameStarted(session);
+
+        spectator.request(0);
+        assertNotNull(spectator.error);
+        assertTrue(spectator.events.isEmpty());
+        assertEquals(0, broadcaster.getSpectatorCount());
+        assertFalse(spectator.completed);
+    }
+
+    /**
+     * Ends the turn of the current player.
+     */
+    private void endTurn() {
+        ActionsInput command = new ActionsInput();
+        command.setCommand("endPlayerTurn");
+        session.execute(command, EngineContext.get().createArrayNode());
+    }
+
+    /**
+     * A spectator that only requests frames when told to.
+     */
+    private static final class Spectator implements Flow.Subscriber<GameFrame> {
+        private final List<String> events = new ArrayList<>();
+        private final List<String> frames = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private Throwable error;
+        private boolean completed;
+
+        /**
+         * Asks for more frames.
+         *
+         * @param n The number of frames.
+         */
+        private void request(final long n) {
+            subscription.request(n);
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription newSubscription) {
+            subscription = newSubscription;
+        }
+
+        @Override
+        public void onNext(final GameFrame frame) {
+            events.add(frame.getEvent());
+            ByteBuffer buffer = frame.getBytes();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            frames.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
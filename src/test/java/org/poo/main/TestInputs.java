@@ -0,0 +1,144 @@
+package org.poo.main;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.poo.fileio.Input;
+import org.poo.main.CardHandler.Deck;
+import org.poo.main.Simulation.WorkloadGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.LinkedList;
+
+/**
+ * Inputs and runs shared by the tests. The inputs come from the seeded
+ * {@link WorkloadGenerator}, so the same seed always gives the same games.
+ */
+public final class TestInputs {
+    public static final int DECKS = 3;
+    public static final int CARDS_IN_DECK = 12;
+    public static final double QUERY_RATIO = 0.3;
+    public static final double INVALID_RATIO = 0.1;
+
+    /**
+     * for coding style
+     */
+    private TestInputs() {
+    }
+
+    /**
+     * Generates an input and reads it back, as the engine reads its input files.
+     *
+     * @param seed           The seed of the generator.
+     * @param nrGames        The number of games.
+     * @param actionsPerGame The number of actions in each game.
+     * @return The input.
+     */
+    public static Input generate(final long seed,
+                                 final int nrGames,
+                                 final int actionsPerGame) {
+        try {
+            File file = Files.createTempFile("gwent", ".json").toFile();
+            try {
+                new WorkloadGenerator(seed, DECKS, CARDS_IN_DECK, nrGames, actionsPerGame,
+                        QUERY_RATIO, INVALID_RATIO).generate(file);
+                return EngineContext.get().getInputReader().readValue(file);
+            } finally {
+                Files.deleteIfExists(file.toPath());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Plays all the games of an input with fresh decks.
+     *
+     * @param inputData The input.
+     * @return The output of the games.
+     */
+    public static ArrayNode run(final Input inputData) {
+        ArrayNode output = EngineContext.get().createArrayNode();
+        newCommand(inputData, output).run();
+        return output;
+    }
+
+    /**
+     * Creates the command runner of an input, with fresh decks.
+     *
+     * @param inputData The input.
+     * @param output    The output ArrayNode.
+     * @return The command runner.
+     */
+    public static Command newCommand(final Input inputData,
+                                     final ArrayNode output) {
+        LinkedList<LinkedList<Deck>> playerOne = Deck.setCardType(inputData.getPlayerOneDecks());
+        LinkedList<LinkedList<Deck>> playerTwo = Deck.setCardType(inputData.getPlayerTwoDecks());
+        return new Command(inputData, playerOne, playerTwo, output);
+    }
+
+    /**
+     * Starts one game of an input on its own session, with fresh decks.
+     *
+     * @param inputData The input.
+     * @param gameIndex The index of the game.
+     * @return The session, before any action of the game.
+     */
+    public static GameSession newSession(final Input inputData,
+                                         final int gameIndex) {
+        return new GameSession(inputData.getGames().get(gameIndex).getStartGame(), gameIndex,
+                Deck.setCardType(inputData.getPlayerOneDecks()),
+                Deck.setCardType(inputData.getPlayerTwoDecks()), new Utils());
+    }
+
+    /**
+     * Plays all the games of an input with a system property set, restoring it afterwards.
+     *
+     * @param inputData The input.
+     * @param property  The name of the property.
+     * @param value     The value of the property, or null to clear it.
+     * @return The output of the games.
+     */
+    public static ArrayNode runWith(final Input inputData,
+                                    final String property,
+                                    final String value) {
+        String previous = System.getProperty(property);
+        setProperty(property, value);
+        try {
+            return run(inputData);
+        } finally {
+            setProperty(property, previous);
+        }
+    }
+
+    /**
+     * Writes an output as the checker reads it.
+     *
+     * @param output The output.
+     * @return The pretty printed JSON.
+     */
+    public static String toJson(final JsonNode output) {
+        try {
+            return EngineContext.get().getPrettyWriter().writeValueAsString(output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sets or clears a system property.
+     *
+     * @param property The name of the property.
+     * @param value    The value, or null to clear the property.
+     */
+    private static void setProperty(final String property,
+                                    final String value) {
+        if (value == null) {
+            System.clearProperty(property);
+        } else {
+            System.setProperty(property, value);
+        }
+    }
+}